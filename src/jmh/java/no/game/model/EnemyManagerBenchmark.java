@@ -0,0 +1,58 @@
+package no.game.model;
+
+import no.game.model.enemy.EnemyManager;
+import no.game.model.enemy.IEnemy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of moving all enemies one tick along the path.
+ *
+ * The enemies are rebuilt before every iteration so that they are still
+ * spread out along the path and have not piled up at the end. They are kept
+ * either as separate objects or in an EnemyStore.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnemyManagerBenchmark {
+
+    static final double SPEED = 0.001;
+
+    @State(Scope.Benchmark)
+    public static class MovingEnemies {
+        @Param({ "false", "true" })
+        public boolean useStore;
+
+        EnemyManager enemyManager;
+
+        @Setup(Level.Iteration)
+        public void setup(GameFixture fixture) {
+            enemyManager = new EnemyManager(fixture.path, useStore);
+            for (int i = 0; i < fixture.enemies; i++) {
+                IEnemy enemy = enemyManager.spawn(GameFixture.typeOf(i), GameFixture.IMMORTAL_HEALTH, 1.0);
+                GameFixture.spread(enemy, i, fixture.path.size(), SPEED);
+            }
+        }
+    }
+
+    @Benchmark
+    public void update(MovingEnemies state) {
+        state.enemyManager.update();
+    }
+}
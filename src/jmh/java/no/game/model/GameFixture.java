@@ -0,0 +1,159 @@
+package no.game.model;
+
+import no.game.model.enemy.Enemy;
+import no.game.model.enemy.EnemyType;
+import no.game.model.enemy.IEnemy;
+import no.game.model.tower.TowerType;
+import no.grid.CellPosition;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Shared benchmark state: an active game on the given map with a number of
+ * towers placed as close to the path as possible and a number of enemies
+ * spread evenly along the path.
+ *
+ * The board grows beyond 20x20 when needed to fit the towers, or the map
+ * when it is read from a file. The fixture
+ * enemies have practically infinite health and are held in place by a
+ * permanent full slow, and the first wave is ended before it spawns any
+ * enemies of its own, so the workload stays the same for the whole trial.
+ */
+@State(Scope.Benchmark)
+public class GameFixture {
+
+    static final double IMMORTAL_HEALTH = 1e15;
+    static final long SEED = 42;
+
+    @Param({ "10", "100", "1000", "10000" })
+    public int towers;
+
+    @Param({ "100", "10000", "1000000" })
+    public int enemies;
+
+    @Param({ "MAP1", "MAP2", "MAP3" })
+    public MapType map;
+
+    /** A map file to play on instead of the built-in map, if not empty. */
+    @Param({ "" })
+    public String mapFile;
+
+    GameModel model;
+    List<CellPosition> path;
+    List<Enemy> enemyList;
+
+    @Setup
+    public void setup() throws IOException {
+        MapFile file = mapFile.isEmpty() ? null : MapFile.read(Path.of(mapFile));
+        int side = 20;
+        while (side * side < towers * 2 + 400
+                || (file != null && (side < file.getRows() || side < file.getCols()))) {
+            side *= 2;
+        }
+
+        model = new GameModel(new GameBoard(side, side), false, new GameRandom(SEED));
+        if (file != null) {
+            model.setMap(file);
+        } else {
+            model.setMap(map);
+        }
+        path = model.getPath();
+        model.setGold(Integer.MAX_VALUE);
+        model.setPlayerHP(Integer.MAX_VALUE);
+
+        TowerType[] types = TowerType.values();
+        List<CellPosition> sites = buildSitesByDistanceToPath(model.getBoard(), path);
+        for (int i = 0; i < towers; i++) {
+            model.placeTower(sites.get(i), types[i % types.length]);
+        }
+        model.setGold(Integer.MAX_VALUE);
+
+        enemyList = new ArrayList<>(enemies);
+        for (int i = 0; i < enemies; i++) {
+            Enemy enemy = spreadEnemy(path, i, IMMORTAL_HEALTH, 0.0);
+            enemyList.add(enemy);
+            model.getEnemies().add(enemy);
+        }
+
+        model.endWave();
+        model.setGameState();
+    }
+
+    /**
+     * Creates the i-th of a series of enemies that are spread evenly along
+     * the path, cycling through the enemy types.
+     *
+     * @param path   the path to place the enemy on
+     * @param i      the index of the enemy in the series
+     * @param health the health of the enemy
+     * @param speed  the speed the enemy moves with from then on
+     * @return the new enemy
+     */
+    static Enemy spreadEnemy(List<CellPosition> path, int i, double health, double speed) {
+        Enemy enemy = typeOf(i).create(path, health, 1.0);
+        spread(enemy, i, path.size(), speed);
+        return enemy;
+    }
+
+    /**
+     * Returns the enemy type of the i-th enemy in a series.
+     */
+    static EnemyType typeOf(int i) {
+        return EnemyType.values()[i % EnemyType.values().length];
+    }
+
+    /**
+     * Moves a new enemy with speed 1.0 to the place of the i-th enemy in a
+     * series spread evenly along the path, then slows it to the given speed.
+     */
+    static void spread(IEnemy enemy, int i, int pathLength, double speed) {
+        int steps = i % Math.max(1, pathLength - 1);
+        for (int s = 0; s < steps; s++) {
+            enemy.move();
+        }
+        enemy.applySlow(1.0 - speed, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Lists all buildable cells on the board, nearest to the path first.
+     */
+    private static List<CellPosition> buildSitesByDistanceToPath(GameBoard board, List<CellPosition> path) {
+        int rows = board.rows();
+        int cols = board.cols();
+        int[] distance = new int[rows * cols];
+        Arrays.fill(distance, -1);
+
+        ArrayDeque<CellPosition> queue = new ArrayDeque<>();
+        for (CellPosition pos : path) {
+            if (distance[pos.row() * cols + pos.col()] < 0) {
+                distance[pos.row() * cols + pos.col()] = 0;
+                queue.add(pos);
+            }
+        }
+
+        List<CellPosition> sites = new ArrayList<>();
+        int[][] steps = { { 1, 0 }, { -1, 0 }, { 0, 1 }, { 0, -1 } };
+        while (!queue.isEmpty()) {
+            CellPosition pos = queue.poll();
+            for (int[] step : steps) {
+                CellPosition next = new CellPosition(pos.row() + step[0], pos.col() + step[1]);
+                if (board.positionIsOnGrid(next) && distance[next.row() * cols + next.col()] < 0) {
+                    distance[next.row() * cols + next.col()] = distance[pos.row() * cols + pos.col()] + 1;
+                    queue.add(next);
+                    sites.add(next);
+                }
+            }
+        }
+        return sites;
+    }
+}
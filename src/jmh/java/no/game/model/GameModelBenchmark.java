@@ -0,0 +1,65 @@
+package no.game.model;
+
+import no.game.model.tower.Tower;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of a full simulation tick and of the tower targeting queries
+ * that run inside it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameModelBenchmark {
+
+    @Benchmark
+    public void update(GameFixture fixture) {
+        fixture.model.update(0.2);
+    }
+
+    /**
+     * Runs the tower phase on the common ForkJoinPool.
+     */
+    @State(Scope.Benchmark)
+    public static class ParallelTargeting {
+        @Setup
+        public void setup(GameFixture fixture) {
+            fixture.model.setTargetingPool(ForkJoinPool.commonPool());
+        }
+    }
+
+    @Benchmark
+    public void updateParallelTargeting(GameFixture fixture, ParallelTargeting parallel) {
+        fixture.model.update(0.2);
+    }
+
+    @Benchmark
+    public void findEnemyInRange(GameFixture fixture, Blackhole bh) {
+        for (Tower tower : fixture.model.getTowers()) {
+            bh.consume(fixture.model.findEnemyInRange(tower));
+        }
+    }
+
+    @Benchmark
+    public void findEnemiesInRange(GameFixture fixture, Blackhole bh) {
+        for (Tower tower : fixture.model.getTowers()) {
+            bh.consume(fixture.model.findEnemiesInRange(tower));
+        }
+    }
+}
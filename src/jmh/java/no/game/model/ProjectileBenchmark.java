@@ -0,0 +1,70 @@
+package no.game.model;
+
+import no.game.model.enemy.Enemy;
+import no.game.model.tower.Tower;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of moving one projectile per tower towards its target. A
+ * projectile that hits is replaced by a new one fired from its tower, the
+ * same way towers keep firing during a game.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProjectileBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Volley {
+        Projectile[] projectiles;
+        Tower[] origins;
+        Enemy[] targets;
+
+        @Setup
+        public void setup(GameFixture fixture) {
+            List<Tower> towers = fixture.model.getTowers();
+            int count = towers.size();
+            projectiles = new Projectile[count];
+            origins = new Tower[count];
+            targets = new Enemy[count];
+            for (int i = 0; i < count; i++) {
+                origins[i] = towers.get(i);
+                targets[i] = fixture.enemyList.get(i % fixture.enemyList.size());
+                projectiles[i] = fire(i);
+            }
+        }
+
+        Projectile fire(int i) {
+            return new Projectile(origins[i].getPosition(), targets[i], origins[i].getDamage());
+        }
+    }
+
+    @Benchmark
+    public int move(Volley volley) {
+        int hits = 0;
+        Projectile[] projectiles = volley.projectiles;
+        for (int i = 0; i < projectiles.length; i++) {
+            projectiles[i].move();
+            if (projectiles[i].hasHitTarget()) {
+                projectiles[i] = volley.fire(i);
+                hits++;
+            }
+        }
+        return hits;
+    }
+}
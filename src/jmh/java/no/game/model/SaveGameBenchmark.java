@@ -0,0 +1,61 @@
+package no.game.model;
+
+import no.game.save.SaveGame;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of saving the fixture game to memory and loading it back.
+ * Run with for example -p enemies=100000 to measure a large checkpoint.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SaveGameBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Saved {
+        @Param({ "false", "true" })
+        public boolean useStore;
+
+        ByteArrayOutputStream buffer;
+        byte[] save;
+
+        @Setup
+        public void setup(GameFixture fixture) throws IOException {
+            buffer = new ByteArrayOutputStream();
+            SaveGame.write(fixture.model, Channels.newChannel(buffer));
+            save = buffer.toByteArray();
+        }
+    }
+
+    @Benchmark
+    public int save(GameFixture fixture, Saved saved) throws IOException {
+        saved.buffer.reset();
+        SaveGame.write(fixture.model, Channels.newChannel(saved.buffer));
+        return saved.buffer.size();
+    }
+
+    @Benchmark
+    public GameModel load(Saved saved) throws IOException {
+        return SaveGame.read(Channels.newChannel(new ByteArrayInputStream(saved.save)), saved.useStore);
+    }
+}
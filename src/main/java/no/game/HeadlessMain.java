@@ -0,0 +1,186 @@
+package no.game;
+
+import no.game.controller.GameMonitor;
+import no.game.model.GameModel;
+import no.game.model.MapFile;
+import no.game.model.MapType;
+import no.game.replay.ReplayReader;
+import no.game.replay.ReplayWriter;
+import no.game.save.SaveGame;
+import no.game.sim.BatchRunner;
+import no.game.sim.GameConfig;
+import no.game.sim.HeadlessRunner;
+import no.game.sim.SimulationResult;
+import no.game.sim.TowerPlacement;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs a game without a window and prints the result. Usage:
+ *
+ * <pre>
+ * HeadlessMain [--map MAP1 | --map-file FILE] [--ticks N] [--waves N] [--tower TYPE:row,col[@tick]]... [--enemy-store] [--seed N] [--games N] [--threads N] [--record FILE] [--replay FILE [--seek TICK]] [--load FILE] [--save FILE] [--jmx]
+ * </pre>
+ */
+public class HeadlessMain {
+
+	public static final long DEFAULT_MAX_TICKS = 100_000;
+
+	public static void main(String[] args) {
+		MapType mapType = MapType.MAP1;
+		Path mapFile = null;
+		long maxTicks = DEFAULT_MAX_TICKS;
+		int maxWaves = Integer.MAX_VALUE;
+		List<TowerPlacement> placements = new ArrayList<>();
+		boolean useEnemyStore = false;
+		long seed = HeadlessRunner.DEFAULT_SEED;
+		int games = 1;
+		int threads = Runtime.getRuntime().availableProcessors();
+		Path recordFile = null;
+		Path replayFile = null;
+		long seekTick = -1;
+		Path loadFile = null;
+		Path saveFile = null;
+		boolean jmx = false;
+
+		try {
+			for (int i = 0; i < args.length; i++) {
+				switch (args[i]) {
+					case "--map" -> mapType = MapType.valueOf(args[++i].toUpperCase());
+					case "--map-file" -> mapFile = Path.of(args[++i]);
+					case "--ticks" -> maxTicks = Long.parseLong(args[++i]);
+					case "--waves" -> maxWaves = Integer.parseInt(args[++i]);
+					case "--tower" -> placements.add(TowerPlacement.parse(args[++i]));
+					case "--enemy-store" -> useEnemyStore = true;
+					case "--seed" -> seed = Long.parseLong(args[++i]);
+					case "--games" -> games = Integer.parseInt(args[++i]);
+					case "--threads" -> threads = Integer.parseInt(args[++i]);
+					case "--record" -> recordFile = Path.of(args[++i]);
+					case "--replay" -> replayFile = Path.of(args[++i]);
+					case "--seek" -> seekTick = Long.parseLong(args[++i]);
+					case "--load" -> loadFile = Path.of(args[++i]);
+					case "--save" -> saveFile = Path.of(args[++i]);
+					case "--jmx" -> jmx = true;
+					default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+				}
+			}
+			// A batch plays fresh games of its own on threads of its own.
+			if (games > 1 && (recordFile != null || replayFile != null || loadFile != null || saveFile != null
+					|| useEnemyStore || jmx)) {
+				throw new IllegalArgumentException(
+						"--games cannot be used with --record, --replay, --load, --save, --enemy-store or --jmx");
+			}
+			// Saves and replays name their map by its type, so they cannot
+			// hold a game on a map read from a file.
+			if (mapFile != null && (recordFile != null || replayFile != null || loadFile != null
+					|| saveFile != null || games > 1)) {
+				throw new IllegalArgumentException(
+						"--map-file cannot be used with --record, --replay, --load, --save or --games");
+			}
+		} catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+			System.err.println(e.getMessage());
+			System.err.println(
+					"Usage: HeadlessMain [--map MAP1 | --map-file FILE] [--ticks N] [--waves N] [--tower TYPE:row,col[@tick]]... [--enemy-store] [--seed N] [--games N] [--threads N] [--record FILE] [--replay FILE [--seek TICK]] [--load FILE] [--save FILE] [--jmx]");
+			System.exit(2);
+			return;
+		}
+
+		try {
+			if (replayFile != null) {
+				replay(replayFile, seekTick, useEnemyStore);
+				return;
+			}
+			if (games > 1) {
+				runBatch(new GameConfig(mapType, placements, seed, maxTicks, maxWaves), games, threads);
+				return;
+			}
+
+			// A loaded game goes on where it was saved, on the map it was saved on.
+			GameModel model = loadFile == null ? null : SaveGame.load(loadFile, useEnemyStore);
+			if (model != null && model.getMapType() == null) {
+				throw new IOException("The saved game has no map to play on: " + loadFile);
+			}
+			HeadlessRunner runner = mapFile != null
+					? new HeadlessRunner(MapFile.read(mapFile), placements, useEnemyStore)
+					: new HeadlessRunner(model == null ? mapType : model.getMapType(), placements, useEnemyStore);
+			if (model == null) {
+				model = runner.newGame(seed);
+			}
+			GameMonitor monitor = jmx ? GameMonitor.register(model, runner) : null;
+			SimulationResult result;
+			if (recordFile != null) {
+				// The writer records the game through the model, and must be
+				// closed to write the end of the replay.
+				ReplayWriter writer = new ReplayWriter(FileChannel.open(recordFile, StandardOpenOption.CREATE,
+						StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING), model);
+				try {
+					result = runner.play(model, maxTicks, maxWaves);
+				} finally {
+					writer.close();
+				}
+			} else {
+				result = runner.play(model, maxTicks, maxWaves);
+			}
+			if (monitor != null) {
+				monitor.unregister();
+			}
+			if (saveFile != null) {
+				SaveGame.save(model, saveFile);
+			}
+			System.out.println(result.summary());
+		} catch (IOException | IllegalArgumentException e) {
+			// Such as a file that cannot be read, or a seek tick outside the
+			// replay.
+			System.err.println(e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Plays a recorded game up to the given tick, or to its end if the tick
+	 * is negative, and prints the state it reached.
+	 */
+	private static void replay(Path file, long seekTick, boolean useEnemyStore) throws IOException {
+		try (ReplayReader reader = new ReplayReader(FileChannel.open(file, StandardOpenOption.READ))) {
+			long start = System.nanoTime();
+			GameModel model = reader.seek(seekTick < 0 ? reader.getEndTick() : seekTick, useEnemyStore);
+			long elapsed = System.nanoTime() - start;
+			SimulationResult result = new SimulationResult(model.getMapType(), model.getTick(), elapsed,
+					model.getWaveNumber() - 1, model.getEnemiesLeaked(), model.getEnemiesKilled(), model.getScore(),
+					model.getGold(), model.getPlayerHP(), model.getTowers().size(), model.getGameState());
+			System.out.println("keyframes=" + reader.getKeyframeCount() + " actions=" + reader.getActionCount() + " "
+					+ result.summary());
+		}
+	}
+
+	/**
+	 * Plays copies of a game on several threads, numbering their seeds up
+	 * from the given config's seed, and prints each result as it comes in
+	 * followed by the throughput.
+	 */
+	private static void runBatch(GameConfig config, int games, int threads) {
+		List<GameConfig> configs = new ArrayList<>();
+		for (int i = 0; i < games; i++) {
+			configs.add(new GameConfig(config.map(), config.towers(), config.seed() + i, config.maxTicks(),
+					config.maxWaves()));
+		}
+
+		long start = System.nanoTime();
+		long[] ticks = new long[1];
+		try (BatchRunner runner = new BatchRunner(threads)) {
+			runner.run(configs, result -> {
+				ticks[0] += result.result().ticks();
+				System.out.println("seed=" + result.config().seed() + " " + result.result().summary());
+			});
+		}
+		double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+		System.out.printf("games=%d threads=%d elapsed=%.1fs ticks/sec=%.0f%n", games, threads, seconds,
+				ticks[0] / seconds);
+	}
+
+}
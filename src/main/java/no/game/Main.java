@@ -8,6 +8,8 @@ import no.game.view.GameView;
 
 import java.awt.Dimension;
 import java.awt.Toolkit;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 
 public class Main {
 
@@ -16,10 +18,16 @@ public class Main {
 	public static void main(String[] args) {
 		GameModel model = new GameModel();
 		GameView view = new GameView(model);
-		new GameController(model, view);
+		GameController controller = new GameController(model, view);
 
 		JFrame frame = new JFrame(WINDOW_TITLE);
 		frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+		frame.addWindowListener(new WindowAdapter() {
+			@Override
+			public void windowClosing(WindowEvent e) {
+				controller.stop();
+			}
+		});
 		frame.setContentPane(view);
 		frame.pack();
 
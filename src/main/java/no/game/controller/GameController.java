@@ -2,125 +2,150 @@ package no.game.controller;
 
 import no.game.model.GameModel;
 import no.game.model.GameState;
-import no.game.model.MapType;
 import no.game.model.tower.TowerType;
-import no.game.view.CellPositionToPixelConverter;
 import no.game.view.GameView;
+import no.game.view.UiElement;
+import no.game.view.UiLayout;
 import no.grid.CellPosition;
 
-import javax.swing.Timer;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.awt.geom.Rectangle2D;
 import java.awt.Point;
 
 /**
  * The GameController class handles user interactions and game updates
  * for a tower defense game. It connects the GameModel with the GameView,
- * processing mouse clicks for map selection and tower placement, and updating
- * the game state periodically.
+ * processing mouse clicks for map selection and tower placement, and runs the
+ * simulation on a separate GameLoop thread. The game is registered with a
+ * {@link GameMonitor}, so it can be watched with JMX tools.
  */
 public class GameController {
 
     private final GameModel model;
     private final GameView view;
-    private final Timer gameTimer;
+    private final GameLoop gameLoop;
+    private final GameMonitor monitor;
     private TowerType selectedTowerType;
 
     /**
-     * Constructs a new GameController with the specified model and view.
-     * Starts a timer to periodically update and repaint the game.
+     * Constructs a new GameController with the specified model and view,
+     * simulating at the default tick rate.
      *
      * @param model the game model
      * @param view  the game view
      */
     public GameController(GameModel model, GameView view) {
+        this(model, view, GameLoop.DEFAULT_TICK_RATE);
+    }
+
+    /**
+     * Constructs a new GameController with the specified model and view.
+     * Starts a simulation thread that updates the model at the given rate
+     * and requests a repaint of the view after each frame.
+     *
+     * @param model    the game model
+     * @param view     the game view
+     * @param tickRate the number of simulation ticks per second
+     */
+    public GameController(GameModel model, GameView view, int tickRate) {
         this.model = model;
         this.view = view;
 
         view.addMouseListener(new MouseAdapter() {
             @Override
             public void mouseClicked(MouseEvent e) {
-                Point point = e.getPoint();
-
-                if (model.getGameState() == GameState.CHOOSE) {
-                    for (int i = 1; i <= 3; i++) {
-                        if (view.getMapButton(i).contains(point)) {
-                            model.setMap(MapType.values()[i - 1]);
-                            model.GameStart();
-                            return;
-                        }
-                    }
+                synchronized (model) {
+                    handleClick(e.getPoint());
                 }
+            }
+        });
 
-                if (handleTowerSelection(point)) {
-                    return;
-                }
+        gameLoop = new GameLoop(model, tickRate, view::repaint);
+        gameLoop.start();
+        monitor = GameMonitor.register(model, gameLoop);
+    }
 
-                if (view.isTowerMenuVisible()) {
-                    Rectangle2D[] buttons = view.getButtonBoxes(view.getTowerMenuPosition());
-                    Rectangle2D sellButton = buttons[0];
-                    Rectangle2D upgradeButton = buttons[1];
-
-                    if (sellButton.contains(point)) {
-                        model.sellTower(view.getTowerMenuPosition());
-                        view.hideTowerMenu();
-                        return;
-                    } else if (upgradeButton.contains(point)) {
-                        model.upgradeTower(view.getTowerMenuPosition());
-                        view.hideTowerMenu();
-                        return;
-                    } else {
-                        view.hideTowerMenu();
-                    }
-                }
+    /**
+     * Stops the simulation thread and removes the game's monitor from the
+     * platform MBean server, so neither keeps the model alive. Should be
+     * called when the game window is closed.
+     */
+    public void stop() {
+        gameLoop.stop();
+        monitor.unregister();
+    }
 
-                Rectangle2D boardBox = new Rectangle2D.Double(
-                        GameView.OUTERMARGIN,
-                        GameView.OUTERMARGIN,
-                        view.getWidth() - GameView.OUTERMARGIN * 2,
-                        view.getHeight() - GameView.OUTERMARGIN * 2);
+    /**
+     * Returns the loop that runs the simulation.
+     *
+     * @return the game loop
+     */
+    public GameLoop getGameLoop() {
+        return gameLoop;
+    }
 
-                CellPositionToPixelConverter converter = new CellPositionToPixelConverter(
-                        boardBox,
-                        model.getDimension(),
-                        GameView.CELLMARGIN);
+    /**
+     * Returns the monitor that exposes the game over JMX.
+     *
+     * @return the game monitor
+     */
+    public GameMonitor getMonitor() {
+        return monitor;
+    }
 
-                CellPosition clickedCell = converter.getCellFromPixel(point.x, point.y);
+    /**
+     * Handles a mouse click on the view. Must be called while holding the
+     * model's monitor.
+     *
+     * @param point the screen coordinates where the player clicked
+     */
+    private void handleClick(Point point) {
+        UiLayout layout = view.getUiLayout();
+        UiElement element = layout.elementAt(point.x, point.y,
+                model.getGameState() == GameState.CHOOSE, view.getTowerMenuPosition());
+
+        if (element.getMapType() != null) {
+            model.setMap(element.getMapType());
+            model.GameStart();
+            return;
+        }
 
-                if (clickedCell != null && model.hasTowerAt(clickedCell)) {
-                    view.showTowerMenu(clickedCell);
-                }
+        if (handleTowerSelection(element, point, layout)) {
+            return;
+        }
+
+        if (view.isTowerMenuVisible()) {
+            if (element == UiElement.SELL_BUTTON) {
+                model.sellTower(view.getTowerMenuPosition());
+                view.hideTowerMenu();
+                return;
+            } else if (element == UiElement.UPGRADE_BUTTON) {
+                model.upgradeTower(view.getTowerMenuPosition());
+                view.hideTowerMenu();
+                return;
+            } else {
+                view.hideTowerMenu();
             }
-        });
+        }
 
-        gameTimer = new Timer(8, e -> {
-            model.update(0.2);
-            view.repaint();
-        });
-        gameTimer.start();
+        CellPosition clickedCell = layout.cellAt(point.x, point.y);
+
+        if (clickedCell != null && model.hasTowerAt(clickedCell)) {
+            view.showTowerMenu(clickedCell);
+        }
     }
 
     /**
      * Attempts to place a tower at the specified screen position, if valid.
+     * A tower cannot be placed on a cell the shop area covers.
      *
-     * @param point the screen coordinates where the player clicked
+     * @param point  the screen coordinates where the player clicked
+     * @param layout the layout of the view
      */
-    private void placeTowerAt(Point point) {
-        Rectangle2D box = new Rectangle2D.Double(
-                GameView.OUTERMARGIN,
-                GameView.OUTERMARGIN,
-                view.getWidth() - GameView.OUTERMARGIN * 2,
-                view.getHeight() - GameView.OUTERMARGIN * 2);
-
-        CellPositionToPixelConverter converter = new CellPositionToPixelConverter(
-                box,
-                model.getDimension(),
-                GameView.CELLMARGIN);
+    private void placeTowerAt(Point point, UiLayout layout) {
+        CellPosition cell = layout.cellAt(point.x, point.y);
 
-        CellPosition cell = converter.getCellFromPixel(point.x, point.y);
-
-        if (cell != null && !isCellInShopBounds(cell, converter)) {
+        if (cell != null && !layout.isUnderShop(cell)) {
             if (model.placeTower(cell, selectedTowerType)) {
                 selectedTowerType = null;
                 view.setPlacingTower(false);
@@ -130,56 +155,25 @@ public class GameController {
         }
     }
 
-    /**
-     * Checks if the given cell position overlaps with the shop area, where towers
-     * cannot be placed.
-     *
-     * @param cell      the cell to check
-     * @param converter the converter used to map cell positions to pixel bounds
-     * @return true if the cell is inside the shop bounds, false
-     *         otherwise
-     */
-    private boolean isCellInShopBounds(CellPosition cell, CellPositionToPixelConverter converter) {
-        Rectangle2D shopBounds = view.getShopBounds();
-        Rectangle2D cellBounds = converter.getBoundsForCell(cell);
-        return shopBounds.intersects(cellBounds);
-    }
-
     /**
      * Handles tower selection from the shop area or attempts to place a tower
      * if a tower is currently selected for placement.
      *
-     * @param point the screen coordinates where the player clicked
+     * @param element the element of the view that was clicked
+     * @param point   the screen coordinates where the player clicked
+     * @param layout  the layout of the view
      * @return true if handled, false otherwise
      */
-    private boolean handleTowerSelection(Point point) {
-        if (view.getBaseTowerBox().contains(point)) {
-            selectedTowerType = TowerType.BASIC;
-            view.setPlacingTowerType(getTowerClass(selectedTowerType));
-            view.setPlacingTower(true);
-            return true;
-        }
-        if (view.getSniperTowerBox().contains(point)) {
-            selectedTowerType = TowerType.SNIPER;
-            view.setPlacingTowerType(getTowerClass(selectedTowerType));
-            view.setPlacingTower(true);
-            return true;
-        }
-        if (view.getSlowTowerBox().contains(point)) {
-            selectedTowerType = TowerType.SLOW;
-            view.setPlacingTowerType(getTowerClass(selectedTowerType));
-            view.setPlacingTower(true);
-            return true;
-        }
-        if (view.getAOETowerBox().contains(point)) {
-            selectedTowerType = TowerType.AOE;
+    private boolean handleTowerSelection(UiElement element, Point point, UiLayout layout) {
+        if (element.getTowerType() != null) {
+            selectedTowerType = element.getTowerType();
             view.setPlacingTowerType(getTowerClass(selectedTowerType));
             view.setPlacingTower(true);
             return true;
         }
 
         if (view.isPlacingTower()) {
-            placeTowerAt(point);
+            placeTowerAt(point, layout);
             return true;
         }
 
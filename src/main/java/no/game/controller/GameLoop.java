@@ -0,0 +1,173 @@
+package no.game.controller;
+
+import no.game.model.GameModel;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The GameLoop class runs the simulation of a GameModel on its own thread
+ * at a fixed tick rate, independent of how fast the view is able to paint.
+ *
+ * Real elapsed time is collected in an accumulator and spent in whole ticks
+ * of {@link #TICK_DELTA}. If the loop falls behind (for example after a
+ * garbage collection pause or on a loaded machine) it catches up by running
+ * several ticks in a row, but never more than {@link #MAX_CATCH_UP_TICKS}
+ * per frame; any backlog beyond that is dropped so the game slows down
+ * instead of freezing.
+ *
+ * All calls to {@link GameModel#update(double)} are made while holding the
+ * model's monitor, so other threads reading or changing the model should
+ * synchronize on it as well.
+ */
+public class GameLoop implements Runnable, TickRateControl {
+
+    /** Default number of simulation ticks per second. */
+    public static final int DEFAULT_TICK_RATE = 125;
+
+    /** The time step passed to the model on every tick. */
+    public static final double TICK_DELTA = 0.2;
+
+    /** Maximum number of ticks run back to back when catching up. */
+    public static final int MAX_CATCH_UP_TICKS = 10;
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final GameModel model;
+    private final Runnable afterTicks;
+    private volatile int tickRate;
+    private volatile boolean running;
+    private Thread thread;
+    private long accumulator;
+
+    /**
+     * Constructs a new GameLoop for the given model.
+     *
+     * @param model      the model to simulate
+     * @param tickRate   the number of ticks per second, must be positive
+     * @param afterTicks called on the simulation thread after every frame in
+     *                   which at least one tick was run, typically used to
+     *                   request a repaint
+     * @throws IllegalArgumentException if model is null or tickRate is not
+     *                                  positive
+     */
+    public GameLoop(GameModel model, int tickRate, Runnable afterTicks) {
+        if (model == null) {
+            throw new IllegalArgumentException("Model cannot be null.");
+        }
+        this.model = model;
+        this.afterTicks = afterTicks;
+        setTickRate(tickRate);
+    }
+
+    /**
+     * Starts the simulation thread. Does nothing if it is already running.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        accumulator = 0;
+        thread = new Thread(this, "simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the simulation thread and waits for it to finish its current
+     * frame.
+     */
+    public synchronized void stop() {
+        running = false;
+        if (thread == null) {
+            return;
+        }
+        thread.interrupt();
+        if (thread != Thread.currentThread()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        thread = null;
+    }
+
+    /**
+     * Returns whether the simulation thread is running.
+     *
+     * @return true if the loop has been started and not stopped
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    /**
+     * Changes the number of simulation ticks per second. Takes effect from
+     * the next frame.
+     *
+     * @param tickRate the new tick rate, must be positive
+     * @throws IllegalArgumentException if tickRate is not positive
+     */
+    @Override
+    public void setTickRate(int tickRate) {
+        if (tickRate <= 0) {
+            throw new IllegalArgumentException("Tick rate must be positive.");
+        }
+        this.tickRate = tickRate;
+    }
+
+    @Override
+    public void run() {
+        long previous = System.nanoTime();
+        while (running) {
+            long now = System.nanoTime();
+            int ticks = advance(now - previous);
+            previous = now;
+
+            if (ticks > 0 && afterTicks != null) {
+                afterTicks.run();
+            }
+
+            long remaining = tickPeriod() - accumulator;
+            if (remaining > 0) {
+                LockSupport.parkNanos(remaining);
+            }
+        }
+    }
+
+    /**
+     * Adds the given amount of real time to the accumulator and runs as many
+     * whole ticks as it covers, limited by {@link #MAX_CATCH_UP_TICKS}.
+     *
+     * @param elapsedNanos the real time passed since the previous call
+     * @return the number of ticks that were run
+     */
+    int advance(long elapsedNanos) {
+        long period = tickPeriod();
+        accumulator += Math.max(0, elapsedNanos);
+
+        int ticks = 0;
+        while (accumulator >= period && ticks < MAX_CATCH_UP_TICKS) {
+            synchronized (model) {
+                model.update(TICK_DELTA);
+            }
+            accumulator -= period;
+            ticks++;
+        }
+
+        if (accumulator >= period) {
+            accumulator %= period;
+        }
+        return ticks;
+    }
+
+    private long tickPeriod() {
+        return NANOS_PER_SECOND / tickRate;
+    }
+}
@@ -0,0 +1,282 @@
+package no.game.controller;
+
+import no.game.model.GameModel;
+import no.game.model.GameState;
+import no.game.model.tower.TowerType;
+import no.game.stats.DurationHistogram;
+import no.game.stats.TickPhase;
+import no.game.stats.TickStats;
+import no.game.stats.TimingWindow;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exposes the live metrics of a game over JMX, and lets an operator pause it
+ * or change its tick rate.
+ *
+ * Registering a monitor sets {@link TickStats} on the model if it has none,
+ * so the ticks are timed from then on. Every read holds the model's
+ * monitor, so the game must be updated while holding it as well, as
+ * {@link GameLoop} does.
+ */
+public class GameMonitor implements GameMonitorMXBean {
+
+    /** The domain of the names monitors are registered under. */
+    public static final String DOMAIN = "no.game";
+
+    private static final AtomicInteger NEXT_ID = new AtomicInteger(1);
+
+    private final GameModel model;
+    private final TickRateControl tickRate;
+    private final ObjectName name;
+
+    private GameMonitor(GameModel model, TickRateControl tickRate, ObjectName name) {
+        this.model = model;
+        this.tickRate = tickRate;
+        this.name = name;
+    }
+
+    /**
+     * Creates a monitor for a game and registers it with the platform MBean
+     * server, under a name of its own such as
+     * {@code no.game:type=GameMonitor,id=1}.
+     *
+     * @param model    the game to monitor
+     * @param tickRate the loop or runner that runs the game, or null if its
+     *                 tick rate cannot be changed
+     * @return the registered monitor
+     * @throws IllegalArgumentException if model is null
+     * @throws IllegalStateException    if the monitor cannot be registered
+     */
+    public static GameMonitor register(GameModel model, TickRateControl tickRate) {
+        if (model == null) {
+            throw new IllegalArgumentException("Model cannot be null.");
+        }
+        synchronized (model) {
+            if (model.getTickStats() == null) {
+                model.setTickStats(new TickStats());
+            }
+        }
+        try {
+            ObjectName name = new ObjectName(DOMAIN + ":type=GameMonitor,id=" + NEXT_ID.getAndIncrement());
+            GameMonitor monitor = new GameMonitor(model, tickRate, name);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(monitor, name);
+            return monitor;
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register game monitor.", e);
+        }
+    }
+
+    /**
+     * Returns the name the monitor is registered under.
+     *
+     * @return the object name
+     */
+    public ObjectName getObjectName() {
+        return name;
+    }
+
+    /**
+     * Removes the monitor from the platform MBean server. Does nothing if it
+     * is no longer registered.
+     */
+    public void unregister() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not unregister game monitor.", e);
+        }
+    }
+
+    @Override
+    public String getGameState() {
+        synchronized (model) {
+            return model.getGameState().name();
+        }
+    }
+
+    @Override
+    public long getTick() {
+        synchronized (model) {
+            return model.getTick();
+        }
+    }
+
+    @Override
+    public int getTicksPerSecond() {
+        synchronized (model) {
+            return stats().getTicksPerSecond(System.nanoTime());
+        }
+    }
+
+    @Override
+    public double getTickP50Millis() {
+        synchronized (model) {
+            return millis(stats().getTicks(), 50);
+        }
+    }
+
+    @Override
+    public double getTickP99Millis() {
+        synchronized (model) {
+            return millis(stats().getTicks(), 99);
+        }
+    }
+
+    @Override
+    public Map<String, Double> getPhaseP50Millis() {
+        return phaseMillis(50);
+    }
+
+    @Override
+    public Map<String, Double> getPhaseP99Millis() {
+        return phaseMillis(99);
+    }
+
+    @Override
+    public long[] getTickHistogram() {
+        synchronized (model) {
+            return stats().getTickHistogram().getCounts();
+        }
+    }
+
+    @Override
+    public Map<String, long[]> getPhaseHistograms() {
+        Map<String, long[]> histograms = new LinkedHashMap<>();
+        synchronized (model) {
+            for (TickPhase phase : TickPhase.values()) {
+                histograms.put(phase.name(), stats().getPhaseHistogram(phase).getCounts());
+            }
+        }
+        return histograms;
+    }
+
+    @Override
+    public long[] getHistogramUpperBoundsMicros() {
+        return DurationHistogram.getUpperBoundsMicros();
+    }
+
+    @Override
+    public int getEnemiesAlive() {
+        synchronized (model) {
+            return model.getEnemies().size();
+        }
+    }
+
+    @Override
+    public long getEnemiesSpawned() {
+        // Every enemy that left the board was either killed or leaked.
+        synchronized (model) {
+            return (long) model.getEnemies().size() + model.getEnemiesKilled() + model.getEnemiesLeaked();
+        }
+    }
+
+    @Override
+    public int getEnemiesKilled() {
+        synchronized (model) {
+            return model.getEnemiesKilled();
+        }
+    }
+
+    @Override
+    public int getEnemiesLeaked() {
+        synchronized (model) {
+            return model.getEnemiesLeaked();
+        }
+    }
+
+    @Override
+    public int getActiveProjectiles() {
+        synchronized (model) {
+            return model.getProjectiles().size();
+        }
+    }
+
+    @Override
+    public Map<String, Integer> getTowersByType() {
+        Map<String, Integer> towers = new LinkedHashMap<>();
+        synchronized (model) {
+            for (TowerType type : TowerType.values()) {
+                towers.put(type.name(), model.getTowerCount(type));
+            }
+        }
+        return towers;
+    }
+
+    @Override
+    public int getCurrentWave() {
+        synchronized (model) {
+            return model.getWaveNumber();
+        }
+    }
+
+    @Override
+    public int getTickRate() {
+        return tickRate == null ? 0 : tickRate.getTickRate();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if the monitor was registered without
+     *                               a tick rate control
+     */
+    @Override
+    public void setTickRate(int tickRate) {
+        if (this.tickRate == null) {
+            throw new IllegalStateException("The tick rate of this game cannot be changed.");
+        }
+        this.tickRate.setTickRate(tickRate);
+    }
+
+    @Override
+    public void pause() {
+        synchronized (model) {
+            if (model.getGameState() == GameState.ACTIVE_GAME) {
+                model.pauseGameState();
+            }
+        }
+    }
+
+    @Override
+    public void resume() {
+        synchronized (model) {
+            if (model.getGameState() == GameState.PAUSED) {
+                model.setGameState();
+            }
+        }
+    }
+
+    private TickStats stats() {
+        // Someone may have replaced or removed the stats since registering.
+        TickStats stats = model.getTickStats();
+        if (stats == null) {
+            stats = new TickStats();
+            model.setTickStats(stats);
+        }
+        return stats;
+    }
+
+    private Map<String, Double> phaseMillis(double percentile) {
+        Map<String, Double> millis = new LinkedHashMap<>();
+        synchronized (model) {
+            for (TickPhase phase : TickPhase.values()) {
+                millis.put(phase.name(), millis(stats().getPhase(phase), percentile));
+            }
+        }
+        return millis;
+    }
+
+    private static double millis(TimingWindow window, double percentile) {
+        return window.percentile(percentile) / 1e6;
+    }
+}
@@ -0,0 +1,129 @@
+package no.game.controller;
+
+import java.util.Map;
+
+/**
+ * The management interface of a running game, as seen by JMX tools such as
+ * JConsole or VisualVM. Implemented by {@link GameMonitor}.
+ *
+ * Durations are given in milliseconds, except for the histograms, whose
+ * bucket bounds are given in microseconds by
+ * {@link #getHistogramUpperBoundsMicros()}. Maps from a phase or tower type
+ * are keyed by the name of the enum constant.
+ */
+public interface GameMonitorMXBean {
+
+    /**
+     * @return the state of the game
+     */
+    String getGameState();
+
+    /**
+     * @return the number of ticks simulated so far
+     */
+    long getTick();
+
+    /**
+     * @return the number of ticks that ended in the last second
+     */
+    int getTicksPerSecond();
+
+    /**
+     * @return the median duration of a recent tick
+     */
+    double getTickP50Millis();
+
+    /**
+     * @return the 99th percentile duration of a recent tick
+     */
+    double getTickP99Millis();
+
+    /**
+     * @return the median duration of each phase of a recent tick
+     */
+    Map<String, Double> getPhaseP50Millis();
+
+    /**
+     * @return the 99th percentile duration of each phase of a recent tick
+     */
+    Map<String, Double> getPhaseP99Millis();
+
+    /**
+     * @return the count of tick durations in every bucket since monitoring
+     *         started
+     */
+    long[] getTickHistogram();
+
+    /**
+     * @return the count of durations in every bucket for each phase since
+     *         monitoring started
+     */
+    Map<String, long[]> getPhaseHistograms();
+
+    /**
+     * @return the exclusive upper bound of every histogram bucket
+     */
+    long[] getHistogramUpperBoundsMicros();
+
+    /**
+     * @return the number of enemies on the board
+     */
+    int getEnemiesAlive();
+
+    /**
+     * @return the number of enemies spawned so far
+     */
+    long getEnemiesSpawned();
+
+    /**
+     * @return the number of enemies killed so far
+     */
+    int getEnemiesKilled();
+
+    /**
+     * @return the number of enemies that reached the end of the path so far
+     */
+    int getEnemiesLeaked();
+
+    /**
+     * @return the number of projectiles in flight
+     */
+    int getActiveProjectiles();
+
+    /**
+     * @return the number of towers of each type
+     */
+    Map<String, Integer> getTowersByType();
+
+    /**
+     * @return the current wave
+     */
+    int getCurrentWave();
+
+    /**
+     * @return the number of simulation ticks per second, 0 if the game runs
+     *         as fast as it can or its tick rate cannot be changed
+     */
+    int getTickRate();
+
+    /**
+     * Changes the number of simulation ticks per second.
+     *
+     * @param tickRate the new tick rate, must be positive for a game loop,
+     *                 or 0 to run a headless game as fast as it can
+     */
+    void setTickRate(int tickRate);
+
+    /**
+     * Pauses the game, as the pause button does. Does nothing unless a game
+     * is being played, so the map selection and a finished game are left as
+     * they are.
+     */
+    void pause();
+
+    /**
+     * Resumes a paused game, as the start wave button does. Does nothing
+     * unless the game is paused.
+     */
+    void resume();
+}
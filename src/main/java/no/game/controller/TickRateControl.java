@@ -0,0 +1,23 @@
+package no.game.controller;
+
+/**
+ * Something that runs a game at a tick rate an operator can change, such as
+ * a {@link GameLoop} or a headless runner. Used by {@link GameMonitor}.
+ */
+public interface TickRateControl {
+
+    /**
+     * Returns the number of simulation ticks per second.
+     *
+     * @return the current tick rate, 0 if the game runs as fast as it can
+     */
+    int getTickRate();
+
+    /**
+     * Changes the number of simulation ticks per second.
+     *
+     * @param tickRate the new tick rate
+     * @throws IllegalArgumentException if the tick rate is not supported
+     */
+    void setTickRate(int tickRate);
+}
@@ -1,12 +1,181 @@
 package no.game.model;
 
 import no.grid.CellPosition;
+import no.grid.CellVisitor;
+import no.grid.ChunkedGrid;
 import no.grid.Grid;
+import no.grid.GridCell;
+import no.grid.IGrid;
 
-public class GameBoard extends Grid {
+import java.util.Iterator;
+
+/**
+ * The tiles of the game, along with bit layers that say what each cell is
+ * used for: whether it is part of the enemy path and whether a tower stands
+ * on it. Towers may be built on every cell that is not part of the path.
+ *
+ * Each layer packs one bit per cell into longs, so checking a cell takes a
+ * shift and a mask however many towers there are. Like the tiles of a
+ * {@link ChunkedGrid}, a layer is split into chunks of
+ * {@link ChunkedGrid#CHUNK_SIZE} by CHUNK_SIZE cells, one long per row of a
+ * chunk, and a chunk is only allocated once one of its bits is set. A large
+ * board thus only pays for the regions its path and towers cross. The path
+ * layer follows the tiles, as a path tile is a {@code 'w'}; the tower layer
+ * is kept up to date by the {@link GameModel} as towers are placed and sold.
+ *
+ * Boards of up to {@link #FLAT_LIMIT} cells keep their tiles in a flat
+ * {@link Grid}. Larger boards, such as those of stress tests, use a
+ * {@link ChunkedGrid}, which only allocates the regions whose tiles have
+ * been set.
+ */
+public class GameBoard implements IGrid {
+
+    /** The largest number of cells a board keeps in a flat grid. */
+    public static final int FLAT_LIMIT = 256 * 256;
+
+    private static final char PATH = 'w';
+
+    private final IGrid tiles;
+    private static final int SHIFT = Integer.numberOfTrailingZeros(ChunkedGrid.CHUNK_SIZE);
+    private static final int MASK = ChunkedGrid.CHUNK_SIZE - 1;
+
+    private final int chunkCols;
+    private final long[][] path;
+    private final long[][] towers;
+    private int version;
 
     public GameBoard(int rows, int cols) {
-        super(rows, cols, '-');
+        if ((long) rows * cols > FLAT_LIMIT) {
+            tiles = new ChunkedGrid(rows, cols, '-');
+        } else {
+            tiles = new Grid(rows, cols, '-');
+        }
+        chunkCols = (cols + MASK) >> SHIFT;
+        int chunks = ((rows + MASK) >> SHIFT) * chunkCols;
+        path = new long[chunks][];
+        towers = new long[chunks][];
+    }
+
+    @Override
+    public int rows() {
+        return tiles.rows();
+    }
+
+    @Override
+    public int cols() {
+        return tiles.cols();
+    }
+
+    @Override
+    public Iterator<GridCell> iterator() {
+        return tiles.iterator();
+    }
+
+    @Override
+    public void set(CellPosition pos, Character symbol) {
+        if (!positionIsOnGrid(pos))
+            throw new IndexOutOfBoundsException("Given position is not within grid: (" + pos.row() + ", " + pos.col() + ")");
+
+        if (symbol != null && symbol == EMPTY)
+            throw new IllegalArgumentException("The empty symbol cannot be stored as a value.");
+
+        setSymbol(pos.row(), pos.col(), symbol == null ? EMPTY : symbol);
+    }
+
+    @Override
+    public Character get(CellPosition pos) {
+        return tiles.get(pos);
+    }
+
+    @Override
+    public boolean positionIsOnGrid(CellPosition pos) {
+        return tiles.positionIsOnGrid(pos);
+    }
+
+    @Override
+    public char getSymbol(int row, int col) {
+        return tiles.getSymbol(row, col);
+    }
+
+    @Override
+    public void visitCells(CellVisitor visitor) {
+        tiles.visitCells(visitor);
+    }
+
+    @Override
+    public void setSymbol(int row, int col, char symbol) {
+        tiles.setSymbol(row, col, symbol);
+        put(path, index(row, col), symbol == PATH);
+        version++;
+    }
+
+    /**
+     * A counter that changes every time a tile is set, so a view can tell
+     * whether the board has changed since it last drew it.
+     *
+     * @return the number of tiles set on the board so far
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Checks whether a cell is part of the enemy path.
+     *
+     * @param pos the cell to check
+     * @return true if the cell is a path tile
+     * @throws IndexOutOfBoundsException if the cell is not on the board
+     */
+    public boolean isPath(CellPosition pos) {
+        return get(path, index(pos));
+    }
+
+    /**
+     * Checks whether towers may be built on a cell, that is whether it is not
+     * part of the path. A tower may already stand on it.
+     *
+     * @param pos the cell to check
+     * @return true if the cell is buildable
+     * @throws IndexOutOfBoundsException if the cell is not on the board
+     */
+    public boolean isBuildable(CellPosition pos) {
+        return !get(path, index(pos));
+    }
+
+    /**
+     * Checks whether a tower stands on a cell.
+     *
+     * @param pos the cell to check
+     * @return true if the cell holds a tower
+     * @throws IndexOutOfBoundsException if the cell is not on the board
+     */
+    public boolean hasTower(CellPosition pos) {
+        return get(towers, index(pos));
+    }
+
+    /**
+     * Checks whether a new tower may be placed on a cell, that is whether it
+     * is buildable and no tower stands on it yet.
+     *
+     * @param pos the cell to check
+     * @return true if a tower may be placed on the cell
+     * @throws IndexOutOfBoundsException if the cell is not on the board
+     */
+    public boolean canPlaceTower(CellPosition pos) {
+        int index = index(pos);
+        return !get(path, index) && !get(towers, index);
+    }
+
+    /**
+     * Marks whether a tower stands on a cell. Called by the model as towers
+     * are placed and sold.
+     *
+     * @param pos   the cell of the tower
+     * @param tower true if a tower now stands on the cell
+     * @throws IndexOutOfBoundsException if the cell is not on the board
+     */
+    void setTower(CellPosition pos, boolean tower) {
+        put(towers, index(pos), tower);
     }
 
     /**
@@ -20,13 +189,49 @@ public class GameBoard extends Grid {
         for (int r = 0; r < this.rows(); r++) {
             StringBuilder row = new StringBuilder();
             for (int c = 0; c < this.cols(); c++) {
-                CellPosition pos = new CellPosition(r, c);
-                Character symbol = this.get(pos);
-                row.append(symbol);
+                char symbol = this.getSymbol(r, c);
+                row.append(symbol == EMPTY ? "null" : String.valueOf(symbol));
             }
             board.append(row + "\n");
         }
         return board.toString().strip();
     }
 
+    private int index(CellPosition pos) {
+        if (!positionIsOnGrid(pos))
+            throw new IndexOutOfBoundsException("Given position is not within grid: (" + pos.row() + ", " + pos.col() + ")");
+
+        return index(pos.row(), pos.col());
+    }
+
+    /**
+     * Returns the index of a cell's bit: its chunk, then its row and column
+     * within the chunk, which pick the long and the bit in it.
+     */
+    private int index(int row, int col) {
+        int chunk = (row >> SHIFT) * chunkCols + (col >> SHIFT);
+        return (chunk << (SHIFT + SHIFT)) | ((row & MASK) << SHIFT) | (col & MASK);
+    }
+
+    private static boolean get(long[][] layer, int index) {
+        long[] chunk = layer[index >>> (SHIFT + SHIFT)];
+        return chunk != null && (chunk[(index >>> SHIFT) & MASK] & (1L << index)) != 0;
+    }
+
+    private static void put(long[][] layer, int index, boolean value) {
+        long[] chunk = layer[index >>> (SHIFT + SHIFT)];
+        if (chunk == null) {
+            if (!value) {
+                return;
+            }
+            chunk = new long[ChunkedGrid.CHUNK_SIZE];
+            layer[index >>> (SHIFT + SHIFT)] = chunk;
+        }
+        if (value) {
+            chunk[(index >>> SHIFT) & MASK] |= 1L << index;
+        } else {
+            chunk[(index >>> SHIFT) & MASK] &= ~(1L << index);
+        }
+    }
+
 }
@@ -1,8 +1,12 @@
 package no.game.model;
 
+import no.grid.CellVisitor;
 import no.grid.GridCell;
 import no.grid.GridDimension;
+import no.grid.IGrid;
 import no.game.model.enemy.EnemyManager;
+import no.game.model.enemy.EnemyProgressIndex;
+import no.game.model.enemy.EnemyType;
 import no.game.model.enemy.IEnemy;
 import no.game.model.tower.AoeTower;
 import no.game.model.tower.BasicTower;
@@ -10,12 +14,17 @@ import no.game.model.tower.SlowTower;
 import no.game.model.tower.SniperTower;
 import no.game.model.tower.Tower;
 import no.game.model.tower.TowerType;
+import no.game.save.ChannelInput;
+import no.game.save.ChannelOutput;
+import no.game.stats.TickPhase;
+import no.game.stats.TickStats;
 import no.game.view.ViewableGameModel;
 import no.grid.CellPosition;
 
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * The GameModel class is the core class responsible for managing the game
@@ -31,11 +40,23 @@ public class GameModel implements ViewableGameModel {
     private GameState state;
     private EnemyManager enemyManager;
     private WaveManager waveManager;
-    private List<Tower> towers;
+    private TowerRegistry towers;
     private List<Projectile> projectiles;
     private int score;
     private int playerHP;
     private int gold;
+    private int enemiesKilled;
+    private int enemiesLeaked;
+    private final boolean useEnemyStore;
+    private final GameRandom random;
+    private final TargetingPhase targetingPhase = new TargetingPhase();
+    private MapType mapType;
+    private MapDefinition map;
+    private boolean customMap;
+    private long tick;
+    private GameRecorder recorder;
+    private int towerVersion;
+    private TickStats tickStats;
 
     /**
      * Constructs a new GameModel with a default 20x20 game board.
@@ -50,16 +71,45 @@ public class GameModel implements ViewableGameModel {
      * @param board The game board to use for the game model.
      */
     public GameModel(GameBoard board) {
+        this(board, false);
+    }
+
+    /**
+     * Constructs a new GameModel with the specified game board, optionally
+     * keeping the enemies in parallel arrays instead of as separate objects.
+     *
+     * @param board         The game board to use for the game model.
+     * @param useEnemyStore Whether the enemies are kept in an EnemyStore.
+     */
+    public GameModel(GameBoard board, boolean useEnemyStore) {
+        this(board, useEnemyStore, new GameRandom());
+    }
+
+    /**
+     * Constructs a new GameModel with the specified game board and random
+     * source. Two models with equally seeded random sources that get the
+     * same player actions at the same ticks play out the same way.
+     *
+     * @param board         The game board to use for the game model.
+     * @param useEnemyStore Whether the enemies are kept in an EnemyStore.
+     * @param random        The source of all randomness in the game.
+     * @throws IllegalArgumentException if random is null.
+     */
+    public GameModel(GameBoard board, boolean useEnemyStore, GameRandom random) {
+        if (random == null) {
+            throw new IllegalArgumentException("Random cannot be null.");
+        }
         this.board = board;
+        this.useEnemyStore = useEnemyStore;
+        this.random = random;
         this.state = GameState.CHOOSE;
         this.score = 0;
         this.playerHP = 10;
         this.gold = 500;
-        this.towers = new ArrayList<>();
+        this.towers = new TowerRegistry(board.rows(), board.cols());
         this.projectiles = new ArrayList<>();
-        List<CellPosition> enemyPath = Map.getPath();
-        this.enemyManager = new EnemyManager(enemyPath);
-        this.waveManager = new WaveManager(this.enemyManager);
+        this.enemyManager = new EnemyManager(List.of(), useEnemyStore);
+        this.waveManager = new WaveManager(this.enemyManager, random);
         waveManager.startNewWave();
 
     }
@@ -70,15 +120,66 @@ public class GameModel implements ViewableGameModel {
      * @param mapType is a Enum that decides which of map to set for the game model.
      */
     public void setMap(MapType mapType) {
-        switch (mapType) {
-            case MAP1 -> Map.map1(board);
-            case MAP2 -> Map.map2(board);
-            case MAP3 -> Map.map3(board);
-        }
-        List<CellPosition> enemyPath = Map.getPath();
-        this.enemyManager = new EnemyManager(enemyPath);
-        this.waveManager = new WaveManager(this.enemyManager);
+        loadMap(MapDefinition.of(mapType), mapType);
+    }
+
+    /**
+     * Sets the map for the game model from a map file, such as a large
+     * generated map for a benchmark. The enemies follow the first path of
+     * the map.
+     *
+     * Saves and replays name their map by its MapType, so a game on a map
+     * that is not built in cannot be saved or recorded.
+     *
+     * @param mapFile the map to play on
+     * @throws IllegalArgumentException if mapFile is null or does not fit
+     *                                  on the board
+     * @throws IllegalStateException    if the game is being recorded
+     */
+    public void setMap(MapFile mapFile) {
+        if (mapFile == null) {
+            throw new IllegalArgumentException("Map file cannot be null.");
+        }
+        if (recorder != null) {
+            throw new IllegalStateException("A game on a map that is not built in cannot be recorded.");
+        }
+        loadMap(new MapDefinition(mapFile), null);
+        customMap = true;
+    }
+
+    private void loadMap(MapDefinition map, MapType mapType) {
+        List<CellPosition> enemyPath = map.apply(board);
+        this.map = map;
+        this.mapType = mapType;
+        this.customMap = false;
+        this.enemyManager = new EnemyManager(enemyPath, useEnemyStore);
+        this.waveManager = new WaveManager(this.enemyManager, random);
         waveManager.startNewWave();
+        for (Tower tower : towers.asList()) {
+            tower.coverPath(map);
+        }
+        if (recorder != null) {
+            recorder.mapChosen(tick, mapType);
+        }
+    }
+
+    /**
+     * Retrieves the map set for the game.
+     *
+     * @return The map type, or null if no map has been set.
+     */
+    public MapType getMapType() {
+        return mapType;
+    }
+
+    /**
+     * Retrieves the definition of the map set for the game, which may be
+     * shared with other games on the same map.
+     *
+     * @return The map definition, or null if no map has been set.
+     */
+    public MapDefinition getMapDefinition() {
+        return map;
     }
 
     /**
@@ -91,96 +192,178 @@ public class GameModel implements ViewableGameModel {
         if (state != GameState.ACTIVE_GAME)
             return;
 
-        for (Tower tower : towers) {
-            tower.tickCooldown();
-            if (!tower.canShoot())
-                continue;
-
-            IEnemy target = findEnemyInRange(tower);
-            if (tower instanceof AoeTower aoeTower) {
-                List<IEnemy> enemiesInRange = findEnemiesInRange(tower);
-                for (IEnemy aoeTarget : enemiesInRange) {
-                    projectiles.add(new Projectile(aoeTower.getPosition(), aoeTarget, aoeTower.getDamage()));
-                }
-                if (!enemiesInRange.isEmpty()) {
-                    tower.resetCooldown();
-                }
-            } else if (tower instanceof SlowTower slowTower) {
-                if (target != null) {
-                    projectiles.add(new Projectile(tower.getPosition(), target, tower.getDamage()));
-                    target.applySlow(slowTower.getSlowAmount(), slowTower.getSlowDuration());
-                    tower.resetCooldown();
-                }
-            } else {
-                if (target != null) {
-                    projectiles.add(new Projectile(tower.getPosition(), target, tower.getDamage()));
-                    tower.resetCooldown();
-                }
-            }
-
+        tick++;
+        TickStats stats = tickStats;
+        if (stats != null) {
+            stats.tickStarted();
+        }
+        targetingPhase.run(towers, enemyManager.getProgressIndex(), projectiles);
+        if (stats != null) {
+            stats.phaseEnded(TickPhase.TOWERS);
         }
 
-        Iterator<Projectile> projIt = projectiles.iterator();
-        while (projIt.hasNext()) {
-            Projectile projectile = projIt.next();
-            projectile.move();
-
-            if (projectile.hasHitTarget()) {
-                projectile.getTarget().takeDamage(projectile.getDamage());
-                projIt.remove();
+        // Spent projectiles are dropped by compacting the list in one pass,
+        // however many of them hit this tick.
+        int keptProjectiles = 0;
+        for (int i = 0; i < projectiles.size(); i++) {
+            Projectile projectile = projectiles.get(i);
+            if (!moveProjectile(projectile)) {
+                projectiles.set(keptProjectiles++, projectile);
             }
         }
+        projectiles.subList(keptProjectiles, projectiles.size()).clear();
+        if (stats != null) {
+            stats.phaseEnded(TickPhase.PROJECTILES);
+        }
 
         enemyManager.update();
+        if (stats != null) {
+            stats.phaseEnded(TickPhase.ENEMY_MOVE);
+        }
 
-        Iterator<IEnemy> enemyIt = enemyManager.getEnemies().iterator();
-        while (enemyIt.hasNext()) {
-            IEnemy enemy = enemyIt.next();
-            if (enemy.isDead()) {
-                enemyIt.remove();
-                score += 10;
-                onEnemyKilled();
-                continue;
-            }
-
-            if (enemy.isAtEnd()) {
-                playerHP--;
-                enemyIt.remove();
-                if (playerHP <= 0) {
-                    state = GameState.GAME_OVER;
-                }
-            }
+        // Compacts the enemy list in one pass; see EnemyManager.
+        enemyManager.getEnemies().removeIf(this::settleEnemy);
+        if (stats != null) {
+            stats.phaseEnded(TickPhase.CLEANUP);
         }
 
         waveManager.handleAutoWaveProgression(deltaTime);
+        if (stats != null) {
+            stats.phaseEnded(TickPhase.WAVES);
+        }
 
         if (!waveManager.isWaveActive() && enemyManager.getEnemies().isEmpty()) {
-            pauseGameState();
+            state = GameState.PAUSED;
+        }
+        if (stats != null) {
+            stats.tickEnded();
+        }
+
+        if (recorder != null) {
+            recorder.tickCompleted(this);
         }
     }
 
     /**
-     * Finds the first enemy in range of the specified tower.
+     * Retrieves the number of ticks simulated so far. Only updates of an
+     * active game count as ticks.
      *
-     * @param tower The tower to check for enemies in range.
-     * @return The first enemy in range, or null if no enemy is in range.
+     * @return The number of ticks simulated.
      */
-    private IEnemy findEnemyInRange(Tower tower) {
-        CellPosition towerPos = tower.getPosition();
-        int range = tower.getRange();
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Sets the recorder that is told about every accepted player action and
+     * every simulated tick.
+     *
+     * @param recorder The recorder, or null to stop recording.
+     */
+    public void setRecorder(GameRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Retrieves the recorder of the game.
+     *
+     * @return The recorder, or null if the game is not recorded.
+     */
+    public GameRecorder getRecorder() {
+        return recorder;
+    }
+
+    /**
+     * Sets the stats that time every tick and its phases. Without stats the
+     * ticks are not timed at all.
+     *
+     * @param tickStats The stats to record into, or null to stop timing.
+     */
+    public void setTickStats(TickStats tickStats) {
+        this.tickStats = tickStats;
+    }
+
+    /**
+     * Retrieves the stats that time the ticks of the game.
+     *
+     * @return The stats, or null if the ticks are not timed.
+     */
+    public TickStats getTickStats() {
+        return tickStats;
+    }
+
+    /**
+     * Sets the pool the towers pick their targets on. With a pool, the towers
+     * are split into chunks that run in parallel; the outcome of every tick
+     * is the same as without one.
+     *
+     * @param pool The pool to run the tower phase on, or null to run it on
+     *             the thread calling update.
+     */
+    public void setTargetingPool(ForkJoinPool pool) {
+        targetingPhase.setPool(pool);
+    }
+
+    /**
+     * Retrieves the pool the towers pick their targets on.
+     *
+     * @return The pool, or null if the tower phase runs on the thread calling
+     *         update.
+     */
+    public ForkJoinPool getTargetingPool() {
+        return targetingPhase.getPool();
+    }
+
+    /**
+     * Moves a projectile and lets it damage its target if it has arrived.
+     *
+     * @param projectile The projectile to move.
+     * @return true if the projectile has hit and should be removed.
+     */
+    private boolean moveProjectile(Projectile projectile) {
+        projectile.move();
+        if (projectile.hasHitTarget()) {
+            projectile.getTarget().takeDamage(projectile.getDamage());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Rewards the player for a dead enemy, or costs the player health for an
+     * enemy that has reached the end of the path.
+     *
+     * @param enemy The enemy to check.
+     * @return true if the enemy is dead or at the end and should be removed.
+     */
+    private boolean settleEnemy(IEnemy enemy) {
+        if (enemy.isDead()) {
+            score += 10;
+            enemiesKilled++;
+            onEnemyKilled();
+            return true;
+        }
 
-        for (IEnemy enemy : enemyManager.getEnemies()) {
-            if (distance(towerPos, enemy.getPosition()) <= range) {
-                return enemy;
+        if (enemy.isAtEnd()) {
+            playerHP--;
+            enemiesLeaked++;
+            if (playerHP <= 0) {
+                state = GameState.GAME_OVER;
             }
+            return true;
         }
-        return null;
+        return false;
     }
 
-    private double distance(CellPosition a, CellPosition b) {
-        int dx = a.col() - b.col();
-        int dy = a.row() - b.row();
-        return Math.sqrt(dx * dx + dy * dy);
+    /**
+     * Finds the enemy furthest along the path within range of the specified
+     * tower, by binary search within the path indices covered by the tower.
+     *
+     * @param tower The tower to check for enemies in range.
+     * @return An enemy in range, or null if no enemy is in range.
+     */
+    IEnemy findEnemyInRange(Tower tower) {
+        return enemyManager.getProgressIndex().findLeading(tower.getCoverage());
     }
 
     /**
@@ -193,12 +376,52 @@ public class GameModel implements ViewableGameModel {
     }
 
     /**
-     * Retrieves the list of towers in the game.
+     * Retrieves the source of all randomness in the game.
+     *
+     * @return The game's random source.
+     */
+    public GameRandom getRandom() {
+        return random;
+    }
+
+    /**
+     * Retrieves the path the enemies follow on the current map.
+     *
+     * @return The path, empty until a map has been set.
+     */
+    public List<CellPosition> getPath() {
+        return enemyManager.getPath();
+    }
+
+    /**
+     * A counter that changes whenever a tower is placed, sold or upgraded
+     * through this model, so the view only has to draw the towers again
+     * when they change.
+     *
+     * @return the current version of the towers
+     */
+    public int getTowerVersion() {
+        return towerVersion;
+    }
+
+    /**
+     * Retrieves the list of towers in the game, type by type in the order of
+     * {@link TowerType}. The list cannot be modified.
      * 
      * @return The list of towers in the game.
      */
     public List<Tower> getTowers() {
-        return towers;
+        return towers.asList();
+    }
+
+    /**
+     * Retrieves the number of towers of a type in the game.
+     * 
+     * @param type The tower type.
+     * @return The number of towers of the type.
+     */
+    public int getTowerCount(TowerType type) {
+        return towers.count(type);
     }
 
     /**
@@ -213,7 +436,8 @@ public class GameModel implements ViewableGameModel {
     /**
      * Places a tower on the game board at the specified position, if the player has
      * enough gold,
-     * the position is not occupied, and the tile is not a wall.
+     * the position is not occupied, and the cell is buildable (not part of the
+     * path).
      *
      * @param pos  The position on the board where the tower is to be placed.
      * @param type The type of tower to place.
@@ -227,30 +451,34 @@ public class GameModel implements ViewableGameModel {
             case AOE -> 80;
         };
 
-        if (gold >= towerCost && board.get(pos) != 'w' && !isOccupied(pos)) {
-            Tower tower = switch (type) {
-                case BASIC -> new BasicTower(pos);
-                case SNIPER -> new SniperTower(pos);
-                case SLOW -> new SlowTower(pos);
-                case AOE -> new AoeTower(pos);
-                default -> throw new IllegalArgumentException("Unexpected value: " + type);
-            };
-
-            towers.add(tower);
+        if (gold >= towerCost && board.canPlaceTower(pos)) {
+            towers.add(createTower(pos, type));
+            board.setTower(pos, true);
+            towerVersion++;
             gold -= towerCost;
+            if (recorder != null) {
+                recorder.towerPlaced(tick, pos, type);
+            }
             return true;
         }
 
         return false;
     }
 
-    private boolean isOccupied(CellPosition position) {
-        for (Tower tower : towers) {
-            if (tower.getPosition().equals(position)) {
-                return true;
-            }
+    private Tower createTower(CellPosition pos, TowerType type) {
+        Tower tower = switch (type) {
+            case BASIC -> new BasicTower(pos);
+            case SNIPER -> new SniperTower(pos);
+            case SLOW -> new SlowTower(pos);
+            case AOE -> new AoeTower(pos);
+            default -> throw new IllegalArgumentException("Unexpected value: " + type);
+        };
+        if (map != null) {
+            tower.coverPath(map);
+        } else {
+            tower.coverPath(enemyManager.getPath());
         }
-        return false;
+        return tower;
     }
 
     @Override
@@ -263,6 +491,16 @@ public class GameModel implements ViewableGameModel {
         return board;
     }
 
+    @Override
+    public void visitTilesOnBoard(CellVisitor visitor) {
+        board.visitCells(visitor);
+    }
+
+    @Override
+    public int getBoardVersion() {
+        return board.getVersion();
+    }
+
     @Override
     public GameState getGameState() {
         return state;
@@ -309,6 +547,33 @@ public class GameModel implements ViewableGameModel {
         return waveManager.getCurrentWave();
     }
 
+    /**
+     * Ends the current wave without spawning the rest of its enemies. No new
+     * wave starts while enemies are left on the board. Used by benchmarks
+     * that keep a fixed set of enemies.
+     */
+    void endWave() {
+        waveManager.endWave();
+    }
+
+    /**
+     * Retrieves the number of enemies killed by towers so far.
+     *
+     * @return The number of killed enemies.
+     */
+    public int getEnemiesKilled() {
+        return this.enemiesKilled;
+    }
+
+    /**
+     * Retrieves the number of enemies that have reached the end of the path.
+     *
+     * @return The number of leaked enemies.
+     */
+    public int getEnemiesLeaked() {
+        return this.enemiesLeaked;
+    }
+
     /**
      * Increases the player's gold after an enemy is killed.
      */
@@ -324,12 +589,7 @@ public class GameModel implements ViewableGameModel {
      *         that position.
      */
     public Tower getTowerAt(CellPosition position) {
-        for (Tower tower : towers) {
-            if (tower.getPosition().equals(position)) {
-                return tower;
-            }
-        }
-        return null;
+        return towers.get(position);
     }
 
     /**
@@ -338,6 +598,9 @@ public class GameModel implements ViewableGameModel {
      * @return The updated game state.
      */
     public GameState setGameState() {
+        if (recorder != null && state != GameState.ACTIVE_GAME) {
+            recorder.gameStarted(tick);
+        }
         return state = GameState.ACTIVE_GAME;
     }
 
@@ -347,6 +610,9 @@ public class GameModel implements ViewableGameModel {
      * @return The updated game state.
      */
     public GameState pauseGameState() {
+        if (recorder != null && state != GameState.PAUSED) {
+            recorder.gamePaused(tick);
+        }
         return state = GameState.PAUSED;
     }
 
@@ -364,23 +630,21 @@ public class GameModel implements ViewableGameModel {
         this.gold = gold;
     }
 
+    // Sets the player's health points, e.g. to keep long simulations alive.
+    public void setPlayerHP(int playerHP) {
+        this.playerHP = playerHP;
+    }
+
     /**
-     * Finds all enemies within the range of the given tower.
+     * Finds all enemies within the range of the given tower, that is on the
+     * part of the path covered by the tower.
      *
      * @param tower The tower whose range is to be checked.
      * @return A list of enemies within the range.
      */
     public List<IEnemy> findEnemiesInRange(Tower tower) {
         List<IEnemy> enemiesInRange = new ArrayList<>();
-        CellPosition towerPos = tower.getPosition();
-        int range = tower.getRange();
-
-        for (IEnemy enemy : enemyManager.getEnemies()) {
-            if (distance(towerPos, enemy.getPosition()) <= range) {
-                enemiesInRange.add(enemy);
-            }
-        }
-
+        enemyManager.getProgressIndex().collect(tower.getCoverage(), enemiesInRange);
         return enemiesInRange;
     }
 
@@ -391,35 +655,200 @@ public class GameModel implements ViewableGameModel {
      * @return true if a tower was sold, false if no tower was present
      */
     public boolean sellTower(CellPosition cell) {
-        Iterator<Tower> iterator = towers.iterator();
-        while (iterator.hasNext()) {
-            Tower tower = iterator.next();
-            if (tower.getPosition().equals(cell)) {
-                int refund = (int) (tower.getCost());
-                this.gold += refund;
-
-                iterator.remove();
-                return true;
-            }
+        Tower tower = towers.remove(cell);
+        if (tower == null) {
+            return false;
         }
-        return false;
+        int refund = (int) (tower.getCost());
+        this.gold += refund;
+
+        board.setTower(cell, false);
+        towerVersion++;
+        if (recorder != null) {
+            recorder.towerSold(tick, cell);
+        }
+        return true;
     }
 
+    /**
+     * Checks whether a tower stands at the given cell position.
+     *
+     * @param pos the cell to check
+     * @return true if a tower stands on the cell, false if none does or the
+     *         cell is not on the board
+     */
     public boolean hasTowerAt(CellPosition pos) {
-        return getTowers().stream().anyMatch(t -> t.getPosition().equals(pos));
+        return board.positionIsOnGrid(pos) && board.hasTower(pos);
     }
 
     public boolean upgradeTower(CellPosition pos) {
-        for (Tower tower : towers) {
-            if (tower.getPosition().equals(pos)) {
-                int upgradeCost = (int) (tower.getUpgradeCost());
-                if (this.gold >= upgradeCost) {
-                    this.gold -= upgradeCost;
-                    return tower.upgrade();
-                }
+        Tower tower = towers.get(pos);
+        if (tower == null) {
+            return false;
+        }
+        int upgradeCost = (int) (tower.getUpgradeCost());
+        if (this.gold >= upgradeCost) {
+            this.gold -= upgradeCost;
+            boolean upgraded = tower.upgrade();
+            towerVersion++;
+            if (upgraded && recorder != null) {
+                recorder.towerUpgraded(tick, pos);
             }
+            return upgraded;
         }
         return false;
     }
 
+    /**
+     * Writes the full state of the game: the board, the map, the counters,
+     * the random source, the waves, the towers, the enemies and the
+     * projectiles. A model read back with {@link #readState(ChannelInput,
+     * boolean)} plays on exactly as this one does. The recorder and the
+     * targeting pool are not part of the state.
+     *
+     * @param out The output to write to.
+     * @throws IOException if the output cannot be written to.
+     * @throws IllegalStateException if the game is played on a map that is
+     *                               not built in.
+     */
+    public void writeState(ChannelOutput out) throws IOException {
+        if (customMap) {
+            throw new IllegalStateException("A game on a map that is not built in cannot be saved.");
+        }
+        // Towers are few, so they are written one by one; the tiles,
+        // enemies and projectiles are written without allocating anything.
+        out.writeInt(board.rows());
+        out.writeInt(board.cols());
+        for (int row = 0; row < board.rows(); row++) {
+            for (int col = 0; col < board.cols(); col++) {
+                char tile = board.getSymbol(row, col);
+                out.writeChar(tile == IGrid.EMPTY ? 0 : tile);
+            }
+        }
+        out.writeByte(mapType == null ? -1 : mapType.ordinal());
+        out.writeByte(state.ordinal());
+        out.writeLong(tick);
+        out.writeLong(random.getState());
+        out.writeInt(score);
+        out.writeInt(playerHP);
+        out.writeInt(gold);
+        out.writeInt(enemiesKilled);
+        out.writeInt(enemiesLeaked);
+        waveManager.writeState(out);
+
+        out.writeInt(towers.size());
+        for (Tower tower : towers.asList()) {
+            out.writeByte(TowerType.of(tower).ordinal());
+            out.writeInt(tower.getPosition().row());
+            out.writeInt(tower.getPosition().col());
+            out.writeInt(tower.getLevel());
+            out.writeInt(tower.getCooldownRemaining());
+        }
+
+        enemyManager.writeState(out);
+
+        // Projectiles refer to their target by its place in the progress
+        // index, which is restored along with the enemies. Targets that are
+        // no longer in the game can only be flown at, so only their position
+        // is kept.
+        EnemyProgressIndex progressIndex = enemyManager.getProgressIndex();
+        out.writeInt(projectiles.size());
+        for (Projectile projectile : projectiles) {
+            out.writeInt(projectile.getPosition().row());
+            out.writeInt(projectile.getPosition().col());
+            out.writeDouble(projectile.getDamage());
+            int target = progressIndex.rankOf(projectile.getTarget());
+            out.writeInt(target);
+            if (target < 0) {
+                out.writeInt(projectile.getTarget().getPosition().row());
+                out.writeInt(projectile.getTarget().getPosition().col());
+            }
+        }
+    }
+
+    /**
+     * Reads a game written by {@link #writeState(ChannelOutput)} into a new
+     * model.
+     *
+     * @param in            The input to read from.
+     * @param useEnemyStore Whether the new model keeps its enemies in an
+     *                      EnemyStore.
+     * @return The restored model.
+     * @throws IOException if the input cannot be read from, or holds an
+     *                     invalid state.
+     */
+    public static GameModel readState(ChannelInput in, boolean useEnemyStore) throws IOException {
+        int rows = in.readInt();
+        int cols = in.readInt();
+        if (rows <= 0 || cols <= 0) {
+            throw new IOException("Invalid board size: " + rows + "x" + cols);
+        }
+        char[] tiles = new char[rows * cols];
+        for (int i = 0; i < tiles.length; i++) {
+            tiles[i] = in.readChar();
+        }
+        int map = in.readByte();
+        int state = in.readByte();
+        if (map < -1 || map >= MapType.values().length || state < 0 || state >= GameState.values().length) {
+            throw new IOException("Invalid map or game state: " + map + ", " + state);
+        }
+
+        GameModel model = new GameModel(new GameBoard(rows, cols), useEnemyStore, new GameRandom(0));
+        if (map >= 0) {
+            model.setMap(MapType.values()[map]);
+        }
+        for (int i = 0; i < tiles.length; i++) {
+            model.board.setSymbol(i / cols, i % cols, tiles[i] == 0 ? IGrid.EMPTY : tiles[i]);
+        }
+        model.state = GameState.values()[state];
+        model.tick = in.readLong();
+        model.random.setState(in.readLong());
+        model.score = in.readInt();
+        model.playerHP = in.readInt();
+        model.gold = in.readInt();
+        model.enemiesKilled = in.readInt();
+        model.enemiesLeaked = in.readInt();
+        model.waveManager.readState(in);
+
+        int towerCount = in.readInt();
+        TowerType[] towerTypes = TowerType.values();
+        for (int i = 0; i < towerCount; i++) {
+            int type = in.readByte();
+            CellPosition pos = new CellPosition(in.readInt(), in.readInt());
+            int level = in.readInt();
+            if (type < 0 || type >= towerTypes.length || level < 1) {
+                throw new IOException("Invalid tower: " + type + " at level " + level);
+            }
+            if (!model.board.positionIsOnGrid(pos) || model.towers.get(pos) != null) {
+                throw new IOException("Invalid tower position: " + pos);
+            }
+            Tower tower = model.createTower(pos, towerTypes[type]);
+            for (int upgrades = 1; upgrades < level; upgrades++) {
+                tower.upgrade();
+            }
+            tower.setCooldownRemaining(in.readInt());
+            model.towers.add(tower);
+            model.board.setTower(pos, true);
+        }
+
+        model.enemyManager.readState(in);
+        EnemyProgressIndex progressIndex = model.enemyManager.getProgressIndex();
+        int projectileCount = in.readInt();
+        for (int i = 0; i < projectileCount; i++) {
+            CellPosition pos = new CellPosition(in.readInt(), in.readInt());
+            double damage = in.readDouble();
+            int target = in.readInt();
+            IEnemy enemy;
+            if (target >= 0 && target < progressIndex.size()) {
+                enemy = progressIndex.get(target);
+            } else if (target == -1) {
+                CellPosition targetPos = new CellPosition(in.readInt(), in.readInt());
+                enemy = EnemyType.BASIC.create(List.of(targetPos), 1, 0);
+            } else {
+                throw new IOException("Invalid projectile target: " + target);
+            }
+            model.projectiles.add(new Projectile(pos, enemy, damage));
+        }
+        return model;
+    }
 }
@@ -0,0 +1,139 @@
+package no.game.model;
+
+/**
+ * The source of all randomness in a game: a SplitMix64 generator.
+ *
+ * Each game gets its own instance, so a game played again with the same
+ * seed and the same player actions makes the same choices. The whole state
+ * is a single long, which can be read and restored for snapshots and
+ * replays. SplitMix64 is fast, passes the usual statistical test suites and
+ * can be split into independent generators for parallel work. As in
+ * {@link java.util.SplittableRandom}, which it matches number for number,
+ * every split generator steps its state by a gamma of its own, so the
+ * generators do not walk the same sequence of states.
+ *
+ * Instances are not thread-safe.
+ */
+public final class GameRandom {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    private long state;
+    private final long gamma;
+
+    /**
+     * Constructs a generator with a seed taken from the system clock, for
+     * games that do not need to be reproduced.
+     */
+    public GameRandom() {
+        this(mix64(System.nanoTime() ^ System.identityHashCode(new Object())));
+    }
+
+    /**
+     * Constructs a generator with the given seed.
+     *
+     * @param seed the seed; generators with the same seed produce the same
+     *             numbers
+     */
+    public GameRandom(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    private GameRandom(long seed, long gamma) {
+        this.state = seed;
+        this.gamma = gamma;
+    }
+
+    /**
+     * Returns the next pseudorandom long.
+     *
+     * @return a long, uniformly distributed over all long values
+     */
+    public long nextLong() {
+        state += gamma;
+        return mix64(state);
+    }
+
+    /**
+     * Returns the next pseudorandom double.
+     *
+     * @return a double uniformly distributed between 0.0 inclusive and 1.0
+     *         exclusive
+     */
+    public double nextDouble() {
+        return (nextLong() >>> 11) * DOUBLE_UNIT;
+    }
+
+    /**
+     * Returns the next pseudorandom int below a bound.
+     *
+     * @param bound the exclusive upper bound, must be positive
+     * @return an int uniformly distributed between 0 inclusive and bound
+     *         exclusive
+     * @throws IllegalArgumentException if bound is not positive
+     */
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("Bound must be positive.");
+        }
+        // Draws 31 bits and rejects the incomplete top range, like
+        // java.util.Random, so every value is equally likely.
+        int bits;
+        int value;
+        do {
+            bits = (int) (nextLong() >>> 33);
+            value = bits % bound;
+        } while (bits - value + (bound - 1) < 0);
+        return value;
+    }
+
+    /**
+     * Creates a new generator whose numbers are independent of the numbers
+     * this generator produces from now on. Advances this generator.
+     *
+     * @return the new generator
+     */
+    public GameRandom split() {
+        long seed = nextLong();
+        state += gamma;
+        return new GameRandom(seed, mixGamma(state));
+    }
+
+    /**
+     * Returns the current state of the generator. The gamma is not part of
+     * it, so the state of a split generator can only be restored into a
+     * generator split the same way.
+     *
+     * @return the state, which {@link #setState(long)} can restore
+     */
+    public long getState() {
+        return state;
+    }
+
+    /**
+     * Restores a state returned by {@link #getState()}.
+     *
+     * @param state the state to continue from
+     */
+    public void setState(long state) {
+        this.state = state;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Mixes a state into an odd gamma with enough bit transitions to step
+     * through the states well, as SplittableRandom does.
+     */
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int transitions = Long.bitCount(z ^ (z >>> 1));
+        return transitions < 24 ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+}
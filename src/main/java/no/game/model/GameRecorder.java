@@ -0,0 +1,75 @@
+package no.game.model;
+
+import no.game.model.tower.TowerType;
+import no.grid.CellPosition;
+
+/**
+ * Receives every player action a {@link GameModel} accepts, stamped with the
+ * tick it happened at, and a call after every simulated tick.
+ *
+ * Together with a saved state of the model, these calls are all that is
+ * needed to play a game again exactly as it went, since everything else in
+ * a game follows from its seeded {@link GameRandom}. Actions the model
+ * rejects, such as placing a tower the player cannot afford, are not
+ * reported.
+ *
+ * The calls are made on the thread that changes or updates the model,
+ * while the model's state is consistent.
+ */
+public interface GameRecorder {
+
+    /**
+     * Called when a map has been set.
+     *
+     * @param tick    the tick of the model
+     * @param mapType the map
+     */
+    void mapChosen(long tick, MapType mapType);
+
+    /**
+     * Called when a tower has been placed.
+     *
+     * @param tick     the tick of the model
+     * @param position the cell of the tower
+     * @param type     the type of the tower
+     */
+    void towerPlaced(long tick, CellPosition position, TowerType type);
+
+    /**
+     * Called when a tower has been sold.
+     *
+     * @param tick     the tick of the model
+     * @param position the cell of the tower
+     */
+    void towerSold(long tick, CellPosition position);
+
+    /**
+     * Called when a tower has been upgraded.
+     *
+     * @param tick     the tick of the model
+     * @param position the cell of the tower
+     */
+    void towerUpgraded(long tick, CellPosition position);
+
+    /**
+     * Called when the player starts or resumes the game.
+     *
+     * @param tick the tick of the model
+     */
+    void gameStarted(long tick);
+
+    /**
+     * Called when the player pauses the game.
+     *
+     * @param tick the tick of the model
+     */
+    void gamePaused(long tick);
+
+    /**
+     * Called at the end of every tick the model has simulated.
+     *
+     * @param model the model, with {@link GameModel#getTick()} the tick that
+     *              has just ended
+     */
+    void tickCompleted(GameModel model);
+}
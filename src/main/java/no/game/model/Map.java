@@ -1,15 +1,34 @@
 package no.game.model;
 
 import no.grid.CellPosition;
-import java.util.*;
+import java.util.List;
 
 /**
  * The Map class defines different predefined maps for the game.
  * Each map consists of a sequence of CellPosition objects forming a
  * path that enemies will follow.
+ *
+ * {@link #build(MapType, GameBoard)} returns the immutable path of the
+ * shared {@link MapDefinition} of the map and is safe to use from several
+ * games at once. The mapN methods and {@link #getPath()} remember the last
+ * built path in a static field and are only meant for a single game at a
+ * time; the path itself is never changed.
  */
 public class Map {
-    private static List<CellPosition> path = new ArrayList<>();
+    private static volatile List<CellPosition> path = List.of();
+
+    /**
+     * Marks the path of the given map on a board and returns it, see
+     * {@link MapDefinition#of(MapType)}.
+     *
+     * @param mapType the map to build
+     * @param board   the game board to update with the path layout
+     * @return the unmodifiable list of the path positions, in the order the
+     *         enemies follow them, shared by every game on the map
+     */
+    public static List<CellPosition> build(MapType mapType, GameBoard board) {
+        return MapDefinition.of(mapType).apply(board);
+    }
 
     /**
      * Configures the board with the layout of Map 1.
@@ -18,34 +37,7 @@ public class Map {
      * @param board the game board to update with the path layout
      */
     public static void map1(GameBoard board) {
-        path.clear();
-
-        for (int col = 19; col >= 16; col--)
-            pathAdd(board, 10, col);
-        for (int row = 10; row >= 6; row--)
-            pathAdd(board, row, 15);
-        for (int col = 14; col >= 13; col--)
-            pathAdd(board, 6, col);
-        for (int row = 7; row <= 14; row++)
-            pathAdd(board, row, 13);
-        pathAdd(board, 14, 12);
-        for (int row = 14; row >= 6; row--)
-            pathAdd(board, row, 11);
-        for (int col = 10; col >= 5; col--)
-            pathAdd(board, 6, col);
-        pathAdd(board, 7, 5);
-
-        for (int col = 5; col <= 9; col++)
-            pathAdd(board, 8, col);
-        pathAdd(board, 9, 9);
-        for (int col = 9; col >= 5; col--)
-            pathAdd(board, 10, col);
-        pathAdd(board, 11, 5);
-        for (int col = 5; col <= 9; col++)
-            pathAdd(board, 12, col);
-        pathAdd(board, 13, 9);
-        for (int col = 9; col >= 0; col--)
-            pathAdd(board, 14, col);
+        path = build(MapType.MAP1, board);
     }
 
     /**
@@ -54,27 +46,7 @@ public class Map {
      * @param board the game board to update with the path layout
      */
     public static void map2(GameBoard board) {
-        path.clear();
-
-        for (int col = 19; col >= 2; col--)
-            pathAdd(board, 4, col);
-        pathAdd(board, 5, 2);
-        pathAdd(board, 6, 2);
-        for (int col = 2; col <= 17; col++)
-            pathAdd(board, 7, col);
-        pathAdd(board, 8, 17);
-        pathAdd(board, 9, 17);
-        for (int col = 17; col >= 2; col--)
-            pathAdd(board, 10, col);
-        pathAdd(board, 11, 2);
-        pathAdd(board, 12, 2);
-        for (int col = 2; col <= 17; col++)
-            pathAdd(board, 13, col);
-        pathAdd(board, 14, 17);
-        pathAdd(board, 15, 17);
-        for (int col = 17; col >= 0; col--)
-            pathAdd(board, 16, col);
-
+        path = build(MapType.MAP2, board);
     }
 
     /**
@@ -83,29 +55,7 @@ public class Map {
      * @param board the game board to update with the path layout
      */
     public static void map3(GameBoard board) {
-        path.clear();
-
-        for (int col = 19; col >= 9; col--)
-            pathAdd(board, 4, col);
-        for (int row = 5; row <= 15; row++)
-            pathAdd(board, row, 9);
-        for (int col = 9; col >= 0; col--)
-            pathAdd(board, 16, col);
-
-    }
-
-    /**
-     * Adds a single cell to the path and marks it on the board.
-     *
-     * @param board the board where the cell is marked as part of the path
-     * @param row   the row index of the cell
-     * @param col   the column index of the cell
-     */
-
-    private static void pathAdd(GameBoard board, int row, int col) {
-        CellPosition pos = new CellPosition(row, col);
-        board.set(pos, 'w');
-        path.add(pos);
+        path = build(MapType.MAP3, board);
     }
 
     /**
@@ -0,0 +1,205 @@
+package no.game.model;
+
+import no.grid.CellPosition;
+import no.grid.ChunkedGrid;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A map ready to be played: its {@link MapFile} along with the enemy path
+ * in the forms the game looks it up in.
+ *
+ * The path is kept as packed cell indices, {@code row * cols + col}, and a
+ * table over the bounding box of the path, from its smallest to its largest
+ * row and column, gives the path index of every cell in the box, or -1 for
+ * cells off the path. The table is split into chunks the same size as those
+ * of a {@link ChunkedGrid}, and only chunks the path passes through are
+ * allocated, so a long path across a large map costs memory in proportion
+ * to its length rather than to the area it spans. The list of path positions handed to
+ * enemies and towers is built once as well.
+ *
+ * A definition is immutable, so it is safe to share between threads. The
+ * definitions of the built-in maps are built once, by
+ * {@link #of(MapType)}, and shared by every game played on them.
+ */
+public final class MapDefinition {
+
+    private static final MapDefinition[] BUILT_IN = new MapDefinition[MapType.values().length];
+    private static final int SHIFT = Integer.numberOfTrailingZeros(ChunkedGrid.CHUNK_SIZE);
+    private static final int MASK = ChunkedGrid.CHUNK_SIZE - 1;
+
+    private final MapFile file;
+    private final int cols;
+    private final int[] path;
+    private final List<CellPosition> positions;
+    private final int minRow;
+    private final int minCol;
+    private final int boundRows;
+    private final int boundCols;
+    private final int chunkCols;
+    private final int[][] pathIndexByCell;
+    private final boolean simplePath;
+
+    /**
+     * Builds the definition of a map, following its first path.
+     *
+     * @param file the map
+     * @throws IllegalArgumentException if file is null
+     */
+    public MapDefinition(MapFile file) {
+        if (file == null) {
+            throw new IllegalArgumentException("Map file cannot be null.");
+        }
+        this.file = file;
+        this.cols = file.getCols();
+        this.path = file.getPathCells(0);
+        this.positions = file.getPath(0);
+
+        int minRow = Integer.MAX_VALUE;
+        int minCol = Integer.MAX_VALUE;
+        int maxRow = 0;
+        int maxCol = 0;
+        for (CellPosition pos : positions) {
+            minRow = Math.min(minRow, pos.row());
+            minCol = Math.min(minCol, pos.col());
+            maxRow = Math.max(maxRow, pos.row());
+            maxCol = Math.max(maxCol, pos.col());
+        }
+        this.minRow = minRow;
+        this.minCol = minCol;
+        this.boundRows = maxRow - minRow + 1;
+        this.boundCols = maxCol - minCol + 1;
+
+        this.chunkCols = (boundCols + MASK) >> SHIFT;
+        this.pathIndexByCell = new int[((boundRows + MASK) >> SHIFT) * chunkCols][];
+
+        // A cell the path passes more than once keeps its first index.
+        boolean simple = true;
+        for (int i = 0; i < path.length; i++) {
+            int row = path[i] / cols - minRow;
+            int col = path[i] % cols - minCol;
+            int chunk = (row >> SHIFT) * chunkCols + (col >> SHIFT);
+            if (pathIndexByCell[chunk] == null) {
+                pathIndexByCell[chunk] = new int[ChunkedGrid.CHUNK_SIZE * ChunkedGrid.CHUNK_SIZE];
+                Arrays.fill(pathIndexByCell[chunk], -1);
+            }
+            int cell = ((row & MASK) << SHIFT) | (col & MASK);
+            if (pathIndexByCell[chunk][cell] < 0) {
+                pathIndexByCell[chunk][cell] = i;
+            } else {
+                simple = false;
+            }
+        }
+        this.simplePath = simple;
+    }
+
+    /**
+     * Returns the definition of a built-in map, built the first time it is
+     * asked for and shared from then on.
+     *
+     * @param mapType the map
+     * @return the shared definition
+     */
+    public static MapDefinition of(MapType mapType) {
+        synchronized (BUILT_IN) {
+            MapDefinition map = BUILT_IN[mapType.ordinal()];
+            if (map == null) {
+                map = new MapDefinition(MapFile.builtIn(mapType));
+                BUILT_IN[mapType.ordinal()] = map;
+            }
+            return map;
+        }
+    }
+
+    /**
+     * Sets the tiles of the map on a board, see {@link MapFile#apply}.
+     *
+     * @param board the board to set the tiles on
+     * @return the path, the same list as {@link #getPath()}
+     * @throws IllegalArgumentException if the board is smaller than the map
+     */
+    public List<CellPosition> apply(GameBoard board) {
+        file.apply(board);
+        return positions;
+    }
+
+    /**
+     * Returns the map file the definition is built from.
+     *
+     * @return the map file
+     */
+    public MapFile getMapFile() {
+        return file;
+    }
+
+    /**
+     * Returns the path the enemies follow. The list is unmodifiable and the
+     * same for every call.
+     *
+     * @return the cells of the path, in order
+     */
+    public List<CellPosition> getPath() {
+        return positions;
+    }
+
+    /**
+     * Returns the length of the path.
+     *
+     * @return the number of cells of the path
+     */
+    public int getPathLength() {
+        return path.length;
+    }
+
+    /**
+     * Returns the row of a cell of the path.
+     *
+     * @param pathIndex the index of the cell along the path
+     * @return the row of the cell
+     */
+    public int getPathRow(int pathIndex) {
+        return path[pathIndex] / cols;
+    }
+
+    /**
+     * Returns the column of a cell of the path.
+     *
+     * @param pathIndex the index of the cell along the path
+     * @return the column of the cell
+     */
+    public int getPathCol(int pathIndex) {
+        return path[pathIndex] % cols;
+    }
+
+    /**
+     * Returns the index along the path of a cell, in constant time.
+     *
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @return the first index of the cell along the path, or -1 if the path
+     *         does not pass the cell
+     */
+    public int pathIndexOf(int row, int col) {
+        int boundRow = row - minRow;
+        int boundCol = col - minCol;
+        if (boundRow < 0 || boundRow >= boundRows || boundCol < 0 || boundCol >= boundCols) {
+            return -1;
+        }
+        int[] chunk = pathIndexByCell[(boundRow >> SHIFT) * chunkCols + (boundCol >> SHIFT)];
+        if (chunk == null) {
+            return -1;
+        }
+        return chunk[((boundRow & MASK) << SHIFT) | (boundCol & MASK)];
+    }
+
+    /**
+     * Checks whether the path passes every cell at most once, so
+     * {@link #pathIndexOf(int, int)} gives the only index of each cell.
+     *
+     * @return true if no cell is repeated along the path
+     */
+    public boolean isSimplePath() {
+        return simplePath;
+    }
+}
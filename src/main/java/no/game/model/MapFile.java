@@ -0,0 +1,346 @@
+package no.game.model;
+
+import no.game.save.ChannelOutput;
+import no.grid.CellPosition;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A map stored in a compact binary file: the size of the map, a layer of
+ * tiles, one or more paths the enemies follow and the cells where enemies
+ * spawn and where they leave the board.
+ *
+ * A file is made of big-endian values, in this order:
+ * <ul>
+ * <li>the int {@link #MAGIC} and the int {@link #VERSION};</li>
+ * <li>the number of rows and of columns, as ints;</li>
+ * <li>one byte per tile, row by row, holding the tile symbol;</li>
+ * <li>the number of paths, then for every path its length and its cells,
+ * all as ints;</li>
+ * <li>the number of spawn cells and the cells, then the number of goal
+ * cells and the cells, all as ints.</li>
+ * </ul>
+ * A cell is given by its index, {@code row * cols + col}. Every part of
+ * the file is read with one bulk copy, so loading takes time in proportion
+ * to the size of the file and nothing is allocated per cell.
+ *
+ * The built-in maps of {@link MapType} are files among the resources of
+ * the game and are read once, by {@link #builtIn(MapType)}. A map file is
+ * immutable, so one instance can be shared by any number of games.
+ */
+public final class MapFile {
+
+    /** The first four bytes of every map file, "TDMP". */
+    public static final int MAGIC = 0x54444D50;
+
+    /** The version of the map format read and written by this class. */
+    public static final int VERSION = 1;
+
+    private static final MapFile[] BUILT_IN = new MapFile[MapType.values().length];
+
+    private final int rows;
+    private final int cols;
+    private final byte[] tiles;
+    private final int[][] paths;
+    private final int[] spawns;
+    private final int[] goals;
+
+    /**
+     * Constructs a map. The arrays are copied.
+     *
+     * @param rows   the number of rows
+     * @param cols   the number of columns
+     * @param tiles  the tile symbols, row by row, one ASCII character each
+     * @param paths  the paths, each the cell indices the enemies follow in
+     *               order
+     * @param spawns the cell indices where enemies spawn
+     * @param goals  the cell indices where enemies leave the board
+     * @throws IllegalArgumentException if the size is not positive, the
+     *                                  number of tiles does not match it,
+     *                                  there is no path, a path is empty or
+     *                                  a cell is not on the map
+     */
+    public MapFile(int rows, int cols, byte[] tiles, int[][] paths, int[] spawns, int[] goals) {
+        if (rows <= 0 || cols <= 0 || (long) rows * cols > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid map size: " + rows + "x" + cols);
+        }
+        if (tiles == null || tiles.length != rows * cols) {
+            throw new IllegalArgumentException("A map of " + rows + "x" + cols + " needs " + rows * cols + " tiles.");
+        }
+        if (paths == null || paths.length == 0 || spawns == null || goals == null) {
+            throw new IllegalArgumentException("A map needs at least one path, and spawns and goals cannot be null.");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.tiles = tiles.clone();
+        this.paths = new int[paths.length][];
+        for (int i = 0; i < paths.length; i++) {
+            if (paths[i] == null || paths[i].length == 0) {
+                throw new IllegalArgumentException("Path " + i + " is empty.");
+            }
+            this.paths[i] = checkCells(paths[i].clone());
+        }
+        this.spawns = checkCells(spawns.clone());
+        this.goals = checkCells(goals.clone());
+    }
+
+    /**
+     * Returns the map file of a built-in map. The file is read from the
+     * resources of the game the first time the map is asked for.
+     *
+     * @param mapType the map
+     * @return the map file
+     * @throws UncheckedIOException if the resource is missing or invalid
+     */
+    public static MapFile builtIn(MapType mapType) {
+        synchronized (BUILT_IN) {
+            MapFile map = BUILT_IN[mapType.ordinal()];
+            if (map == null) {
+                map = readResource(mapType.getResource());
+                BUILT_IN[mapType.ordinal()] = map;
+            }
+            return map;
+        }
+    }
+
+    /**
+     * Reads a map file from disk by mapping it into memory.
+     *
+     * @param file the file to read
+     * @return the map
+     * @throws IOException if the file cannot be read or is not a valid map
+     */
+    public static MapFile read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Reads a map from the remaining bytes of a buffer.
+     *
+     * @param buffer the buffer to read from, in big-endian order
+     * @return the map
+     * @throws IOException if the buffer does not hold a valid map
+     */
+    public static MapFile read(ByteBuffer buffer) throws IOException {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a map file.");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported map version: " + version);
+            }
+            int rows = buffer.getInt();
+            int cols = buffer.getInt();
+            if (rows <= 0 || cols <= 0 || (long) rows * cols > buffer.remaining()) {
+                throw new IOException("Invalid map size: " + rows + "x" + cols);
+            }
+            byte[] tiles = new byte[rows * cols];
+            buffer.get(tiles);
+
+            int[][] paths = new int[readCount(buffer)][];
+            for (int i = 0; i < paths.length; i++) {
+                paths[i] = readCells(buffer);
+            }
+            int[] spawns = readCells(buffer);
+            int[] goals = readCells(buffer);
+            return new MapFile(rows, cols, tiles, paths, spawns, goals);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Unexpected end of map file.", e);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid map file: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Writes the map in the format read by {@link #read(ByteBuffer)}.
+     *
+     * @param channel the channel to write to, left open
+     * @throws IOException if the channel cannot be written to
+     */
+    public void write(WritableByteChannel channel) throws IOException {
+        ChannelOutput out = new ChannelOutput(channel);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(rows);
+        out.writeInt(cols);
+        out.writeBytes(tiles, 0, tiles.length);
+        out.writeInt(paths.length);
+        for (int[] path : paths) {
+            writeCells(out, path);
+        }
+        writeCells(out, spawns);
+        writeCells(out, goals);
+        out.flush();
+    }
+
+    /**
+     * Sets the tiles of the map on a board, starting from its top left
+     * corner, and returns the first path. Tiles already holding the right
+     * symbol are left alone, so applying a map to a large, mostly empty
+     * board only touches the cells that differ.
+     *
+     * @param board the board to set the tiles on
+     * @return a new, unmodifiable list of the cells of the first path
+     * @throws IllegalArgumentException if the board is smaller than the map
+     */
+    public List<CellPosition> apply(GameBoard board) {
+        if (board.rows() < rows || board.cols() < cols) {
+            throw new IllegalArgumentException("A map of " + rows + "x" + cols
+                    + " does not fit on a board of " + board.rows() + "x" + board.cols());
+        }
+        int index = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                char tile = (char) (tiles[index++] & 0xFF);
+                if (board.getSymbol(row, col) != tile) {
+                    board.setSymbol(row, col, tile);
+                }
+            }
+        }
+        return getPath(0);
+    }
+
+    /**
+     * Returns the height of the map.
+     *
+     * @return the number of rows of the map
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the width of the map.
+     *
+     * @return the number of columns of the map
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Returns the tile symbol of a cell.
+     *
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @return the tile symbol
+     * @throws IndexOutOfBoundsException if the cell is not on the map
+     */
+    public char getTile(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            throw new IndexOutOfBoundsException("Given position is not within map: (" + row + ", " + col + ")");
+        }
+        return (char) (tiles[row * cols + col] & 0xFF);
+    }
+
+    /**
+     * Returns how many paths the map has.
+     *
+     * @return the number of paths of the map
+     */
+    public int getPathCount() {
+        return paths.length;
+    }
+
+    /**
+     * Returns the cells of a path as cell indices.
+     *
+     * @param path the index of the path
+     * @return a copy of the cell indices of the path, in order
+     */
+    public int[] getPathCells(int path) {
+        return paths[path].clone();
+    }
+
+    /**
+     * Returns the cells of a path as positions.
+     *
+     * @param path the index of the path
+     * @return a new, unmodifiable list of the cells of the path, in order
+     */
+    public List<CellPosition> getPath(int path) {
+        return toPositions(paths[path]);
+    }
+
+    /**
+     * Returns the cells where enemies spawn.
+     *
+     * @return a new, unmodifiable list of the spawn cells
+     */
+    public List<CellPosition> getSpawns() {
+        return toPositions(spawns);
+    }
+
+    /**
+     * Returns the cells where enemies leave the board.
+     *
+     * @return a new, unmodifiable list of the goal cells
+     */
+    public List<CellPosition> getGoals() {
+        return toPositions(goals);
+    }
+
+    private int[] checkCells(int[] cells) {
+        for (int cell : cells) {
+            if (cell < 0 || cell >= rows * cols) {
+                throw new IllegalArgumentException("Cell " + cell + " is not on the map.");
+            }
+        }
+        return cells;
+    }
+
+    private List<CellPosition> toPositions(int[] cells) {
+        List<CellPosition> positions = new ArrayList<>(cells.length);
+        for (int cell : cells) {
+            positions.add(new CellPosition(cell / cols, cell % cols));
+        }
+        return Collections.unmodifiableList(positions);
+    }
+
+    private static MapFile readResource(String name) {
+        try (InputStream in = MapFile.class.getResourceAsStream(name)) {
+            if (in == null) {
+                throw new IOException("Missing map resource: " + name);
+            }
+            return read(ByteBuffer.wrap(in.readAllBytes()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int readCount(ByteBuffer buffer) throws IOException {
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining() / Integer.BYTES) {
+            throw new IOException("Invalid count: " + count);
+        }
+        return count;
+    }
+
+    private static int[] readCells(ByteBuffer buffer) throws IOException {
+        int[] cells = new int[readCount(buffer)];
+        buffer.asIntBuffer().get(cells);
+        buffer.position(buffer.position() + cells.length * Integer.BYTES);
+        return cells;
+    }
+
+    private static void writeCells(ChannelOutput out, int[] cells) throws IOException {
+        out.writeInt(cells.length);
+        for (int cell : cells) {
+            out.writeInt(cell);
+        }
+    }
+}
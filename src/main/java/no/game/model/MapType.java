@@ -1,7 +1,23 @@
 package no.game.model;
 
+import java.util.Locale;
+
+/**
+ * The built-in maps of the game. Each map is stored as a {@link MapFile}
+ * among the resources of the game.
+ */
 public enum MapType {
     MAP1,
     MAP2,
-    MAP3
+    MAP3;
+
+    /**
+     * Returns the name of the resource holding the map file of the map,
+     * such as {@code /maps/map1.tdmap}.
+     *
+     * @return the resource name
+     */
+    public String getResource() {
+        return "/maps/" + name().toLowerCase(Locale.ROOT) + ".tdmap";
+    }
 }
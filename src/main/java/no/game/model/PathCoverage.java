@@ -0,0 +1,199 @@
+package no.game.model;
+
+import no.grid.CellPosition;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The part of the enemy path that lies within a tower's range, stored as
+ * sorted, disjoint intervals of path indices.
+ *
+ * Towers never move and enemies only ever stand on the path, so the
+ * coverage can be computed once when the tower is placed (and again when it
+ * is upgraded). Whether an enemy is in range is then a question of whether
+ * its path index falls inside one of the intervals, with no distance
+ * calculation on every tick.
+ */
+public final class PathCoverage {
+
+    /** A coverage that contains no path indices. */
+    public static final PathCoverage EMPTY = new PathCoverage(new int[0]);
+
+    // Pairs of inclusive start and end path indices.
+    private final int[] bounds;
+
+    private PathCoverage(int[] bounds) {
+        this.bounds = bounds;
+    }
+
+    /**
+     * Computes the path indices whose cells are within the given Euclidean
+     * distance of a cell.
+     *
+     * @param center the position of the tower
+     * @param range  the range of the tower, in cells
+     * @param path   the path the enemies follow
+     * @return the coverage of the path
+     */
+    public static PathCoverage compute(CellPosition center, int range, List<CellPosition> path) {
+        int[] bounds = new int[4];
+        int count = 0;
+        long rangeSquared = (long) range * range;
+
+        for (int i = 0; i < path.size(); i++) {
+            CellPosition pos = path.get(i);
+            long dx = pos.col() - center.col();
+            long dy = pos.row() - center.row();
+            if (dx * dx + dy * dy > rangeSquared) {
+                continue;
+            }
+            if (count > 0 && bounds[count - 1] == i - 1) {
+                bounds[count - 1] = i;
+            } else {
+                if (count == bounds.length) {
+                    bounds = Arrays.copyOf(bounds, count * 2);
+                }
+                bounds[count++] = i;
+                bounds[count++] = i;
+            }
+        }
+
+        if (count == 0) {
+            return EMPTY;
+        }
+        return new PathCoverage(Arrays.copyOf(bounds, count));
+    }
+
+    /**
+     * Computes the path indices whose cells are within the given Euclidean
+     * distance of a cell, the same as {@link #compute(CellPosition, int,
+     * List)} with the path of the map.
+     *
+     * When the path passes no cell twice and is longer than the square
+     * around the range, only the cells within range are looked up in the
+     * map's cell to path index table, so the work depends on the range and
+     * not on the length of the path.
+     *
+     * @param center the position of the tower
+     * @param range  the range of the tower, in cells
+     * @param map    the map whose path the enemies follow
+     * @return the coverage of the path
+     */
+    public static PathCoverage compute(CellPosition center, int range, MapDefinition map) {
+        long rangeSquared = (long) range * range;
+        long side = 2L * range + 1;
+        int[] indices = new int[16];
+        int found = 0;
+        if (range < 0 || !map.isSimplePath() || side * side >= map.getPathLength()) {
+            // Walking the packed path visits the indices in order.
+            for (int i = 0; i < map.getPathLength(); i++) {
+                long dx = map.getPathCol(i) - center.col();
+                long dy = map.getPathRow(i) - center.row();
+                if (dx * dx + dy * dy <= rangeSquared) {
+                    if (found == indices.length) {
+                        indices = Arrays.copyOf(indices, found * 2);
+                    }
+                    indices[found++] = i;
+                }
+            }
+            return fromSortedIndices(indices, found);
+        }
+
+        for (int row = center.row() - range; row <= center.row() + range; row++) {
+            long dy = row - center.row();
+            for (int col = center.col() - range; col <= center.col() + range; col++) {
+                long dx = col - center.col();
+                if (dx * dx + dy * dy > rangeSquared) {
+                    continue;
+                }
+                int index = map.pathIndexOf(row, col);
+                if (index >= 0) {
+                    if (found == indices.length) {
+                        indices = Arrays.copyOf(indices, found * 2);
+                    }
+                    indices[found++] = index;
+                }
+            }
+        }
+        Arrays.sort(indices, 0, found);
+        return fromSortedIndices(indices, found);
+    }
+
+    private static PathCoverage fromSortedIndices(int[] indices, int found) {
+        if (found == 0) {
+            return EMPTY;
+        }
+        int[] bounds = new int[2 * found];
+        int count = 0;
+        for (int i = 0; i < found; i++) {
+            if (count > 0 && bounds[count - 1] == indices[i] - 1) {
+                bounds[count - 1] = indices[i];
+            } else {
+                bounds[count++] = indices[i];
+                bounds[count++] = indices[i];
+            }
+        }
+        return new PathCoverage(Arrays.copyOf(bounds, count));
+    }
+
+    /**
+     * Checks whether a path index lies inside the coverage.
+     *
+     * @param pathIndex the path index to check
+     * @return true if the path index is covered, false otherwise
+     */
+    public boolean covers(int pathIndex) {
+        int low = 0;
+        int high = intervalCount() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (pathIndex < start(mid)) {
+                high = mid - 1;
+            } else if (pathIndex > end(mid)) {
+                low = mid + 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of disjoint intervals in the coverage.
+     *
+     * @return the number of intervals
+     */
+    public int intervalCount() {
+        return bounds.length / 2;
+    }
+
+    /**
+     * Returns the first path index of an interval.
+     *
+     * @param interval the interval, counted from the start of the path
+     * @return the first covered path index of the interval
+     */
+    public int start(int interval) {
+        return bounds[interval * 2];
+    }
+
+    /**
+     * Returns the last path index of an interval.
+     *
+     * @param interval the interval, counted from the start of the path
+     * @return the last covered path index of the interval, inclusive
+     */
+    public int end(int interval) {
+        return bounds[interval * 2 + 1];
+    }
+
+    /**
+     * Checks whether the coverage contains no path indices.
+     *
+     * @return true if no part of the path is covered
+     */
+    public boolean isEmpty() {
+        return bounds.length == 0;
+    }
+}
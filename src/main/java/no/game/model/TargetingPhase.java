@@ -0,0 +1,219 @@
+package no.game.model;
+
+import no.game.model.enemy.EnemyProgressIndex;
+import no.game.model.enemy.IEnemy;
+import no.game.model.tower.SlowTower;
+import no.game.model.tower.Tower;
+import no.game.model.tower.TowerType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The tower phase of a game tick: every tower cools down, picks its targets
+ * and fires.
+ *
+ * Picking targets only reads the enemy progress index and the tower's own
+ * coverage, so the towers are independent of each other. The only effects
+ * on shared state are the slows applied by slow towers and the projectiles
+ * fired, and neither affects which enemy another tower picks in the same
+ * tick. The towers of each type are therefore split into fixed chunks,
+ * each chunk collects its projectiles and slows in a buffer of its own, and
+ * the buffers are merged in chunk order afterwards. The merged result is
+ * the same, bit for bit, as firing the towers one after another in the
+ * order of the {@link TowerRegistry}, whether the chunks ran on one thread
+ * or on a ForkJoinPool.
+ *
+ * A chunk only holds towers of one type and is fired by a loop for that
+ * type, so no tower's type is checked while firing.
+ */
+final class TargetingPhase {
+
+    /** The number of towers handled by one task. */
+    static final int CHUNK_SIZE = 128;
+
+    private ForkJoinPool pool;
+    private final List<Shots> buffers = new ArrayList<>();
+
+    /**
+     * Sets the pool the chunks run on, or null to run them on the calling
+     * thread.
+     *
+     * @param pool the pool to use, or null
+     */
+    void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Returns the pool the chunks run on.
+     *
+     * @return the pool, or null if the phase runs on the calling thread
+     */
+    ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Lets every tower fire, applying slows to their targets and adding the
+     * fired projectiles to a list in tower order.
+     *
+     * @param towers      the towers, in firing order
+     * @param enemies     the enemies ordered by progress along the path
+     * @param projectiles the list to add the fired projectiles to
+     */
+    void run(TowerRegistry towers, EnemyProgressIndex enemies, List<Projectile> projectiles) {
+        int chunks = 0;
+        for (TowerType type : TowerType.values()) {
+            chunks += chunksOf(towers, type);
+        }
+        while (buffers.size() < chunks) {
+            buffers.add(new Shots());
+        }
+
+        // Bring the index up to date here, so the queries below only read it.
+        enemies.settle();
+        if (pool == null || chunks < 2) {
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                fireChunk(towers, chunk, enemies);
+            }
+        } else {
+            pool.invoke(new ChunkTask(towers, enemies, 0, chunks));
+        }
+
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            buffers.get(chunk).mergeInto(projectiles);
+        }
+    }
+
+    private static int chunksOf(TowerRegistry towers, TowerType type) {
+        return (towers.count(type) + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    }
+
+    private void fireChunk(TowerRegistry towers, int chunk, EnemyProgressIndex enemies) {
+        Shots shots = buffers.get(chunk);
+        // Chunks are numbered type by type; find the type this one is of.
+        for (TowerType type : TowerType.values()) {
+            int typeChunks = chunksOf(towers, type);
+            if (chunk < typeChunks) {
+                Tower[] typed = towers.towers(type);
+                int from = chunk * CHUNK_SIZE;
+                int to = Math.min(towers.count(type), from + CHUNK_SIZE);
+                switch (type) {
+                    case AOE -> fireAoe(typed, from, to, enemies, shots);
+                    case SLOW -> fireSlow(typed, from, to, enemies, shots);
+                    case BASIC, SNIPER -> fireSingle(typed, from, to, enemies, shots);
+                }
+                return;
+            }
+            chunk -= typeChunks;
+        }
+    }
+
+    // Fires at every enemy in range.
+    private static void fireAoe(Tower[] towers, int from, int to, EnemyProgressIndex enemies, Shots shots) {
+        for (int i = from; i < to; i++) {
+            Tower tower = towers[i];
+            tower.tickCooldown();
+            if (!tower.canShoot())
+                continue;
+
+            int before = shots.projectiles.size();
+            enemies.collect(tower.getCoverage(), shots.targets);
+            for (IEnemy target : shots.targets) {
+                shots.projectiles.add(new Projectile(tower.getPosition(), target, tower.getDamage()));
+            }
+            shots.targets.clear();
+            if (shots.projectiles.size() > before) {
+                tower.resetCooldown();
+            }
+        }
+    }
+
+    // Fires at the leading enemy in range and slows it.
+    private static void fireSlow(Tower[] towers, int from, int to, EnemyProgressIndex enemies, Shots shots) {
+        for (int i = from; i < to; i++) {
+            SlowTower tower = (SlowTower) towers[i];
+            tower.tickCooldown();
+            if (!tower.canShoot())
+                continue;
+
+            IEnemy target = enemies.findLeading(tower.getCoverage());
+            if (target != null) {
+                shots.projectiles.add(new Projectile(tower.getPosition(), target, tower.getDamage()));
+                shots.slowTowers.add(tower);
+                shots.slowTargets.add(target);
+                tower.resetCooldown();
+            }
+        }
+    }
+
+    // Fires at the leading enemy in range.
+    private static void fireSingle(Tower[] towers, int from, int to, EnemyProgressIndex enemies, Shots shots) {
+        for (int i = from; i < to; i++) {
+            Tower tower = towers[i];
+            tower.tickCooldown();
+            if (!tower.canShoot())
+                continue;
+
+            IEnemy target = enemies.findLeading(tower.getCoverage());
+            if (target != null) {
+                shots.projectiles.add(new Projectile(tower.getPosition(), target, tower.getDamage()));
+                tower.resetCooldown();
+            }
+        }
+    }
+
+    /**
+     * The projectiles and slows produced by one chunk of towers.
+     */
+    private static final class Shots {
+        private final List<Projectile> projectiles = new ArrayList<>();
+        private final List<SlowTower> slowTowers = new ArrayList<>();
+        private final List<IEnemy> slowTargets = new ArrayList<>();
+        private final List<IEnemy> targets = new ArrayList<>();
+
+        private void mergeInto(List<Projectile> out) {
+            for (int i = 0; i < slowTowers.size(); i++) {
+                SlowTower tower = slowTowers.get(i);
+                slowTargets.get(i).applySlow(tower.getSlowAmount(), tower.getSlowDuration());
+            }
+            out.addAll(projectiles);
+            projectiles.clear();
+            slowTowers.clear();
+            slowTargets.clear();
+        }
+    }
+
+    /**
+     * Fires a range of chunks, splitting it in two until one chunk is left.
+     */
+    private final class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final TowerRegistry towers;
+        private final EnemyProgressIndex enemies;
+        private final int from;
+        private final int to;
+
+        private ChunkTask(TowerRegistry towers, EnemyProgressIndex enemies, int from, int to) {
+            this.towers = towers;
+            this.enemies = enemies;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                fireChunk(towers, from, enemies);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ChunkTask(towers, enemies, from, mid),
+                    new ChunkTask(towers, enemies, mid, to));
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package no.game.model;
+
+import no.game.model.tower.Tower;
+import no.game.model.tower.TowerType;
+import no.grid.CellPosition;
+import no.grid.ChunkedGrid;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The towers of a game, indexed both by the cell they stand on and by their
+ * type.
+ *
+ * Every type keeps its towers in a dense array of its own, so the towers of
+ * one type can be processed in a tight loop without checking the type of
+ * each one. A table with one entry per cell gives the tower on a cell and
+ * its place in the array of its type, so finding, adding and removing a
+ * tower takes constant time however many towers there are. Removing a
+ * tower moves the last tower of the same type into its place.
+ *
+ * The cell table is split into chunks the same size as those of a
+ * {@link ChunkedGrid}, and a chunk is only allocated once a tower is placed
+ * in it, so a large board with few towers needs little memory.
+ *
+ * The towers are listed type by type, in the order of {@link TowerType},
+ * and within a type in the order of their array. That order only depends
+ * on the towers added and removed, so it is the same for a game and a copy
+ * loaded from its saved state.
+ */
+final class TowerRegistry {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int SHIFT = Integer.numberOfTrailingZeros(ChunkedGrid.CHUNK_SIZE);
+    private static final int MASK = ChunkedGrid.CHUNK_SIZE - 1;
+
+    private final int rows;
+    private final int cols;
+    private final int chunkCols;
+    private final Tower[][] byCell;
+    private final int[][] slotByCell;
+    private final Tower[][] byType = new Tower[TowerType.values().length][];
+    private final int[] counts = new int[TowerType.values().length];
+    private int size;
+    private final List<Tower> view = new AbstractList<>() {
+        @Override
+        public Tower get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+            }
+            for (int type = 0; ; type++) {
+                if (index < counts[type]) {
+                    return byType[type][index];
+                }
+                index -= counts[type];
+            }
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    };
+
+    /**
+     * Creates an empty registry for a board of the given size.
+     *
+     * @param rows the number of rows of the board
+     * @param cols the number of columns of the board
+     */
+    TowerRegistry(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.chunkCols = (cols + MASK) >> SHIFT;
+        int chunks = ((rows + MASK) >> SHIFT) * chunkCols;
+        this.byCell = new Tower[chunks][];
+        this.slotByCell = new int[chunks][];
+        for (int type = 0; type < byType.length; type++) {
+            byType[type] = new Tower[INITIAL_CAPACITY];
+        }
+    }
+
+    /**
+     * Adds a tower on the cell it stands on.
+     *
+     * @param tower the tower to add
+     * @throws IllegalArgumentException  if another tower stands on the cell
+     * @throws IndexOutOfBoundsException if the cell is not on the board
+     */
+    void add(Tower tower) {
+        CellPosition pos = tower.getPosition();
+        int chunk = chunkIndex(pos);
+        if (chunk < 0) {
+            throw new IndexOutOfBoundsException("Tower is not on the board: " + pos);
+        }
+        if (byCell[chunk] == null) {
+            byCell[chunk] = new Tower[ChunkedGrid.CHUNK_SIZE * ChunkedGrid.CHUNK_SIZE];
+            slotByCell[chunk] = new int[ChunkedGrid.CHUNK_SIZE * ChunkedGrid.CHUNK_SIZE];
+        }
+        int cell = offset(pos);
+        if (byCell[chunk][cell] != null) {
+            throw new IllegalArgumentException("A tower already stands on " + tower.getPosition());
+        }
+        int type = TowerType.of(tower).ordinal();
+        if (counts[type] == byType[type].length) {
+            byType[type] = Arrays.copyOf(byType[type], counts[type] * 2);
+        }
+        byType[type][counts[type]] = tower;
+        byCell[chunk][cell] = tower;
+        slotByCell[chunk][cell] = counts[type]++;
+        size++;
+    }
+
+    /**
+     * Returns the tower on a cell.
+     *
+     * @param pos the cell
+     * @return the tower on the cell, or null if there is none or the cell is
+     *         not on the board
+     */
+    Tower get(CellPosition pos) {
+        int chunk = chunkIndex(pos);
+        if (chunk < 0 || byCell[chunk] == null) {
+            return null;
+        }
+        return byCell[chunk][offset(pos)];
+    }
+
+    /**
+     * Removes the tower on a cell.
+     *
+     * @param pos the cell
+     * @return the removed tower, or null if there was none
+     */
+    Tower remove(CellPosition pos) {
+        Tower tower = get(pos);
+        if (tower == null) {
+            return null;
+        }
+        int chunk = chunkIndex(pos);
+        int cell = offset(pos);
+        int type = TowerType.of(tower).ordinal();
+        int slot = slotByCell[chunk][cell];
+        int last = --counts[type];
+        Tower moved = byType[type][last];
+        byType[type][slot] = moved;
+        slotByCell[chunkIndex(moved.getPosition())][offset(moved.getPosition())] = slot;
+        byType[type][last] = null;
+        byCell[chunk][cell] = null;
+        size--;
+        return tower;
+    }
+
+    /**
+     * Returns the number of towers of a type.
+     *
+     * @param type the tower type
+     * @return the number of towers of the type
+     */
+    int count(TowerType type) {
+        return counts[type.ordinal()];
+    }
+
+    /**
+     * Returns the dense array of the towers of a type. Only the first
+     * {@link #count(TowerType)} elements are towers, and the array is
+     * replaced as the registry grows, so it should not be kept.
+     *
+     * @param type the tower type
+     * @return the towers of the type
+     */
+    Tower[] towers(TowerType type) {
+        return byType[type.ordinal()];
+    }
+
+    /**
+     * Returns the number of towers.
+     *
+     * @return the number of towers
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns an unmodifiable view of all towers, type by type.
+     *
+     * @return the towers
+     */
+    List<Tower> asList() {
+        return view;
+    }
+
+    private int chunkIndex(CellPosition pos) {
+        if (pos.row() < 0 || pos.row() >= rows || pos.col() < 0 || pos.col() >= cols) {
+            return -1;
+        }
+        return (pos.row() >> SHIFT) * chunkCols + (pos.col() >> SHIFT);
+    }
+
+    private static int offset(CellPosition pos) {
+        return ((pos.row() & MASK) << SHIFT) + (pos.col() & MASK);
+    }
+}
@@ -1,8 +1,11 @@
 package no.game.model;
 
 import no.game.model.enemy.*;
+import no.game.save.ChannelInput;
+import no.game.save.ChannelOutput;
 import no.grid.CellPosition;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -22,10 +25,12 @@ public class WaveManager {
     private final double timeBetweenEnemies = 1.8;
 
     private final EnemyManager enemyManager;
+    private final GameRandom random;
     private boolean isWaveActive = false;
 
     /**
-     * Constructs a WaveManager to control enemy waves.
+     * Constructs a WaveManager to control enemy waves, with an unseeded
+     * random source.
      *
      * @param enemyManager The EnemyManager responsible for managing the
      *                     list of enemies.
@@ -33,10 +38,28 @@ public class WaveManager {
      * @throws IllegalArgumentException if enemyManager is null.
      */
     public WaveManager(EnemyManager enemyManager) {
+        this(enemyManager, new GameRandom());
+    }
+
+    /**
+     * Constructs a WaveManager to control enemy waves.
+     *
+     * @param enemyManager The EnemyManager responsible for managing the
+     *                     list of enemies.
+     *                     Must not be null.
+     * @param random       The random source that picks the enemy types.
+     *                     Must not be null.
+     * @throws IllegalArgumentException if enemyManager or random is null.
+     */
+    public WaveManager(EnemyManager enemyManager, GameRandom random) {
         if (enemyManager == null) {
             throw new IllegalArgumentException("EnemyManager cannot be null.");
         }
+        if (random == null) {
+            throw new IllegalArgumentException("Random cannot be null.");
+        }
         this.enemyManager = enemyManager;
+        this.random = random;
     }
 
     /**
@@ -84,8 +107,7 @@ public class WaveManager {
         if (path == null || path.isEmpty())
             return;
 
-        double spawnChance = Math.random();
-        IEnemy enemy;
+        double spawnChance = random.nextDouble();
 
         // Base stats for different enemy types
         double triangleBaseHP = 35;
@@ -100,14 +122,13 @@ public class WaveManager {
         double speedScale = 1 + (currentWave * 0.05);
 
         if (spawnChance < 0.33) {
-            enemy = new TriangleEnemy(path, triangleBaseHP * hpScale, triangleBaseSpeed * speedScale);
+            enemyManager.spawn(EnemyType.TRIANGLE, triangleBaseHP * hpScale, triangleBaseSpeed * speedScale);
         } else if (spawnChance < 0.66) {
-            enemy = new CircleEnemy(path, circleBaseHP * hpScale, circleBaseSpeed * speedScale);
+            enemyManager.spawn(EnemyType.CIRCLE, circleBaseHP * hpScale, circleBaseSpeed * speedScale);
         } else {
-            enemy = new BasicEnemy(path, basicBaseHP * hpScale, basicBaseSpeed * speedScale);
+            enemyManager.spawn(EnemyType.BASIC, basicBaseHP * hpScale, basicBaseSpeed * speedScale);
         }
 
-        enemyManager.addEnemy(enemy);
         enemiesSpawned++;
     }
 
@@ -124,6 +145,14 @@ public class WaveManager {
         }
     }
 
+    /**
+     * Ends the current wave, as if all of its enemies had been spawned.
+     */
+    void endWave() {
+        enemiesSpawned = enemiesPerWave;
+        isWaveActive = false;
+    }
+
     /**
      * Returns whether a wave is currently active.
      *
@@ -142,6 +171,35 @@ public class WaveManager {
         return currentWave;
     }
 
+    /**
+     * Writes the wave counters and timer.
+     *
+     * @param out The output to write to.
+     * @throws IOException if the output cannot be written to.
+     */
+    void writeState(ChannelOutput out) throws IOException {
+        out.writeInt(currentWave);
+        out.writeInt(enemiesPerWave);
+        out.writeInt(enemiesSpawned);
+        out.writeDouble(waveTimer);
+        out.writeBoolean(isWaveActive);
+    }
+
+    /**
+     * Restores the wave counters and timer written by
+     * {@link #writeState(ChannelOutput)}.
+     *
+     * @param in The input to read from.
+     * @throws IOException if the input cannot be read from.
+     */
+    void readState(ChannelInput in) throws IOException {
+        currentWave = in.readInt();
+        enemiesPerWave = in.readInt();
+        enemiesSpawned = in.readInt();
+        waveTimer = in.readDouble();
+        isWaveActive = in.readBoolean();
+    }
+
     /**
      * Determines if a new wave can be started.
      * A new wave can start if the current wave is not active and all enemies from
@@ -18,4 +18,9 @@ public class BasicEnemy extends Enemy {
     public BasicEnemy(List<CellPosition> path, double health, double speed) {
         super(path, health, speed);
     }
+
+    @Override
+    public EnemyType getType() {
+        return EnemyType.BASIC;
+    }
 }
@@ -19,4 +19,8 @@ public class CircleEnemy extends Enemy {
         super(path, health, speed);
     }
 
+    @Override
+    public EnemyType getType() {
+        return EnemyType.CIRCLE;
+    }
 }
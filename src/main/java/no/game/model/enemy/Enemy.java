@@ -73,6 +73,52 @@ public abstract class Enemy implements IEnemy {
         }
     }
 
+    /**
+     * Returns the speed the enemy moves at this tick, with any slow applied.
+     */
+    double getCurrentSpeed() {
+        return currentSpeed;
+    }
+
+    /**
+     * Returns the fraction the enemy is slowed by, or 0 if it is not slowed.
+     */
+    double getSlowAmount() {
+        return slowAmount;
+    }
+
+    /**
+     * Returns the number of ticks left of the active slow.
+     */
+    int getSlowTicksRemaining() {
+        return slowTicksRemaining;
+    }
+
+    /**
+     * Puts the enemy back into a saved state. The maximum health and base
+     * speed are the ones given to the constructor.
+     */
+    void restore(double health, int pathIndex, double movementProgress, double currentSpeed,
+            double slowAmount, int slowTicksRemaining) {
+        this.health = health;
+        this.pathIndex = pathIndex;
+        this.position = path.get(Math.min(pathIndex, path.size() - 1));
+        this.movementProgress = movementProgress;
+        this.currentSpeed = currentSpeed;
+        this.slowAmount = slowAmount;
+        this.slowTicksRemaining = slowTicksRemaining;
+    }
+
+    /**
+     * Puts the enemy back into a state copied from an EnemyStore, where the
+     * enemy may stand on an earlier cell than its path index points at.
+     */
+    void restore(double health, int pathIndex, double movementProgress, double currentSpeed,
+            double slowAmount, int slowTicksRemaining, int positionIndex) {
+        restore(health, pathIndex, movementProgress, currentSpeed, slowAmount, slowTicksRemaining);
+        this.position = path.get(positionIndex);
+    }
+
     @Override
     public double getMaxHealth() {
         return maxHealth;
@@ -83,6 +129,16 @@ public abstract class Enemy implements IEnemy {
         return position;
     }
 
+    @Override
+    public int getPathIndex() {
+        return pathIndex;
+    }
+
+    @Override
+    public double getMovementProgress() {
+        return movementProgress;
+    }
+
     @Override
     public double getHealth() {
         if (health >= 0) {
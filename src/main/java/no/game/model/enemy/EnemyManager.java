@@ -1,16 +1,32 @@
 package no.game.model.enemy;
 
+import no.game.save.ChannelInput;
+import no.game.save.ChannelOutput;
 import no.grid.CellPosition;
+
+import java.io.IOException;
 import java.util.*;
+import java.util.function.Predicate;
 
 /**
  * Manages a collection of enemies in the game.
  * EnemyManager handles updating enemy positions and
  * provides access to the list of active enemies and their path.
+ * It also keeps the enemies ordered by progress along the path for
+ * targeting.
+ *
+ * Optionally, spawned enemies are kept in an {@link EnemyStore} of parallel
+ * primitive arrays instead of as separate objects. The enemy list then holds
+ * views of the stored enemies, and enemies added as objects are kept and
+ * moved alongside the store.
  */
 public class EnemyManager {
-    private List<IEnemy> enemies = new ArrayList<>();
+    private final EnemyList enemies = new EnemyList();
     private List<CellPosition> path;
+    private final EnemyProgressIndex progressIndex = new EnemyProgressIndex();
+    private final boolean useStore;
+    private EnemyStore store;
+    private final List<IEnemy> unstored = new ArrayList<>();
 
     /**
      * Creates a new EnemyManager with a specified movement path for
@@ -22,24 +38,52 @@ public class EnemyManager {
      * @throws IllegalArgumentException if path is null.
      */
     public EnemyManager(List<CellPosition> path) {
+        this(path, false);
+    }
+
+    /**
+     * Creates a new EnemyManager with a specified movement path for
+     * enemies, optionally keeping spawned enemies in an EnemyStore.
+     *
+     * @param path     The list of CellPosition that enemies will
+     *                 follow.
+     *                 Must not be null.
+     * @param useStore Whether spawned enemies are kept in parallel arrays
+     *                 instead of as separate objects.
+     * @throws IllegalArgumentException if path is null.
+     */
+    public EnemyManager(List<CellPosition> path, boolean useStore) {
         if (path == null) {
             throw new IllegalArgumentException("Path cannot be null.");
         }
         this.path = path;
+        this.useStore = useStore;
     }
 
     /**
-     * Updates all managed enemies by moving them along their path. 
+     * Updates all managed enemies by moving them along their path, and
+     * repairs the progress order for enemies that overtook each other.
      * Should be called once per game tick.
      */
     public void update() {
-        for (IEnemy enemy : enemies) {
-            enemy.move();
+        if (store == null) {
+            for (IEnemy enemy : enemies.items) {
+                enemy.move();
+            }
+        } else {
+            store.moveAll();
+            for (IEnemy enemy : unstored) {
+                enemy.move();
+            }
+        }
+        if (!enemies.items.isEmpty()) {
+            progressIndex.reorder();
         }
     }
 
     /**
      * Returns the list of all active enemies.
+     * Changes made through the list are reflected in the progress index.
      *
      * @return A modifiable List of IEnemy objects.
      */
@@ -47,6 +91,17 @@ public class EnemyManager {
         return enemies;
     }
 
+    /**
+     * Returns the active enemies ordered by progress along the path. The
+     * order is repaired by {@link #update()}; enemies moved by other means
+     * are only put back in order at the next update.
+     *
+     * @return The progress index of the enemies.
+     */
+    public EnemyProgressIndex getProgressIndex() {
+        return progressIndex;
+    }
+
     /**
      * Returns the movement path that enemies follow.
      *
@@ -69,4 +124,290 @@ public class EnemyManager {
         }
         enemies.add(enemy);
     }
+
+    /**
+     * Spawns a new enemy of the given type at the start of the path.
+     *
+     * @param type   The type of the enemy.
+     * @param health The initial and maximum health of the enemy.
+     * @param speed  The base speed of the enemy.
+     * @return The new enemy.
+     * @throws IllegalArgumentException if the path is empty, or health
+     *                                  <= 0, or speed < 0.
+     */
+    public IEnemy spawn(EnemyType type, double health, double speed) {
+        IEnemy enemy;
+        if (useStore) {
+            if (store == null) {
+                store = new EnemyStore(path);
+                unstored.addAll(enemies.items);
+            }
+            enemy = store.add(type, health, speed);
+        } else {
+            enemy = type.create(path, health, speed);
+        }
+        enemies.add(enemy);
+        return enemy;
+    }
+
+    /**
+     * Returns whether spawned enemies are kept in an EnemyStore.
+     *
+     * @return true if the enemies are stored in parallel arrays.
+     */
+    public boolean usesStore() {
+        return useStore;
+    }
+
+    /**
+     * Writes the full state of every enemy in list order, together with its
+     * position in the progress index, so that {@link #readState(ChannelInput)}
+     * restores the enemies exactly, including how enemies with equal
+     * progress are ordered for targeting. Nothing is allocated per enemy.
+     *
+     * @param out The output to write to.
+     * @throws IOException           if the output cannot be written to.
+     * @throws IllegalStateException if an enemy is not an {@link Enemy} or
+     *                               a stored enemy.
+     */
+    public void writeState(ChannelOutput out) throws IOException {
+        List<IEnemy> items = enemies.items;
+        out.writeInt(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            IEnemy enemy = items.get(i);
+            out.writeByte(enemy.getType().ordinal());
+            out.writeInt(progressIndex.rankOf(enemy));
+            out.writeDouble(enemy.getHealth());
+            out.writeDouble(enemy.getMaxHealth());
+            out.writeDouble(enemy.getSpeed());
+            if (enemy instanceof Enemy object) {
+                out.writeDouble(object.getCurrentSpeed());
+                out.writeDouble(object.getSlowAmount());
+                out.writeInt(object.getSlowTicksRemaining());
+            } else if (EnemyStore.isView(enemy)) {
+                out.writeDouble(EnemyStore.currentSpeedOf(enemy));
+                out.writeDouble(EnemyStore.slowAmountOf(enemy));
+                out.writeInt(EnemyStore.slowTicksOf(enemy));
+            } else {
+                throw new IllegalStateException("Cannot save enemy of " + enemy.getClass());
+            }
+            out.writeInt(enemy.getPathIndex());
+            out.writeDouble(enemy.getMovementProgress());
+        }
+    }
+
+    /**
+     * Replaces all enemies with the ones written by
+     * {@link #writeState(ChannelOutput)}. The path must be the same as when
+     * the state was written. Afterwards, the position of each enemy in the
+     * progress index is the same as when it was written.
+     *
+     * @param in The input to read from.
+     * @throws IOException if the input cannot be read from, or holds an
+     *                     invalid state.
+     */
+    public void readState(ChannelInput in) throws IOException {
+        enemies.clear();
+        int count = in.readInt();
+        if (count < 0 || (count > 0 && path.isEmpty())) {
+            throw new IOException("Invalid enemy count: " + count);
+        }
+        if (useStore && count > 0) {
+            if (store == null) {
+                store = new EnemyStore(path);
+            }
+            store.ensureCapacity(count);
+        }
+        enemies.items.ensureCapacity(count);
+
+        EnemyType[] types = EnemyType.values();
+        IEnemy[] byRank = new IEnemy[count];
+        for (int i = 0; i < count; i++) {
+            int type = in.readByte();
+            int rank = in.readInt();
+            if (type < 0 || type >= types.length || rank < 0 || rank >= count || byRank[rank] != null) {
+                throw new IOException("Invalid enemy: type " + type + ", rank " + rank);
+            }
+            double health = in.readDouble();
+            double maxHealth = in.readDouble();
+            double speed = in.readDouble();
+            double currentSpeed = in.readDouble();
+            double slowAmount = in.readDouble();
+            int slowTicks = in.readInt();
+            int pathIndex = in.readInt();
+            double movementProgress = in.readDouble();
+            // The negated comparisons also reject NaN.
+            if (!(health >= 0 && health <= maxHealth && maxHealth > 0 && speed >= 0) || Double.isInfinite(maxHealth)
+                    || Double.isInfinite(speed) || !Double.isFinite(currentSpeed) || !Double.isFinite(slowAmount)
+                    || !Double.isFinite(movementProgress) || slowTicks < 0) {
+                throw new IOException("Invalid enemy state: health " + health + " of " + maxHealth + ", speed "
+                        + speed);
+            }
+            if (pathIndex < 0 || pathIndex > path.size()) {
+                throw new IOException("Invalid enemy path index: " + pathIndex);
+            }
+            IEnemy enemy;
+            if (useStore) {
+                enemy = store.restore(types[type], health, maxHealth, speed, pathIndex,
+                        movementProgress, slowAmount, slowTicks);
+            } else {
+                Enemy object = types[type].create(path, maxHealth, speed);
+                object.restore(health, pathIndex, movementProgress, currentSpeed, slowAmount, slowTicks);
+                enemy = object;
+            }
+            enemies.items.add(enemy);
+            byRank[rank] = enemy;
+        }
+
+        // Adding the enemies in their saved progress order keeps ties in the
+        // same order, since the index sorts added enemies stably.
+        for (IEnemy enemy : byRank) {
+            progressIndex.add(enemy);
+        }
+        progressIndex.settle();
+    }
+
+    private void track(IEnemy enemy) {
+        progressIndex.add(enemy);
+        if (store != null && !store.holds(enemy)) {
+            unstored.add(enemy);
+        }
+    }
+
+    private void untrack(IEnemy enemy) {
+        progressIndex.remove(enemy);
+        if (store != null) {
+            if (store.holds(enemy)) {
+                store.remove(enemy);
+            } else {
+                // The order of the unstored enemies does not matter, so the
+                // last one takes the place of the removed one.
+                int index = unstored.lastIndexOf(enemy);
+                if (index >= 0) {
+                    unstored.set(index, unstored.get(unstored.size() - 1));
+                    unstored.remove(unstored.size() - 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Untracks many enemies already taken out of the list, in time linear in
+     * the number of enemies rather than once per removed enemy.
+     */
+    private void untrackAll(IEnemy[] removed, int count) {
+        progressIndex.removeAll(removed, count);
+        if (store == null) {
+            return;
+        }
+        boolean unstoredRemoved = false;
+        for (int i = 0; i < count; i++) {
+            if (store.holds(removed[i])) {
+                store.remove(removed[i]);
+            } else {
+                unstoredRemoved = true;
+            }
+        }
+        if (unstoredRemoved) {
+            unstored.clear();
+            for (IEnemy enemy : enemies.items) {
+                if (!store.holds(enemy)) {
+                    unstored.add(enemy);
+                }
+            }
+        }
+    }
+
+    /**
+     * The list of enemies handed out by getEnemies(). Every structural
+     * change is passed on to the progress index and the store.
+     */
+    private final class EnemyList extends AbstractList<IEnemy> implements RandomAccess {
+        private final ArrayList<IEnemy> items = new ArrayList<>();
+        private IEnemy[] removed = new IEnemy[0];
+
+        @Override
+        public IEnemy get(int index) {
+            return items.get(index);
+        }
+
+        @Override
+        public int size() {
+            return items.size();
+        }
+
+        @Override
+        public void add(int index, IEnemy enemy) {
+            items.add(index, enemy);
+            track(enemy);
+            modCount++;
+        }
+
+        @Override
+        public IEnemy set(int index, IEnemy enemy) {
+            IEnemy previous = items.set(index, enemy);
+            untrack(previous);
+            track(enemy);
+            return previous;
+        }
+
+        @Override
+        public IEnemy remove(int index) {
+            IEnemy removed = items.remove(index);
+            untrack(removed);
+            modCount++;
+            return removed;
+        }
+
+        /**
+         * Removes the matching enemies in a single pass over the list
+         * instead of shifting the rest of the list once per removed enemy.
+         * The filter is called exactly once per enemy, in list order. The
+         * removed enemies are collected and dropped from the progress index
+         * and the store together.
+         */
+        @Override
+        public boolean removeIf(Predicate<? super IEnemy> filter) {
+            int size = items.size();
+            int kept = 0;
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                IEnemy enemy = items.get(i);
+                if (filter.test(enemy)) {
+                    if (count == removed.length) {
+                        removed = Arrays.copyOf(removed, Math.max(16, count * 2));
+                    }
+                    removed[count++] = enemy;
+                } else {
+                    items.set(kept++, enemy);
+                }
+            }
+            if (kept == size) {
+                return false;
+            }
+            items.subList(kept, size).clear();
+            untrackAll(removed, count);
+            Arrays.fill(removed, 0, count, null);
+            modCount++;
+            return true;
+        }
+
+        @Override
+        protected void removeRange(int fromIndex, int toIndex) {
+            List<IEnemy> range = items.subList(fromIndex, toIndex);
+            if (range.size() == items.size()) {
+                progressIndex.clear();
+                unstored.clear();
+                if (store != null) {
+                    store.clear();
+                }
+                range.clear();
+            } else {
+                IEnemy[] dropped = range.toArray(new IEnemy[0]);
+                range.clear();
+                untrackAll(dropped, dropped.length);
+            }
+            modCount++;
+        }
+    }
 }
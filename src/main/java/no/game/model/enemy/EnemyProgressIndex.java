@@ -0,0 +1,403 @@
+package no.game.model.enemy;
+
+import no.game.model.PathCoverage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Keeps enemies ordered by how far they have come along the path, that is
+ * by path index and then by movement progress towards the next cell.
+ *
+ * With the enemies in this order, the enemies inside an interval of path
+ * indices form one contiguous run that is found by binary search, and the
+ * last enemy of the run is the one closest to the goal. Targeting the
+ * leading enemy within a tower's {@link PathCoverage} is therefore
+ * O(log n) per covered interval.
+ *
+ * Enemies only move a fraction of a cell per tick and rarely overtake each
+ * other, so the order is repaired with an insertion sort after every move
+ * step, which runs in linear time when few enemies have changed places.
+ * New enemies are held back, sorted and merged in at the next repair, and
+ * removed enemies are only flagged and dropped in the same pass, so that a
+ * wave of spawns or kills does not shift the arrays once per enemy.
+ */
+public class EnemyProgressIndex {
+    private static final Comparator<IEnemy> BY_PROGRESS = Comparator
+            .comparingInt(IEnemy::getPathIndex)
+            .thenComparingDouble(IEnemy::getMovementProgress);
+
+    private IEnemy[] order = new IEnemy[16];
+    private int[] pathKeys = new int[16];
+    private double[] progressKeys = new double[16];
+    private boolean[] removed = new boolean[16];
+    private int size;
+    private int removedCount;
+    private final List<IEnemy> pending = new ArrayList<>();
+    private IEnemy[] rankKeys;
+    private int[] rankValues;
+    private boolean ranksValid;
+    private IEnemy[] droppedKeys = new IEnemy[16];
+
+    /**
+     * Adds an enemy to the index. It is placed in order at the next repair.
+     *
+     * @param enemy the enemy to add
+     */
+    public void add(IEnemy enemy) {
+        pending.add(enemy);
+    }
+
+    /**
+     * Removes an enemy from the index.
+     *
+     * @param enemy the enemy to remove
+     */
+    public void remove(IEnemy enemy) {
+        for (int i = pending.size() - 1; i >= 0; i--) {
+            if (pending.get(i) == enemy) {
+                pending.remove(i);
+                return;
+            }
+        }
+        int slot = locate(enemy);
+        if (slot >= 0 && !removed[slot]) {
+            removed[slot] = true;
+            removedCount++;
+        }
+    }
+
+    /**
+     * Removes many enemies at once. The enemies are put in a hash table and
+     * flagged in one pass over the index, then dropped at the next repair,
+     * so this takes linear time however far the enemies have moved since
+     * the last repair. The table is reused, so nothing is allocated per
+     * enemy.
+     *
+     * @param enemies the array holding the enemies to remove
+     * @param count   the number of enemies to remove, from the start of the
+     *                array
+     */
+    public void removeAll(IEnemy[] enemies, int count) {
+        if (count == 0) {
+            return;
+        }
+        int capacity = Integer.highestOneBit(Math.max(8, count) * 2 - 1) << 1;
+        if (droppedKeys.length < capacity) {
+            droppedKeys = new IEnemy[capacity];
+        }
+        int mask = droppedKeys.length - 1;
+        for (int i = 0; i < count; i++) {
+            int h = hash(enemies[i]) & mask;
+            while (droppedKeys[h] != null && droppedKeys[h] != enemies[i]) {
+                h = (h + 1) & mask;
+            }
+            droppedKeys[h] = enemies[i];
+        }
+
+        for (int i = 0; i < size; i++) {
+            if (!removed[i] && isDropped(order[i])) {
+                removed[i] = true;
+                removedCount++;
+            }
+        }
+        if (!pending.isEmpty()) {
+            int kept = 0;
+            for (int i = 0; i < pending.size(); i++) {
+                IEnemy enemy = pending.get(i);
+                if (!isDropped(enemy)) {
+                    pending.set(kept++, enemy);
+                }
+            }
+            pending.subList(kept, pending.size()).clear();
+        }
+        Arrays.fill(droppedKeys, null);
+    }
+
+    /**
+     * Removes all enemies from the index.
+     */
+    public void clear() {
+        Arrays.fill(order, 0, size, null);
+        Arrays.fill(removed, 0, size, false);
+        size = 0;
+        removedCount = 0;
+        pending.clear();
+        rankKeys = null;
+        rankValues = null;
+        ranksValid = false;
+    }
+
+    /**
+     * Returns the number of enemies in the index.
+     *
+     * @return the number of enemies
+     */
+    public int size() {
+        return size - removedCount + pending.size();
+    }
+
+    /**
+     * Returns the enemy at a position in progress order, where position 0 is
+     * the enemy furthest behind. Settles the index first.
+     *
+     * @param position the position in progress order
+     * @return the enemy at that position
+     * @throws IndexOutOfBoundsException if position is negative or not less
+     *                                   than the size
+     */
+    public IEnemy get(int position) {
+        settle();
+        Objects.checkIndex(position, size);
+        return order[position];
+    }
+
+    /**
+     * Returns the position of an enemy in progress order. The first call
+     * after the order has changed fills a hash table from enemy to position,
+     * so finding the positions of all enemies takes linear time even when
+     * many of them have the same progress. The table is reused, so nothing
+     * is allocated per enemy.
+     *
+     * @param enemy the enemy to look for
+     * @return the position of the enemy, or -1 if it is not in the index
+     */
+    public int rankOf(IEnemy enemy) {
+        settle();
+        if (!ranksValid) {
+            buildRanks();
+        }
+        int mask = rankKeys.length - 1;
+        for (int h = hash(enemy) & mask; rankKeys[h] != null; h = (h + 1) & mask) {
+            if (rankKeys[h] == enemy) {
+                return rankValues[h];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Brings the order up to date after enemies have moved, been added or been
+     * removed. Runs in linear time plus the number of pairs of enemies that
+     * have changed places, plus the time to sort the added enemies.
+     */
+    public void reorder() {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (removed[i]) {
+                removed[i] = false;
+                continue;
+            }
+            IEnemy enemy = order[i];
+            order[count] = enemy;
+            pathKeys[count] = enemy.getPathIndex();
+            progressKeys[count] = enemy.getMovementProgress();
+            count++;
+        }
+        Arrays.fill(order, count, size, null);
+        size = count;
+        removedCount = 0;
+
+        for (int i = 1; i < size; i++) {
+            IEnemy enemy = order[i];
+            int pathKey = pathKeys[i];
+            double progressKey = progressKeys[i];
+            int j = i - 1;
+            while (j >= 0 && compare(pathKeys[j], progressKeys[j], pathKey, progressKey) > 0) {
+                order[j + 1] = order[j];
+                pathKeys[j + 1] = pathKeys[j];
+                progressKeys[j + 1] = progressKeys[j];
+                j--;
+            }
+            order[j + 1] = enemy;
+            pathKeys[j + 1] = pathKey;
+            progressKeys[j + 1] = progressKey;
+        }
+
+        if (!pending.isEmpty()) {
+            mergePending();
+        }
+        ranksValid = false;
+    }
+
+    /**
+     * Finds the enemy furthest along the path among those whose path index is
+     * covered.
+     *
+     * @param coverage the covered path indices
+     * @return the leading covered enemy, or null if there is none
+     */
+    public IEnemy findLeading(PathCoverage coverage) {
+        settle();
+        for (int interval = coverage.intervalCount() - 1; interval >= 0; interval--) {
+            int last = upperBound(coverage.end(interval)) - 1;
+            if (last >= 0 && pathKeys[last] >= coverage.start(interval)) {
+                return order[last];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds every enemy whose path index is covered to a list, starting with
+     * the enemy furthest along the path.
+     *
+     * @param coverage the covered path indices
+     * @param out      the list to add the enemies to
+     */
+    public void collect(PathCoverage coverage, List<IEnemy> out) {
+        settle();
+        for (int interval = coverage.intervalCount() - 1; interval >= 0; interval--) {
+            int first = upperBound(coverage.start(interval) - 1);
+            for (int i = upperBound(coverage.end(interval)) - 1; i >= first; i--) {
+                out.add(order[i]);
+            }
+        }
+    }
+
+    /**
+     * Puts pending enemies in place and drops removed ones. Queries do this
+     * themselves; calling it first lets several threads query the index at
+     * once, as long as no enemy is added, removed or moved meanwhile.
+     */
+    public void settle() {
+        if (removedCount > 0 || !pending.isEmpty()) {
+            reorder();
+        }
+    }
+
+    /**
+     * Returns the first position whose path index is greater than the given
+     * one.
+     */
+    private int upperBound(int pathIndex) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (pathKeys[mid] <= pathIndex) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the position of an enemy by binary search on its current key,
+     * falling back to a linear search if it has been moved out of order.
+     */
+    private int locate(IEnemy enemy) {
+        int pathKey = enemy.getPathIndex();
+        double progressKey = enemy.getMovementProgress();
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(pathKeys[mid], progressKeys[mid], pathKey, progressKey) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        for (int i = low; i < size && pathKeys[i] == pathKey && progressKeys[i] == progressKey; i++) {
+            if (order[i] == enemy) {
+                return i;
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if (order[i] == enemy) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Sorts the pending enemies and merges them into the ordered arrays,
+     * filling from the back so that no extra copy of the arrays is needed.
+     */
+    private void mergePending() {
+        pending.sort(BY_PROGRESS);
+        int newSize = size + pending.size();
+        if (order.length < newSize) {
+            int capacity = Math.max(newSize, order.length * 2);
+            order = Arrays.copyOf(order, capacity);
+            pathKeys = Arrays.copyOf(pathKeys, capacity);
+            progressKeys = Arrays.copyOf(progressKeys, capacity);
+            removed = new boolean[capacity];
+        }
+
+        int i = size - 1;
+        int p = pending.size() - 1;
+        for (int target = newSize - 1; p >= 0; target--) {
+            IEnemy enemy = pending.get(p);
+            int pathKey = enemy.getPathIndex();
+            double progressKey = enemy.getMovementProgress();
+            // On ties the added enemy goes after the ones already indexed.
+            if (i >= 0 && compare(pathKeys[i], progressKeys[i], pathKey, progressKey) > 0) {
+                order[target] = order[i];
+                pathKeys[target] = pathKeys[i];
+                progressKeys[target] = progressKeys[i];
+                i--;
+            } else {
+                order[target] = enemy;
+                pathKeys[target] = pathKey;
+                progressKeys[target] = progressKey;
+                p--;
+            }
+        }
+        size = newSize;
+        pending.clear();
+    }
+
+    /**
+     * Fills the open addressing table used by rankOf, keyed by identity and
+     * at most half full.
+     */
+    private void buildRanks() {
+        int capacity = Integer.highestOneBit(Math.max(8, size) * 2 - 1) << 1;
+        if (rankKeys == null || rankKeys.length < capacity) {
+            rankKeys = new IEnemy[capacity];
+            rankValues = new int[capacity];
+        } else {
+            Arrays.fill(rankKeys, null);
+        }
+        int mask = rankKeys.length - 1;
+        for (int i = 0; i < size; i++) {
+            int h = hash(order[i]) & mask;
+            while (rankKeys[h] != null) {
+                h = (h + 1) & mask;
+            }
+            rankKeys[h] = order[i];
+            rankValues[h] = i;
+        }
+        ranksValid = true;
+    }
+
+    private boolean isDropped(IEnemy enemy) {
+        int mask = droppedKeys.length - 1;
+        for (int h = hash(enemy) & mask; droppedKeys[h] != null; h = (h + 1) & mask) {
+            if (droppedKeys[h] == enemy) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int hash(IEnemy enemy) {
+        int h = System.identityHashCode(enemy);
+        return h ^ (h >>> 16);
+    }
+
+    private static int compare(int pathA, double progressA, int pathB, double progressB) {
+        if (pathA != pathB) {
+            return Integer.compare(pathA, pathB);
+        }
+        return Double.compare(progressA, progressB);
+    }
+}
@@ -0,0 +1,401 @@
+package no.game.model.enemy;
+
+import no.grid.CellPosition;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Stores the state of many enemies in parallel primitive arrays, one slot
+ * per enemy, instead of as one object per enemy.
+ *
+ * Moving all enemies is then a loop over a handful of arrays without any
+ * interface calls or pointer chasing. Only what cannot be derived is kept:
+ * the current speed follows from the base speed and the slow, and the path
+ * index equals the index of the cell the enemy stands on until it steps
+ * past the end of the path, which is kept as a flag. A stored enemy,
+ * including its view, takes a little less heap than an {@link Enemy}
+ * object.
+ *
+ * Each stored enemy is handed out as a small {@link IEnemy} view that holds
+ * only the store and the slot, so the rest of the game, the UI and the
+ * tests work on stored enemies like on any other enemy. Slots are reused:
+ * removing an enemy moves the last enemy into its slot. The view of a
+ * removed enemy is detached into an {@link Enemy} object holding a copy of
+ * its state, so that for example a projectile still flying towards it keeps
+ * working. Only removed enemies pay for that copy.
+ *
+ * The movement rules are the same as in {@link Enemy}.
+ */
+public class EnemyStore {
+    private static final EnemyType[] TYPES = EnemyType.values();
+
+    private final List<CellPosition> pathList;
+    private final CellPosition[] path;
+    private int size;
+    private View[] views;
+    private byte[] type;
+    private double[] health;
+    private double[] maxHealth;
+    private double[] speed;
+    private double[] movementProgress;
+    private int[] positionIndex;
+    private boolean[] pastEnd;
+    private double[] slowAmount;
+    private int[] slowTicks;
+
+    /**
+     * Constructs an empty store for enemies following the given path.
+     *
+     * @param path The list of CellPosition waypoints the enemies follow.
+     *             Must not be null or empty.
+     * @throws IllegalArgumentException if path is null or empty.
+     */
+    public EnemyStore(List<CellPosition> path) {
+        if (path == null || path.isEmpty()) {
+            throw new IllegalArgumentException("Path cannot be null or empty.");
+        }
+        this.pathList = path;
+        this.path = path.toArray(new CellPosition[0]);
+        allocate(16);
+    }
+
+    private void allocate(int capacity) {
+        views = new View[capacity];
+        type = new byte[capacity];
+        health = new double[capacity];
+        maxHealth = new double[capacity];
+        speed = new double[capacity];
+        movementProgress = new double[capacity];
+        positionIndex = new int[capacity];
+        pastEnd = new boolean[capacity];
+        slowAmount = new double[capacity];
+        slowTicks = new int[capacity];
+    }
+
+    /**
+     * Adds a new enemy at the start of the path.
+     *
+     * @param enemyType The type of the enemy.
+     * @param health    The initial and maximum health of the enemy. Must be
+     *                  positive.
+     * @param speed     The base speed of the enemy. Must be non-negative.
+     * @return The view of the new enemy.
+     * @throws IllegalArgumentException if health <= 0 or speed < 0.
+     */
+    public IEnemy add(EnemyType enemyType, double health, double speed) {
+        if (health <= 0) {
+            throw new IllegalArgumentException("Health must be positive.");
+        }
+        if (speed < 0) {
+            throw new IllegalArgumentException("Speed cannot be negative.");
+        }
+        if (size == views.length) {
+            grow(size * 2);
+        }
+        int slot = size++;
+        View view = new View(this, slot);
+        views[slot] = view;
+        type[slot] = (byte) enemyType.ordinal();
+        this.health[slot] = health;
+        maxHealth[slot] = health;
+        this.speed[slot] = speed;
+        movementProgress[slot] = 0.0;
+        positionIndex[slot] = 0;
+        pastEnd[slot] = false;
+        slowAmount[slot] = 0.0;
+        slowTicks[slot] = 0;
+        return view;
+    }
+
+    /**
+     * Grows the arrays, if needed, to hold the given number of enemies
+     * without growing again.
+     */
+    void ensureCapacity(int capacity) {
+        if (capacity > views.length) {
+            grow(capacity);
+        }
+    }
+
+    /**
+     * Adds an enemy in a saved state, as written by EnemyManager. The current
+     * speed is not needed, as it follows from the speed and the slow.
+     */
+    IEnemy restore(EnemyType enemyType, double health, double maxHealth, double speed,
+            int pathIndex, double movementProgress, double slowAmount, int slowTicks) {
+        View view = (View) add(enemyType, maxHealth, speed);
+        int slot = view.slot;
+        this.health[slot] = health;
+        this.movementProgress[slot] = movementProgress;
+        positionIndex[slot] = Math.min(pathIndex, path.length - 1);
+        pastEnd[slot] = pathIndex >= path.length;
+        this.slowAmount[slot] = slowAmount;
+        this.slowTicks[slot] = slowTicks;
+        return view;
+    }
+
+    /**
+     * Checks whether an enemy is a view of an enemy in any store, including
+     * a detached one.
+     */
+    static boolean isView(IEnemy enemy) {
+        return enemy instanceof View;
+    }
+
+    /**
+     * Returns the current speed of the enemy behind a view.
+     */
+    static double currentSpeedOf(IEnemy view) {
+        View v = (View) view;
+        return v.detached != null ? v.detached.getCurrentSpeed() : v.store.currentSpeed(v.slot);
+    }
+
+    /**
+     * Returns the slow amount of the enemy behind a view.
+     */
+    static double slowAmountOf(IEnemy view) {
+        View v = (View) view;
+        return v.detached != null ? v.detached.getSlowAmount() : v.store.slowAmount[v.slot];
+    }
+
+    /**
+     * Returns the remaining slow ticks of the enemy behind a view.
+     */
+    static int slowTicksOf(IEnemy view) {
+        View v = (View) view;
+        return v.detached != null ? v.detached.getSlowTicksRemaining() : v.store.slowTicks[v.slot];
+    }
+
+    /**
+     * Checks whether an enemy is a view of an enemy in this store.
+     *
+     * @param enemy The enemy to check.
+     * @return true if the enemy is stored here, otherwise false.
+     */
+    public boolean holds(IEnemy enemy) {
+        return enemy instanceof View view && view.store == this && view.detached == null;
+    }
+
+    /**
+     * Removes an enemy from the store and detaches its view. Enemies that
+     * are not stored here are ignored.
+     *
+     * @param enemy The view of the enemy to remove.
+     */
+    public void remove(IEnemy enemy) {
+        if (!holds(enemy)) {
+            return;
+        }
+        View view = (View) enemy;
+        int slot = view.slot;
+        view.detach();
+
+        int last = --size;
+        if (slot != last) {
+            copySlot(last, slot);
+            views[slot].slot = slot;
+        }
+        views[last] = null;
+    }
+
+    /**
+     * Removes all enemies from the store and detaches their views.
+     */
+    public void clear() {
+        for (int slot = 0; slot < size; slot++) {
+            views[slot].detach();
+            views[slot] = null;
+        }
+        size = 0;
+    }
+
+    /**
+     * Returns the number of enemies in the store.
+     *
+     * @return The number of enemies.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Moves every stored enemy along the path, as {@link Enemy#move()} does
+     * for a single enemy.
+     */
+    public void moveAll() {
+        for (int slot = 0; slot < size; slot++) {
+            move(slot);
+        }
+    }
+
+    private void move(int slot) {
+        int end = path.length;
+        int index = pathIndex(slot);
+        if (index + 1 < end) {
+            double progress = movementProgress[slot] + currentSpeed(slot);
+            while (progress >= 1.0) {
+                progress -= 1.0;
+                index++;
+                if (index >= end)
+                    break;
+            }
+            movementProgress[slot] = progress;
+            if (index < end) {
+                positionIndex[slot] = index;
+            } else {
+                pastEnd[slot] = true;
+            }
+        }
+
+        if (slowTicks[slot] > 0) {
+            slowTicks[slot]--;
+            if (slowTicks[slot] <= 0) {
+                slowAmount[slot] = 0;
+            }
+        }
+    }
+
+    private int pathIndex(int slot) {
+        return pastEnd[slot] ? path.length : positionIndex[slot];
+    }
+
+    // The same value Enemy keeps: speed * (1 - amount) while slowed, and
+    // exactly the speed once the slow has run out and the amount is 0.
+    private double currentSpeed(int slot) {
+        return speed[slot] * (1 - slowAmount[slot]);
+    }
+
+    private void grow(int capacity) {
+        views = Arrays.copyOf(views, capacity);
+        type = Arrays.copyOf(type, capacity);
+        health = Arrays.copyOf(health, capacity);
+        maxHealth = Arrays.copyOf(maxHealth, capacity);
+        speed = Arrays.copyOf(speed, capacity);
+        movementProgress = Arrays.copyOf(movementProgress, capacity);
+        positionIndex = Arrays.copyOf(positionIndex, capacity);
+        pastEnd = Arrays.copyOf(pastEnd, capacity);
+        slowAmount = Arrays.copyOf(slowAmount, capacity);
+        slowTicks = Arrays.copyOf(slowTicks, capacity);
+    }
+
+    private void copySlot(int from, int to) {
+        views[to] = views[from];
+        type[to] = type[from];
+        health[to] = health[from];
+        maxHealth[to] = maxHealth[from];
+        speed[to] = speed[from];
+        movementProgress[to] = movementProgress[from];
+        positionIndex[to] = positionIndex[from];
+        pastEnd[to] = pastEnd[from];
+        slowAmount[to] = slowAmount[from];
+        slowTicks[to] = slowTicks[from];
+    }
+
+    /**
+     * The IEnemy view of one stored enemy: just the store and the slot while
+     * the enemy is stored, and an Enemy object with its state once removed.
+     */
+    private static final class View implements IEnemy {
+        private final EnemyStore store;
+        private int slot;
+        private Enemy detached;
+
+        private View(EnemyStore store, int slot) {
+            this.store = store;
+            this.slot = slot;
+        }
+
+        /**
+         * Copies the enemy's state out of the store into an Enemy of its
+         * own, so the view stays valid after the slot is reused.
+         */
+        private void detach() {
+            Enemy copy = TYPES[store.type[slot]].create(store.pathList, store.maxHealth[slot], store.speed[slot]);
+            copy.restore(store.health[slot], store.pathIndex(slot), store.movementProgress[slot],
+                    store.currentSpeed(slot), store.slowAmount[slot], store.slowTicks[slot],
+                    store.positionIndex[slot]);
+            detached = copy;
+            slot = -1;
+        }
+
+        @Override
+        public void move() {
+            if (detached != null) {
+                detached.move();
+            } else {
+                store.move(slot);
+            }
+        }
+
+        @Override
+        public boolean isDead() {
+            return detached != null ? detached.isDead() : store.health[slot] <= 0;
+        }
+
+        @Override
+        public boolean isAtEnd() {
+            return detached != null ? detached.isAtEnd() : store.pathIndex(slot) >= store.path.length - 1;
+        }
+
+        @Override
+        public void takeDamage(double dmg) {
+            if (detached != null) {
+                detached.takeDamage(dmg);
+            } else if (getHealth() >= 0) {
+                store.health[slot] -= dmg;
+            }
+        }
+
+        @Override
+        public double getHealth() {
+            if (detached != null) {
+                return detached.getHealth();
+            }
+            if (store.health[slot] < 0) {
+                store.health[slot] = 0;
+            }
+            return store.health[slot];
+        }
+
+        @Override
+        public double getMaxHealth() {
+            return detached != null ? detached.getMaxHealth() : store.maxHealth[slot];
+        }
+
+        @Override
+        public CellPosition getPosition() {
+            return detached != null ? detached.getPosition() : store.path[store.positionIndex[slot]];
+        }
+
+        @Override
+        public int getPathIndex() {
+            return detached != null ? detached.getPathIndex() : store.pathIndex(slot);
+        }
+
+        @Override
+        public double getMovementProgress() {
+            return detached != null ? detached.getMovementProgress() : store.movementProgress[slot];
+        }
+
+        @Override
+        public EnemyType getType() {
+            return detached != null ? detached.getType() : TYPES[store.type[slot]];
+        }
+
+        @Override
+        public double getSpeed() {
+            return detached != null ? detached.getSpeed() : store.speed[slot];
+        }
+
+        @Override
+        public void applySlow(double amount, int durationTicks) {
+            if (detached != null) {
+                detached.applySlow(amount, durationTicks);
+            } else if (amount > store.slowAmount[slot] || store.slowTicks[slot] <= 0) {
+                store.slowAmount[slot] = amount;
+                store.slowTicks[slot] = durationTicks;
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package no.game.model.enemy;
+
+import no.grid.CellPosition;
+
+import java.util.List;
+
+/**
+ * EnemyType is an enumeration of the different kinds of enemies in the game.
+ * The type decides how an enemy is drawn; health and speed are given per
+ * enemy when it is spawned.
+ */
+public enum EnemyType {
+    /**
+     * Represents a basic enemy with no special behavior.
+     */
+    BASIC,
+
+    /**
+     * Represents a circle enemy with higher health but lower speed.
+     */
+    CIRCLE,
+
+    /**
+     * Represents a triangle enemy with higher speed but lower health.
+     */
+    TRIANGLE;
+
+    /**
+     * Creates a standalone enemy object of this type.
+     *
+     * @param path   The path for the enemy to follow.
+     * @param health The initial and maximum health of the enemy.
+     * @param speed  The movement speed of the enemy.
+     * @return The new enemy.
+     */
+    public Enemy create(List<CellPosition> path, double health, double speed) {
+        return switch (this) {
+            case BASIC -> new BasicEnemy(path, health, speed);
+            case CIRCLE -> new CircleEnemy(path, health, speed);
+            case TRIANGLE -> new TriangleEnemy(path, health, speed);
+        };
+    }
+}
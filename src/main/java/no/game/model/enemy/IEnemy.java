@@ -58,6 +58,29 @@ public interface IEnemy {
      */
     CellPosition getPosition();
 
+    /**
+     * Gets the index of the enemy's current position along its path.
+     *
+     * @return The path index, 0 at the start of the path.
+     */
+    int getPathIndex();
+
+    /**
+     * Gets how far the enemy has moved from its current path position
+     * towards the next one.
+     *
+     * @return The fraction of the step to the next path position, from 0.0
+     *         inclusive to 1.0 exclusive.
+     */
+    double getMovementProgress();
+
+    /**
+     * Returns the type of the enemy.
+     *
+     * @return The EnemyType of the enemy.
+     */
+    EnemyType getType();
+
     /**
      * Returns the enemy's current speed.
      *
@@ -19,4 +19,9 @@ public class TriangleEnemy extends Enemy {
     public TriangleEnemy(List<CellPosition> path, double health, double speed) {
         super(path, health, speed);
     }
+
+    @Override
+    public EnemyType getType() {
+        return EnemyType.TRIANGLE;
+    }
 }
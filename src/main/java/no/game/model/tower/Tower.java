@@ -1,7 +1,11 @@
 package no.game.model.tower;
 
+import no.game.model.MapDefinition;
+import no.game.model.PathCoverage;
 import no.grid.CellPosition;
 
+import java.util.List;
+
 /**
  * Abstract class representing a generic tower.
  * Handles cooldown logic and provides basic tower properties.
@@ -15,6 +19,9 @@ public abstract class Tower implements ITower {
     protected int cost;
     private int level = 1;
     private int upgradeCost = 50;
+    private List<CellPosition> coveredPath;
+    private MapDefinition coveredMap;
+    private PathCoverage coverage = PathCoverage.EMPTY;
 
     /**
      * Constructs a new {@code Tower}.
@@ -41,11 +48,55 @@ public abstract class Tower implements ITower {
             this.damage += 5;
             this.range += 1;
             this.upgradeCost *= 2;
+            updateCoverage();
             return true;
         }
         return false;
     }
 
+    /**
+     * Computes which part of the given path is within range of the tower.
+     * The coverage is kept up to date when the tower is upgraded.
+     *
+     * @param path The path the enemies follow.
+     */
+    public void coverPath(List<CellPosition> path) {
+        this.coveredPath = path;
+        this.coveredMap = null;
+        updateCoverage();
+    }
+
+    /**
+     * Computes which part of the path of a map is within range of the
+     * tower, using the lookup tables of the map. The coverage is kept up to
+     * date when the tower is upgraded.
+     *
+     * @param map The map whose path the enemies follow.
+     */
+    public void coverPath(MapDefinition map) {
+        this.coveredPath = null;
+        this.coveredMap = map;
+        updateCoverage();
+    }
+
+    /**
+     * Returns the part of the enemy path within range of the tower.
+     *
+     * @return The path coverage, empty until {@link #coverPath(List)} has
+     *         been called.
+     */
+    public PathCoverage getCoverage() {
+        return coverage;
+    }
+
+    private void updateCoverage() {
+        if (coveredMap != null) {
+            coverage = PathCoverage.compute(position, range, coveredMap);
+        } else if (coveredPath != null) {
+            coverage = PathCoverage.compute(position, range, coveredPath);
+        }
+    }
+
     /**
      * Returns the position of the tower.
      *
@@ -72,6 +123,25 @@ public abstract class Tower implements ITower {
         }
     }
 
+    /**
+     * Returns the number of ticks until the tower can shoot again.
+     *
+     * @return The remaining cooldown in ticks.
+     */
+    public int getCooldownRemaining() {
+        return cooldownRemaining;
+    }
+
+    /**
+     * Sets the number of ticks until the tower can shoot again, for example
+     * when a saved game is restored.
+     *
+     * @param cooldownRemaining The remaining cooldown in ticks.
+     */
+    public void setCooldownRemaining(int cooldownRemaining) {
+        this.cooldownRemaining = cooldownRemaining;
+    }
+
     @Override
     public int getRange() {
         return range;
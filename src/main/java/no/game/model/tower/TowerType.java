@@ -52,4 +52,20 @@ public enum TowerType {
             case AOE -> AoeTower.class;
         };
     }
+
+    /**
+     * Returns the type of a tower.
+     *
+     * @param tower the tower
+     * @return the type whose tower class is the class of the tower
+     * @throws IllegalArgumentException if the tower is of no known type
+     */
+    public static TowerType of(Tower tower) {
+        for (TowerType type : values()) {
+            if (type.getTowerClass() == tower.getClass()) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown tower class: " + tower.getClass());
+    }
 }
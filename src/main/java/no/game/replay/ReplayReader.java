@@ -0,0 +1,269 @@
+package no.game.replay;
+
+import no.game.model.GameModel;
+import no.game.model.GameState;
+import no.game.model.MapType;
+import no.game.model.tower.TowerType;
+import no.game.save.ChannelInput;
+import no.game.save.SaveGame;
+import no.grid.CellPosition;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plays back a replay written by {@link ReplayWriter}.
+ *
+ * The reader scans the replay once when it is opened, keeping the player
+ * actions and the file offsets of the keyframes, but not the keyframes
+ * themselves. Seeking to a tick then loads the last keyframe at or before
+ * that tick and simulates the rest of the way at headless speed, applying
+ * the recorded actions at their ticks. Seeking therefore costs at most one
+ * keyframe interval of simulation, however long the replay is.
+ *
+ * A replay whose recording was cut short, without its end record, plays up
+ * to its last complete record.
+ */
+public class ReplayReader implements AutoCloseable {
+
+    private final SeekableByteChannel channel;
+    private final double tickDelta;
+    private final List<Action> actions = new ArrayList<>();
+    private final List<Keyframe> keyframes = new ArrayList<>();
+    private long endTick;
+
+    /**
+     * Opens a replay and scans its records.
+     *
+     * @param channel the channel to read the replay from, closed with the
+     *                reader
+     * @throws IllegalArgumentException if channel is null
+     * @throws IOException              if the channel cannot be read from, or
+     *                                  does not hold a valid replay
+     */
+    public ReplayReader(SeekableByteChannel channel) throws IOException {
+        if (channel == null) {
+            throw new IllegalArgumentException("Channel cannot be null.");
+        }
+        this.channel = channel;
+        channel.position(0);
+        ChannelInput in = new ChannelInput(channel);
+        if (in.readInt() != ReplayWriter.MAGIC) {
+            throw new IOException("Not a replay.");
+        }
+        int version = in.readInt();
+        if (version != ReplayWriter.VERSION) {
+            throw new IOException("Unsupported replay version: " + version);
+        }
+        int stateVersion = in.readInt();
+        if (stateVersion != SaveGame.VERSION) {
+            throw new IOException("Unsupported state version: " + stateVersion);
+        }
+        in.readInt();
+        this.tickDelta = in.readDouble();
+
+        // A recording cut short, say by a crash, ends without END and maybe
+        // in the middle of a record. It is read up to its last whole record.
+        try {
+            while (!in.atEnd()) {
+                byte kind = in.readByte();
+                long tick = in.readLong();
+                switch (kind) {
+                    case ReplayWriter.MAP -> actions.add(new Action(kind, tick,
+                            checkType(in.readByte(), MapType.values().length), 0, 0));
+                    case ReplayWriter.PLACE -> actions.add(new Action(kind, tick,
+                            checkType(in.readByte(), TowerType.values().length), in.readInt(), in.readInt()));
+                    case ReplayWriter.SELL, ReplayWriter.UPGRADE -> actions.add(new Action(kind, tick, 0,
+                            in.readInt(), in.readInt()));
+                    case ReplayWriter.START, ReplayWriter.PAUSE -> actions.add(new Action(kind, tick, 0, 0, 0));
+                    case ReplayWriter.KEYFRAME -> {
+                        int length = in.readInt();
+                        long offset = in.position();
+                        in.skip(length);
+                        keyframes.add(new Keyframe(tick, offset, actions.size()));
+                    }
+                    case ReplayWriter.END -> {
+                    }
+                    default -> throw new IOException("Unknown replay record: " + kind);
+                }
+                endTick = Math.max(endTick, tick);
+            }
+        } catch (EOFException e) {
+            // The partial record is left out.
+        }
+        if (keyframes.isEmpty()) {
+            throw new IOException("Replay has no keyframe.");
+        }
+    }
+
+    /**
+     * Returns the tick the recording started at.
+     *
+     * @return the tick of the first keyframe
+     */
+    public long getStartTick() {
+        return keyframes.get(0).tick();
+    }
+
+    /**
+     * Returns the last tick the recording reached.
+     *
+     * @return the tick of the last complete record
+     */
+    public long getEndTick() {
+        return endTick;
+    }
+
+    /**
+     * Returns the number of keyframes in the replay.
+     *
+     * @return the number of keyframes
+     */
+    public int getKeyframeCount() {
+        return keyframes.size();
+    }
+
+    /**
+     * Returns the number of player actions in the replay.
+     *
+     * @return the number of actions
+     */
+    public int getActionCount() {
+        return actions.size();
+    }
+
+    /**
+     * Plays the whole replay.
+     *
+     * @return the game as it was when the recording ended
+     * @throws IOException if the replay cannot be read
+     */
+    public GameModel play() throws IOException {
+        return seek(endTick);
+    }
+
+    /**
+     * Restores the game as it was at the end of the given tick, before any
+     * action the player took at that tick.
+     *
+     * @param tick the tick to seek to
+     * @return a new model in the state of the recorded game at that tick
+     * @throws IllegalArgumentException if tick is before the start or after
+     *                                  the end of the recording
+     * @throws IOException              if the replay cannot be read
+     */
+    public GameModel seek(long tick) throws IOException {
+        return seek(tick, false);
+    }
+
+    /**
+     * Restores the game as it was at the end of the given tick, before any
+     * action the player took at that tick.
+     *
+     * @param tick          the tick to seek to
+     * @param useEnemyStore whether the model keeps its enemies in an
+     *                      EnemyStore
+     * @return a new model in the state of the recorded game at that tick
+     * @throws IllegalArgumentException if tick is before the start or after
+     *                                  the end of the recording
+     * @throws IOException              if the replay cannot be read
+     */
+    public GameModel seek(long tick, boolean useEnemyStore) throws IOException {
+        if (tick > endTick) {
+            throw new IllegalArgumentException("Tick " + tick + " is after the end of the replay.");
+        }
+        Keyframe keyframe = keyframeAt(tick);
+        channel.position(keyframe.offset());
+        GameModel model = GameModel.readState(new ChannelInput(channel), useEnemyStore);
+
+        for (int i = keyframe.nextAction(); i < actions.size(); i++) {
+            Action action = actions.get(i);
+            if (action.tick() >= tick) {
+                break;
+            }
+            advance(model, action.tick());
+            apply(model, action);
+        }
+        advance(model, tick);
+        return model;
+    }
+
+    /**
+     * Closes the channel.
+     *
+     * @throws IOException if the channel cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Finds the last keyframe at or before a tick by binary search.
+     */
+    private Keyframe keyframeAt(long tick) {
+        int low = 0;
+        int high = keyframes.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keyframes.get(mid).tick() <= tick) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        if (low == 0) {
+            throw new IllegalArgumentException("Tick " + tick + " is before the start of the replay.");
+        }
+        return keyframes.get(low - 1);
+    }
+
+    private static int checkType(int type, int count) throws IOException {
+        if (type < 0 || type >= count) {
+            throw new IOException("Invalid type in replay: " + type);
+        }
+        return type;
+    }
+
+    /**
+     * Updates the model until it reaches a tick. Stops early if the game is
+     * not active, since only active games count ticks.
+     */
+    private void advance(GameModel model, long tick) {
+        while (model.getTick() < tick && model.getGameState() == GameState.ACTIVE_GAME) {
+            model.update(tickDelta);
+        }
+    }
+
+    private static void apply(GameModel model, Action action) {
+        switch (action.kind()) {
+            case ReplayWriter.MAP -> model.setMap(MapType.values()[action.type()]);
+            case ReplayWriter.PLACE -> model.placeTower(action.position(), TowerType.values()[action.type()]);
+            case ReplayWriter.SELL -> model.sellTower(action.position());
+            case ReplayWriter.UPGRADE -> model.upgradeTower(action.position());
+            case ReplayWriter.START -> model.setGameState();
+            case ReplayWriter.PAUSE -> model.pauseGameState();
+            default -> throw new IllegalStateException("Not an action: " + action.kind());
+        }
+    }
+
+    /**
+     * A recorded player action. The type is the ordinal of the map or tower
+     * type, where the action has one.
+     */
+    private record Action(byte kind, long tick, int type, int row, int col) {
+        private CellPosition position() {
+            return new CellPosition(row, col);
+        }
+    }
+
+    /**
+     * A keyframe: its tick, the offset of its state in the replay and the
+     * index of the first action recorded after it.
+     */
+    private record Keyframe(long tick, long offset, int nextAction) {
+    }
+}
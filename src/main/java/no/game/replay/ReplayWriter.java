@@ -0,0 +1,256 @@
+package no.game.replay;
+
+import no.game.controller.GameLoop;
+import no.game.model.GameModel;
+import no.game.model.GameRecorder;
+import no.game.model.MapType;
+import no.game.model.tower.TowerType;
+import no.game.save.ChannelOutput;
+import no.game.save.SaveGame;
+import no.grid.CellPosition;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Records a game to a compact binary replay that {@link ReplayReader} can
+ * play back and seek in.
+ *
+ * A replay starts with a header and a keyframe, a full state of the game
+ * as written by {@link GameModel#writeState(ChannelOutput)} in the layout
+ * of {@link SaveGame#VERSION}. After that it holds one small record per
+ * player action, stamped with the tick it happened at, and another keyframe
+ * every few ticks. Since a game is fully
+ * determined by its state and the player's actions, this is enough to
+ * reproduce every tick of it, and the keyframes let a reader jump close to
+ * any tick instead of simulating from the start.
+ *
+ * The layout is:
+ *
+ * <pre>
+ * header:   int MAGIC, int VERSION, int state version, int keyframe interval,
+ *           double tick delta
+ * record:   byte kind, long tick, payload
+ *   MAP      byte map type
+ *   PLACE    byte tower type, int row, int col
+ *   SELL     int row, int col
+ *   UPGRADE  int row, int col
+ *   START    -
+ *   PAUSE    -
+ *   KEYFRAME int length, length bytes of game state
+ *   END      -
+ * </pre>
+ *
+ * A keyframe at tick t is taken at the end of tick t, before any action
+ * the player takes at tick t.
+ *
+ * Every record is flushed to the channel as soon as it is written, so a
+ * recording that is cut short loses at most the record being written.
+ * Player actions are rare enough for this to cost nothing noticeable.
+ */
+public class ReplayWriter implements GameRecorder, AutoCloseable {
+
+    /** The first four bytes of every replay, "TDRP". */
+    public static final int MAGIC = 0x54445250;
+
+    /**
+     * The version of the replay format written by this class. Version 2 added
+     * the state version to the header and the progress rank of every enemy
+     * to the keyframes.
+     */
+    public static final int VERSION = 2;
+
+    /** The default number of ticks between keyframes. */
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 1000;
+
+    static final byte MAP = 1;
+    static final byte PLACE = 2;
+    static final byte SELL = 3;
+    static final byte UPGRADE = 4;
+    static final byte START = 5;
+    static final byte PAUSE = 6;
+    static final byte KEYFRAME = 7;
+    static final byte END = 8;
+
+    private final WritableByteChannel channel;
+    private final ChannelOutput out;
+    private final GameModel model;
+    private final int keyframeInterval;
+    private final Scratch scratch = new Scratch();
+    private final ChannelOutput scratchOut = new ChannelOutput(Channels.newChannel(scratch));
+    private boolean closed;
+
+    /**
+     * Starts recording a game with {@link #DEFAULT_KEYFRAME_INTERVAL}.
+     *
+     * @param channel the channel to write the replay to, closed with the
+     *                writer
+     * @param model   the game to record
+     * @throws IOException if the channel cannot be written to
+     */
+    public ReplayWriter(WritableByteChannel channel, GameModel model) throws IOException {
+        this(channel, model, DEFAULT_KEYFRAME_INTERVAL);
+    }
+
+    /**
+     * Starts recording a game. Writes the header and a keyframe of the
+     * current state, and sets the writer as the recorder of the model.
+     *
+     * @param channel          the channel to write the replay to, closed with
+     *                         the writer
+     * @param model            the game to record
+     * @param keyframeInterval the number of ticks between keyframes
+     * @throws IllegalArgumentException if channel or model is null, or
+     *                                  keyframeInterval is not positive
+     * @throws IOException              if the channel cannot be written to
+     */
+    public ReplayWriter(WritableByteChannel channel, GameModel model, int keyframeInterval) throws IOException {
+        if (model == null) {
+            throw new IllegalArgumentException("Model cannot be null.");
+        }
+        if (keyframeInterval <= 0) {
+            throw new IllegalArgumentException("Keyframe interval must be positive.");
+        }
+        this.channel = channel;
+        this.out = new ChannelOutput(channel);
+        this.model = model;
+        this.keyframeInterval = keyframeInterval;
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(SaveGame.VERSION);
+        out.writeInt(keyframeInterval);
+        out.writeDouble(GameLoop.TICK_DELTA);
+        writeKeyframe(model);
+        model.setRecorder(this);
+    }
+
+    @Override
+    public void mapChosen(long tick, MapType mapType) {
+        try {
+            out.writeByte(MAP);
+            out.writeLong(tick);
+            out.writeByte(mapType.ordinal());
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void towerPlaced(long tick, CellPosition position, TowerType type) {
+        try {
+            out.writeByte(PLACE);
+            out.writeLong(tick);
+            out.writeByte(type.ordinal());
+            out.writeInt(position.row());
+            out.writeInt(position.col());
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void towerSold(long tick, CellPosition position) {
+        writeCellAction(SELL, tick, position);
+    }
+
+    @Override
+    public void towerUpgraded(long tick, CellPosition position) {
+        writeCellAction(UPGRADE, tick, position);
+    }
+
+    @Override
+    public void gameStarted(long tick) {
+        writeAction(START, tick);
+    }
+
+    @Override
+    public void gamePaused(long tick) {
+        writeAction(PAUSE, tick);
+    }
+
+    @Override
+    public void tickCompleted(GameModel model) {
+        if (model.getTick() % keyframeInterval == 0) {
+            try {
+                writeKeyframe(model);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Stops recording, ends the replay and closes the channel.
+     *
+     * @throws IOException if the channel cannot be written to or closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (model.getRecorder() == this) {
+            model.setRecorder(null);
+        }
+        try {
+            out.writeByte(END);
+            out.writeLong(model.getTick());
+            out.flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void writeAction(byte kind, long tick) {
+        try {
+            out.writeByte(kind);
+            out.writeLong(tick);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeCellAction(byte kind, long tick, CellPosition position) {
+        try {
+            out.writeByte(kind);
+            out.writeLong(tick);
+            out.writeInt(position.row());
+            out.writeInt(position.col());
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the state into the scratch buffer first, since its length has
+     * to be written before it, then copies it out in one go.
+     */
+    private void writeKeyframe(GameModel model) throws IOException {
+        scratch.reset();
+        model.writeState(scratchOut);
+        scratchOut.flush();
+        out.writeByte(KEYFRAME);
+        out.writeLong(model.getTick());
+        out.writeInt(scratch.size());
+        out.writeBytes(scratch.bytes(), 0, scratch.size());
+        out.flush();
+    }
+
+    /**
+     * A byte array output stream whose array can be read without a copy.
+     */
+    private static final class Scratch extends ByteArrayOutputStream {
+        private byte[] bytes() {
+            return buf;
+        }
+    }
+}
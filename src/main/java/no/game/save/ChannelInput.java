@@ -0,0 +1,212 @@
+package no.game.save;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Reads primitive values written by {@link ChannelOutput} from a channel
+ * through one reusable direct buffer.
+ *
+ * The buffer is refilled from the channel only when it runs low, and
+ * nothing is allocated per value. The input may read ahead of the last
+ * value asked for, so a channel should not be shared with other readers
+ * while an input is in use.
+ *
+ * The channel is not closed by this class.
+ */
+public final class ChannelInput {
+
+    /** The default buffer size in bytes. */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private long position;
+    private boolean endOfStream;
+
+    /**
+     * Constructs an input with a buffer of {@link #DEFAULT_BUFFER_SIZE}
+     * bytes.
+     *
+     * @param channel the channel to read from
+     * @throws IllegalArgumentException if channel is null
+     */
+    public ChannelInput(ReadableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs an input with a buffer of the given size.
+     *
+     * @param channel    the channel to read from
+     * @param bufferSize the buffer size in bytes, at least 8
+     * @throws IllegalArgumentException if channel is null or bufferSize is
+     *                                  less than 8
+     */
+    public ChannelInput(ReadableByteChannel channel, int bufferSize) {
+        if (channel == null) {
+            throw new IllegalArgumentException("Channel cannot be null.");
+        }
+        if (bufferSize < Long.BYTES) {
+            throw new IllegalArgumentException("Buffer must hold at least 8 bytes.");
+        }
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        buffer.limit(0);
+    }
+
+    /**
+     * Returns the number of bytes read so far by this input, not counting
+     * bytes read ahead into the buffer.
+     *
+     * @return the number of bytes read
+     */
+    public long position() {
+        return position - buffer.remaining();
+    }
+
+    /**
+     * Checks whether every byte of the channel has been read.
+     *
+     * @return true if there is nothing more to read
+     * @throws IOException if the channel cannot be read from
+     */
+    public boolean atEnd() throws IOException {
+        return !buffer.hasRemaining() && !fill(1);
+    }
+
+    /**
+     * Reads a byte.
+     *
+     * @return the value read
+     * @throws EOFException if the channel ends first
+     * @throws IOException  if the channel cannot be read from
+     */
+    public byte readByte() throws IOException {
+        require(Byte.BYTES);
+        return buffer.get();
+    }
+
+    /**
+     * Reads a boolean.
+     *
+     * @return the value read
+     * @throws EOFException if the channel ends first
+     * @throws IOException  if the channel cannot be read from
+     */
+    public boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+
+    /**
+     * Reads a char.
+     *
+     * @return the value read
+     * @throws EOFException if the channel ends first
+     * @throws IOException  if the channel cannot be read from
+     */
+    public char readChar() throws IOException {
+        require(Character.BYTES);
+        return buffer.getChar();
+    }
+
+    /**
+     * Reads an int.
+     *
+     * @return the value read
+     * @throws EOFException if the channel ends first
+     * @throws IOException  if the channel cannot be read from
+     */
+    public int readInt() throws IOException {
+        require(Integer.BYTES);
+        return buffer.getInt();
+    }
+
+    /**
+     * Reads a long.
+     *
+     * @return the value read
+     * @throws EOFException if the channel ends first
+     * @throws IOException  if the channel cannot be read from
+     */
+    public long readLong() throws IOException {
+        require(Long.BYTES);
+        return buffer.getLong();
+    }
+
+    /**
+     * Reads a double.
+     *
+     * @return the value read
+     * @throws EOFException if the channel ends first
+     * @throws IOException  if the channel cannot be read from
+     */
+    public double readDouble() throws IOException {
+        require(Double.BYTES);
+        return buffer.getDouble();
+    }
+
+    /**
+     * Reads exactly the given number of bytes.
+     *
+     * @param bytes  the array to read into
+     * @param offset the index of the first byte
+     * @param length the number of bytes
+     * @throws EOFException if the channel ends first
+     * @throws IOException  if the channel cannot be read from
+     */
+    public void readBytes(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            require(1);
+            int chunk = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, chunk);
+            offset += chunk;
+            length -= chunk;
+        }
+    }
+
+    /**
+     * Skips the given number of bytes.
+     *
+     * @param count the number of bytes to skip
+     * @throws EOFException if the channel ends first
+     * @throws IOException  if the channel cannot be read from
+     */
+    public void skip(long count) throws IOException {
+        while (count > 0) {
+            require(1);
+            int chunk = (int) Math.min(count, buffer.remaining());
+            buffer.position(buffer.position() + chunk);
+            count -= chunk;
+        }
+    }
+
+    private void require(int bytes) throws IOException {
+        if (buffer.remaining() < bytes && !fill(bytes)) {
+            throw new EOFException("Unexpected end of channel.");
+        }
+    }
+
+    /**
+     * Reads from the channel until the buffer holds at least the given
+     * number of bytes, keeping the unread ones.
+     */
+    private boolean fill(int bytes) throws IOException {
+        buffer.compact();
+        try {
+            while (buffer.position() < bytes && !endOfStream) {
+                int read = channel.read(buffer);
+                if (read < 0) {
+                    endOfStream = true;
+                } else {
+                    position += read;
+                }
+            }
+        } finally {
+            buffer.flip();
+        }
+        return buffer.remaining() >= bytes;
+    }
+}
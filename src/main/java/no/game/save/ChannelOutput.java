@@ -0,0 +1,168 @@
+package no.game.save;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writes primitive values to a channel through one reusable direct buffer.
+ *
+ * Values are written big-endian, in the same layout as
+ * {@link java.io.DataOutputStream}, and the buffer is only written to the
+ * channel when it is full or on {@link #flush()}. Nothing is allocated per
+ * value, so writing the state of a large game costs a few channel writes
+ * and no garbage.
+ *
+ * The channel is not closed by this class.
+ */
+public final class ChannelOutput {
+
+    /** The default buffer size in bytes. */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private long position;
+
+    /**
+     * Constructs an output with a buffer of {@link #DEFAULT_BUFFER_SIZE}
+     * bytes.
+     *
+     * @param channel the channel to write to
+     * @throws IllegalArgumentException if channel is null
+     */
+    public ChannelOutput(WritableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs an output with a buffer of the given size.
+     *
+     * @param channel    the channel to write to
+     * @param bufferSize the buffer size in bytes, at least 8
+     * @throws IllegalArgumentException if channel is null or bufferSize is
+     *                                  less than 8
+     */
+    public ChannelOutput(WritableByteChannel channel, int bufferSize) {
+        if (channel == null) {
+            throw new IllegalArgumentException("Channel cannot be null.");
+        }
+        if (bufferSize < Long.BYTES) {
+            throw new IllegalArgumentException("Buffer must hold at least 8 bytes.");
+        }
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    /**
+     * Returns the number of bytes written so far, including the ones still
+     * in the buffer.
+     *
+     * @return the number of bytes written
+     */
+    public long position() {
+        return position + buffer.position();
+    }
+
+    /**
+     * Writes a byte.
+     *
+     * @param value the value to write
+     * @throws IOException if the channel cannot be written to
+     */
+    public void writeByte(int value) throws IOException {
+        require(Byte.BYTES);
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Writes a boolean.
+     *
+     * @param value the value to write
+     * @throws IOException if the channel cannot be written to
+     */
+    public void writeBoolean(boolean value) throws IOException {
+        writeByte(value ? 1 : 0);
+    }
+
+    /**
+     * Writes a char.
+     *
+     * @param value the value to write
+     * @throws IOException if the channel cannot be written to
+     */
+    public void writeChar(char value) throws IOException {
+        require(Character.BYTES);
+        buffer.putChar(value);
+    }
+
+    /**
+     * Writes an int.
+     *
+     * @param value the value to write
+     * @throws IOException if the channel cannot be written to
+     */
+    public void writeInt(int value) throws IOException {
+        require(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    /**
+     * Writes a long.
+     *
+     * @param value the value to write
+     * @throws IOException if the channel cannot be written to
+     */
+    public void writeLong(long value) throws IOException {
+        require(Long.BYTES);
+        buffer.putLong(value);
+    }
+
+    /**
+     * Writes a double.
+     *
+     * @param value the value to write
+     * @throws IOException if the channel cannot be written to
+     */
+    public void writeDouble(double value) throws IOException {
+        require(Double.BYTES);
+        buffer.putDouble(value);
+    }
+
+    /**
+     * Writes a range of bytes.
+     *
+     * @param bytes  the bytes to write
+     * @param offset the index of the first byte
+     * @param length the number of bytes
+     * @throws IOException if the channel cannot be written to
+     */
+    public void writeBytes(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            require(1);
+            int chunk = Math.min(length, buffer.remaining());
+            buffer.put(bytes, offset, chunk);
+            offset += chunk;
+            length -= chunk;
+        }
+    }
+
+    /**
+     * Writes the contents of the buffer to the channel.
+     *
+     * @throws IOException if the channel cannot be written to
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void require(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+}
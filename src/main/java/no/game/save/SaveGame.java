@@ -0,0 +1,120 @@
+package no.game.save;
+
+import no.game.model.GameModel;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Saves and loads the full state of a game in a compact, versioned binary
+ * format.
+ *
+ * A save is a header of {@link #MAGIC} and {@link #VERSION} followed by the
+ * state written by {@link GameModel#writeState(ChannelOutput)}: the board
+ * tiles, the economy and counters, the random state, the wave counters, the
+ * towers with their level and cooldown, the enemies with their path index,
+ * progress, health and slow, and the projectiles. Everything goes through
+ * one direct buffer straight to the channel, without an object per enemy
+ * or projectile, so a game with 100 000 enemies saves and loads in a few
+ * milliseconds.
+ *
+ * The model must not be changed while it is saved; a model shared with a
+ * game loop should be saved while holding its monitor.
+ */
+public final class SaveGame {
+
+    /** The first four bytes of every save, "TDSV". */
+    public static final int MAGIC = 0x54445356;
+
+    /** The version of the save format written by this class. */
+    public static final int VERSION = 1;
+
+    private SaveGame() {
+    }
+
+    /**
+     * Writes a save of a game to a channel.
+     *
+     * @param model   the game to save
+     * @param channel the channel to write to, left open
+     * @throws IOException if the channel cannot be written to
+     */
+    public static void write(GameModel model, WritableByteChannel channel) throws IOException {
+        ChannelOutput out = new ChannelOutput(channel);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        model.writeState(out);
+        out.flush();
+    }
+
+    /**
+     * Reads a save written by {@link #write(GameModel, WritableByteChannel)}
+     * into a new model.
+     *
+     * @param channel       the channel to read from, left open
+     * @param useEnemyStore whether the new model keeps its enemies in an
+     *                      EnemyStore
+     * @return the saved game
+     * @throws IOException if the channel cannot be read from, does not hold
+     *                     a save, or holds a save of another version
+     */
+    public static GameModel read(ReadableByteChannel channel, boolean useEnemyStore) throws IOException {
+        ChannelInput in = new ChannelInput(channel);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a saved game.");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported save version: " + version);
+        }
+        return GameModel.readState(in, useEnemyStore);
+    }
+
+    /**
+     * Saves a game to a file. The save is written to a temporary file next
+     * to it, forced to the storage device and then moved into place, so an
+     * earlier save is never left half overwritten. On a file system that
+     * cannot move the file atomically it is moved with a plain replace
+     * instead, which may leave no save at all if the machine fails halfway.
+     *
+     * @param model the game to save
+     * @param file  the file to save to
+     * @throws IOException if the file cannot be written
+     */
+    public static void save(GameModel model, Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(model, channel);
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Loads a game saved by {@link #save(GameModel, Path)}.
+     *
+     * @param file          the file to load
+     * @param useEnemyStore whether the new model keeps its enemies in an
+     *                      EnemyStore
+     * @return the saved game
+     * @throws IOException if the file cannot be read or does not hold a save
+     *                     of this version
+     */
+    public static GameModel load(Path file, boolean useEnemyStore) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return read(channel, useEnemyStore);
+        }
+    }
+}
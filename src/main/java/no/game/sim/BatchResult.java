@@ -0,0 +1,11 @@
+package no.game.sim;
+
+/**
+ * The outcome of one game in a batch run.
+ *
+ * @param index  the position of the game's config in the batch
+ * @param config the config the game was played with
+ * @param result the outcome of the game
+ */
+public record BatchResult(int index, GameConfig config, SimulationResult result) {
+}
@@ -0,0 +1,114 @@
+package no.game.sim;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * The BatchRunner plays many independent games at once, one
+ * {@link HeadlessRunner} per {@link GameConfig}, spread over a work-stealing
+ * ForkJoinPool.
+ *
+ * Every game has its own model, board and path, so the games share no
+ * mutable state and the throughput grows with the number of cores. Results
+ * are handed back on the calling thread as each game finishes, in the order
+ * the games finish.
+ */
+public class BatchRunner implements AutoCloseable {
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs a runner that uses every available core.
+     */
+    public BatchRunner() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a runner that plays up to the given number of games at once.
+     *
+     * @param parallelism the number of worker threads
+     * @throws IllegalArgumentException if parallelism is not positive
+     */
+    public BatchRunner(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive.");
+        }
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Plays every game in the batch and passes each result on as soon as its
+     * game has finished. The consumer is only called from the calling thread.
+     *
+     * @param configs the games to play
+     * @param results receives the result of each game
+     * @throws IllegalStateException if a game fails or the calling thread is
+     *                               interrupted
+     */
+    public void run(List<GameConfig> configs, Consumer<BatchResult> results) {
+        CompletionService<BatchResult> completion = new ExecutorCompletionService<>(pool);
+        List<Future<BatchResult>> games = new ArrayList<>(configs.size());
+        for (int i = 0; i < configs.size(); i++) {
+            int index = i;
+            GameConfig config = configs.get(i);
+            games.add(completion.submit(() -> new BatchResult(index, config, play(config))));
+        }
+
+        try {
+            for (int i = 0; i < games.size(); i++) {
+                results.accept(completion.take().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for games.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A game in the batch failed.", e.getCause());
+        } finally {
+            for (Future<BatchResult> game : games) {
+                game.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Plays every game in the batch and waits for all of them.
+     *
+     * @param configs the games to play
+     * @return the results, in the same order as the configs
+     * @throws IllegalStateException if a game fails or the calling thread is
+     *                               interrupted
+     */
+    public List<BatchResult> runAll(List<GameConfig> configs) {
+        BatchResult[] results = new BatchResult[configs.size()];
+        run(configs, result -> results[result.index()] = result);
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Plays a single game on the calling thread.
+     *
+     * @param config the game to play
+     * @return the outcome of the game
+     */
+    public static SimulationResult play(GameConfig config) {
+        HeadlessRunner runner = new HeadlessRunner(config.map(), config.towers());
+        return runner.run(config.maxTicks(), config.maxWaves(), config.seed());
+    }
+
+    /**
+     * Stops the worker threads. Games that are still running are finished
+     * first.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,33 @@
+package no.game.sim;
+
+import no.game.model.MapType;
+
+import java.util.List;
+
+/**
+ * The setup of one game in a batch run.
+ *
+ * @param map      the map to play
+ * @param towers   the towers to place, in any order
+ * @param seed     the seed of the game's random source
+ * @param maxTicks the maximum number of ticks to simulate
+ * @param maxWaves the number of waves to clear before stopping
+ */
+public record GameConfig(MapType map, List<TowerPlacement> towers, long seed, long maxTicks, int maxWaves) {
+
+    /**
+     * Creates a config and validates its arguments.
+     *
+     * @throws IllegalArgumentException if map or towers is null, or a limit is
+     *                                  negative
+     */
+    public GameConfig {
+        if (map == null || towers == null) {
+            throw new IllegalArgumentException("Map and towers cannot be null.");
+        }
+        if (maxTicks < 0 || maxWaves < 0) {
+            throw new IllegalArgumentException("Limits cannot be negative.");
+        }
+        towers = List.copyOf(towers);
+    }
+}
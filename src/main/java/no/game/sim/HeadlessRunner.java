@@ -0,0 +1,252 @@
+package no.game.sim;
+
+import no.game.controller.GameLoop;
+import no.game.controller.TickRateControl;
+import no.game.model.GameBoard;
+import no.game.model.GameModel;
+import no.game.model.GameRandom;
+import no.game.model.GameState;
+import no.game.model.MapFile;
+import no.game.model.MapType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The HeadlessRunner plays a GameModel without a view, running updates as
+ * fast as the CPU allows. Towers are placed from a script instead of by
+ * mouse clicks, and the run stops at a tick or wave limit, or when the game
+ * is lost.
+ *
+ * Whenever the model pauses itself between waves the runner resumes it, the
+ * same way a player would press "Start Wave". A game paused from outside,
+ * for example through a GameMonitor, stays paused until it is resumed the
+ * same way. An operator may also slow the runner down to a tick rate.
+ */
+public class HeadlessRunner implements TickRateControl {
+
+    /** The seed used when none is given. */
+    public static final long DEFAULT_SEED = 0;
+
+    private static final long PAUSE_POLL_MILLIS = 10;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final MapType mapType;
+    private final MapFile mapFile;
+    private final List<TowerPlacement> placements;
+    private final boolean useEnemyStore;
+    private volatile int tickRate;
+
+    /**
+     * Constructs a runner for the given map and tower script.
+     *
+     * @param mapType    the map to play
+     * @param placements the towers to place, in any order
+     * @throws IllegalArgumentException if mapType or placements is null
+     */
+    public HeadlessRunner(MapType mapType, List<TowerPlacement> placements) {
+        this(mapType, placements, false);
+    }
+
+    /**
+     * Constructs a runner for the given map and tower script, optionally
+     * keeping the enemies in parallel arrays.
+     *
+     * @param mapType       the map to play
+     * @param placements    the towers to place, in any order
+     * @param useEnemyStore whether the model keeps its enemies in an
+     *                      EnemyStore
+     * @throws IllegalArgumentException if mapType or placements is null
+     */
+    public HeadlessRunner(MapType mapType, List<TowerPlacement> placements, boolean useEnemyStore) {
+        this(mapType, null, placements, useEnemyStore);
+    }
+
+    /**
+     * Constructs a runner for a map read from a file, such as a large
+     * generated map. Games on it are played on a board the size of the map,
+     * or 20x20 if the map is smaller, and cannot be saved or recorded.
+     *
+     * @param mapFile       the map to play
+     * @param placements    the towers to place, in any order
+     * @param useEnemyStore whether the model keeps its enemies in an
+     *                      EnemyStore
+     * @throws IllegalArgumentException if mapFile or placements is null
+     */
+    public HeadlessRunner(MapFile mapFile, List<TowerPlacement> placements, boolean useEnemyStore) {
+        this(null, mapFile, placements, useEnemyStore);
+    }
+
+    private HeadlessRunner(MapType mapType, MapFile mapFile, List<TowerPlacement> placements,
+            boolean useEnemyStore) {
+        if ((mapType == null && mapFile == null) || placements == null) {
+            throw new IllegalArgumentException("Map and placements cannot be null.");
+        }
+        this.mapType = mapType;
+        this.mapFile = mapFile;
+        this.placements = new ArrayList<>(placements);
+        this.placements.sort(Comparator.comparingLong(TowerPlacement::tick));
+        this.useEnemyStore = useEnemyStore;
+    }
+
+    /**
+     * Runs a new game with {@link #DEFAULT_SEED} until one of the limits is
+     * reached or the game is over.
+     *
+     * @param maxTicks the maximum number of ticks to simulate
+     * @param maxWaves the number of waves to clear before stopping
+     * @return the outcome of the run
+     */
+    public SimulationResult run(long maxTicks, int maxWaves) {
+        return run(maxTicks, maxWaves, DEFAULT_SEED);
+    }
+
+    /**
+     * Runs a new game until one of the limits is reached or the game is over.
+     * Runs with the same seed and script play out the same way.
+     *
+     * @param maxTicks the maximum number of ticks to simulate
+     * @param maxWaves the number of waves to clear before stopping
+     * @param seed     the seed of the game's random source
+     * @return the outcome of the run
+     */
+    public SimulationResult run(long maxTicks, int maxWaves, long seed) {
+        return play(newGame(seed), maxTicks, maxWaves);
+    }
+
+    /**
+     * Creates a new game on this runner's map with the given seed, already
+     * started, for {@link #play(GameModel, long, int)}. A recorder attached
+     * to the model in between sees the whole game.
+     *
+     * @param seed the seed of the game's random source
+     * @return the new game
+     */
+    public GameModel newGame(long seed) {
+        GameModel model;
+        if (mapFile != null) {
+            model = new GameModel(new GameBoard(Math.max(20, mapFile.getRows()), Math.max(20, mapFile.getCols())),
+                    useEnemyStore, new GameRandom(seed));
+            model.setMap(mapFile);
+        } else {
+            model = new GameModel(new GameBoard(20, 20), useEnemyStore, new GameRandom(seed));
+            model.setMap(mapType);
+        }
+        model.setGameState();
+        return model;
+    }
+
+    /**
+     * Plays a game created by {@link #newGame(long)} until one of the limits
+     * is reached or the game is over, placing the scripted towers at their
+     * ticks.
+     *
+     * @param model    the game to play
+     * @param maxTicks the maximum number of ticks to simulate
+     * @param maxWaves the number of waves to clear before stopping
+     * @return the outcome of the run
+     */
+    public SimulationResult play(GameModel model, long maxTicks, int maxWaves) {
+        int nextPlacement = 0;
+        int towersPlaced = 0;
+        long tick = 0;
+        long start = System.nanoTime();
+        long deadline = start;
+        // A game loaded between waves waits for its next wave like one that
+        // just paused itself.
+        boolean waveEnded = model.getGameState() == GameState.PAUSED;
+
+        while (tick < maxTicks && model.getGameState() != GameState.GAME_OVER
+                && model.getWaveNumber() <= maxWaves) {
+            // The monitor is held per tick, so a GameMonitor can read the
+            // game consistently while it is played.
+            synchronized (model) {
+                if (model.getGameState() == GameState.PAUSED) {
+                    if (!waveEnded) {
+                        if (!waitForResume(model)) {
+                            break;
+                        }
+                        continue;
+                    }
+                    model.setGameState();
+                }
+                while (nextPlacement < placements.size() && placements.get(nextPlacement).tick() <= tick) {
+                    TowerPlacement placement = placements.get(nextPlacement++);
+                    if (model.placeTower(placement.position(), placement.type())) {
+                        towersPlaced++;
+                    }
+                }
+                model.update(GameLoop.TICK_DELTA);
+                waveEnded = model.getGameState() == GameState.PAUSED;
+            }
+            tick++;
+            deadline = throttle(deadline);
+        }
+
+        long elapsed = System.nanoTime() - start;
+        return new SimulationResult(mapType, tick, elapsed, model.getWaveNumber() - 1,
+                model.getEnemiesLeaked(), model.getEnemiesKilled(), model.getScore(), model.getGold(),
+                model.getPlayerHP(), towersPlaced, model.getGameState());
+    }
+
+    /**
+     * Returns the number of ticks per second the runner is held to.
+     *
+     * @return the tick rate, 0 if the runner plays as fast as it can
+     */
+    @Override
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    /**
+     * Holds the runner to a number of ticks per second, or lets it play as
+     * fast as it can again. Takes effect from the next tick.
+     *
+     * @param tickRate the new tick rate, or 0 for no limit
+     * @throws IllegalArgumentException if tickRate is negative
+     */
+    @Override
+    public void setTickRate(int tickRate) {
+        if (tickRate < 0) {
+            throw new IllegalArgumentException("Tick rate cannot be negative.");
+        }
+        this.tickRate = tickRate;
+    }
+
+    /**
+     * Waits, releasing the model's monitor, for someone else to resume a
+     * game they paused.
+     *
+     * @return false if the thread was interrupted and should stop playing
+     */
+    private static boolean waitForResume(GameModel model) {
+        try {
+            model.wait(PAUSE_POLL_MILLIS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Sleeps until the next tick is due when a tick rate is set, and returns
+     * the time it was due. A runner that falls behind does not catch up.
+     */
+    private long throttle(long previous) {
+        int rate = tickRate;
+        long now = System.nanoTime();
+        if (rate == 0) {
+            return now;
+        }
+        long next = previous + NANOS_PER_SECOND / rate;
+        if (next <= now) {
+            return now;
+        }
+        LockSupport.parkNanos(next - now);
+        return next;
+    }
+}
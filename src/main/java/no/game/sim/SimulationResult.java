@@ -0,0 +1,49 @@
+package no.game.sim;
+
+import no.game.model.GameState;
+import no.game.model.MapType;
+
+/**
+ * The outcome of a headless simulation run.
+ *
+ * @param map           the map that was played, or null if it was read
+ *                      from a file
+ * @param ticks         the number of simulation ticks that were run
+ * @param elapsedNanos  the wall clock time spent simulating
+ * @param wavesSurvived the number of waves that were fully cleared
+ * @param leaks         the number of enemies that reached the end of the path
+ * @param kills         the number of enemies killed by towers
+ * @param score         the final score
+ * @param gold          the gold left at the end of the run
+ * @param playerHP      the player's health left at the end of the run
+ * @param towersPlaced  the number of scripted placements that succeeded
+ * @param finalState    the state of the game when the run stopped
+ */
+public record SimulationResult(MapType map, long ticks, long elapsedNanos, int wavesSurvived,
+        int leaks, int kills, int score, int gold, int playerHP, int towersPlaced,
+        GameState finalState) {
+
+    /**
+     * Returns the simulation throughput of the run.
+     *
+     * @return the number of ticks simulated per wall clock second
+     */
+    public double ticksPerSecond() {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return ticks * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    /**
+     * A one line, human readable summary of the run.
+     *
+     * @return the summary
+     */
+    public String summary() {
+        return String.format(
+                "map=%s ticks=%d elapsed=%.1fms ticks/sec=%.0f waves=%d leaks=%d kills=%d score=%d gold=%d hp=%d towers=%d state=%s",
+                map == null ? "file" : map, ticks, elapsedNanos / 1_000_000.0, ticksPerSecond(), wavesSurvived, leaks, kills,
+                score, gold, playerHP, towersPlaced, finalState);
+    }
+}
@@ -0,0 +1,57 @@
+package no.game.sim;
+
+import no.game.model.tower.TowerType;
+import no.grid.CellPosition;
+
+/**
+ * A scripted tower placement for a headless simulation.
+ *
+ * @param type     the type of tower to place
+ * @param position the cell to place the tower on
+ * @param tick     the simulation tick at which the tower is placed, 0 places
+ *                 it before the first update
+ */
+public record TowerPlacement(TowerType type, CellPosition position, long tick) {
+
+    /**
+     * Creates a placement and validates its arguments.
+     *
+     * @throws IllegalArgumentException if type or position is null, or tick is
+     *                                  negative
+     */
+    public TowerPlacement {
+        if (type == null || position == null) {
+            throw new IllegalArgumentException("Tower type and position cannot be null.");
+        }
+        if (tick < 0) {
+            throw new IllegalArgumentException("Tick cannot be negative.");
+        }
+    }
+
+    /**
+     * Parses a placement on the form {@code TYPE:row,col} or
+     * {@code TYPE:row,col@tick}, for example {@code SNIPER:3,7@500}.
+     *
+     * @param spec the placement to parse
+     * @return the parsed placement
+     * @throws IllegalArgumentException if the placement is malformed
+     */
+    public static TowerPlacement parse(String spec) {
+        try {
+            int colon = spec.indexOf(':');
+            int at = spec.indexOf('@');
+            TowerType type = TowerType.valueOf(spec.substring(0, colon).trim().toUpperCase());
+            String cell = at < 0 ? spec.substring(colon + 1) : spec.substring(colon + 1, at);
+            String[] parts = cell.split(",");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected row,col in tower placement: " + spec);
+            }
+            CellPosition pos = new CellPosition(Integer.parseInt(parts[0].trim()),
+                    Integer.parseInt(parts[1].trim()));
+            long tick = at < 0 ? 0 : Long.parseLong(spec.substring(at + 1).trim());
+            return new TowerPlacement(type, pos, tick);
+        } catch (IndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed tower placement: " + spec, e);
+        }
+    }
+}
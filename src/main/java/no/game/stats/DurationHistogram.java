@@ -0,0 +1,66 @@
+package no.game.stats;
+
+/**
+ * Counts durations in buckets that double in width, from under one
+ * microsecond to over a second, over the whole life of a game.
+ *
+ * Unlike a {@link TimingWindow}, a histogram never forgets, so it suits
+ * monitoring tools that poll the counts and compute rates and percentiles
+ * between polls. Recording finds the bucket from the highest set bit of
+ * the duration and never allocates.
+ */
+public final class DurationHistogram {
+
+    /** The number of buckets. The last one counts everything above its lower bound. */
+    public static final int BUCKETS = 22;
+
+    private final long[] counts = new long[BUCKETS];
+    private long total;
+
+    /**
+     * Counts a duration.
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos / 1_000);
+        int bucket = Math.min(BUCKETS - 1, Long.SIZE - Long.numberOfLeadingZeros(micros));
+        counts[bucket]++;
+        total++;
+    }
+
+    /**
+     * Returns the number of durations counted.
+     *
+     * @return the total count
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Returns the count of every bucket. Bucket i counts the durations
+     * below {@code getUpperBoundsMicros()[i]} that no earlier bucket counts.
+     *
+     * @return a copy of the counts
+     */
+    public long[] getCounts() {
+        return counts.clone();
+    }
+
+    /**
+     * Returns the exclusive upper bound of every bucket in microseconds: 1,
+     * 2, 4 and so on. The last bucket has no upper bound and is given as
+     * Long.MAX_VALUE.
+     *
+     * @return the upper bounds
+     */
+    public static long[] getUpperBoundsMicros() {
+        long[] bounds = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS - 1; i++) {
+            bounds[i] = 1L << i;
+        }
+        bounds[BUCKETS - 1] = Long.MAX_VALUE;
+        return bounds;
+    }
+}
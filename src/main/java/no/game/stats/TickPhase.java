@@ -0,0 +1,18 @@
+package no.game.stats;
+
+/**
+ * The phases of a tick of {@link no.game.model.GameModel#update(double)},
+ * in the order they run.
+ */
+public enum TickPhase {
+    /** The towers cool down and pick their targets. */
+    TOWERS,
+    /** The projectiles move and hit. */
+    PROJECTILES,
+    /** The enemies move along the path. */
+    ENEMY_MOVE,
+    /** Dead and leaked enemies are settled and removed. */
+    CLEANUP,
+    /** The waves spawn enemies and advance. */
+    WAVES
+}
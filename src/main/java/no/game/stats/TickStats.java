@@ -0,0 +1,164 @@
+package no.game.stats;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Timings of the most recent ticks of a game, split by {@link TickPhase},
+ * along with how many ticks ran and how much they allocated. Besides the
+ * windows of recent ticks, every duration is also counted in a
+ * {@link DurationHistogram} that covers the whole game.
+ *
+ * A model with stats set calls {@link #tickStarted()}, then
+ * {@link #phaseEnded(TickPhase)} after each phase and {@link #tickEnded()}
+ * at the end of every tick. Each call reads the clock once; the start and
+ * end of a tick also read how much the simulation thread has allocated so
+ * far, where the JVM supports it. Nothing is allocated while recording.
+ *
+ * The stats are recorded while holding the model's monitor and should be
+ * read while holding it as well.
+ */
+public final class TickStats {
+
+    /** The number of ticks kept by every window, about eight seconds at the default tick rate. */
+    public static final int WINDOW = 1024;
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final TimingWindow ticks = new TimingWindow(WINDOW);
+    private final TimingWindow[] phases = new TimingWindow[TickPhase.values().length];
+    private final DurationHistogram tickHistogram = new DurationHistogram();
+    private final DurationHistogram[] phaseHistograms = new DurationHistogram[TickPhase.values().length];
+    private long tickCount;
+    private long tickStart;
+    private long phaseStart;
+    private long allocatedAtStart;
+
+    /**
+     * Creates empty stats.
+     */
+    public TickStats() {
+        for (int i = 0; i < phases.length; i++) {
+            phases[i] = new TimingWindow(WINDOW);
+            phaseHistograms[i] = new DurationHistogram();
+        }
+    }
+
+    /**
+     * Marks the start of a tick.
+     */
+    public void tickStarted() {
+        allocatedAtStart = currentThreadAllocatedBytes();
+        tickStart = System.nanoTime();
+        phaseStart = tickStart;
+    }
+
+    /**
+     * Marks the end of a phase of the current tick. The phase is timed from
+     * the end of the previous phase, or from the start of the tick.
+     *
+     * @param phase the phase that ended
+     */
+    public void phaseEnded(TickPhase phase) {
+        long now = System.nanoTime();
+        phases[phase.ordinal()].record(now, now - phaseStart, 0);
+        phaseHistograms[phase.ordinal()].record(now - phaseStart);
+        phaseStart = now;
+    }
+
+    /**
+     * Marks the end of the current tick.
+     */
+    public void tickEnded() {
+        long now = System.nanoTime();
+        long allocated = allocatedAtStart < 0 ? 0 : currentThreadAllocatedBytes() - allocatedAtStart;
+        ticks.record(now, now - tickStart, allocated);
+        tickHistogram.record(now - tickStart);
+        tickCount++;
+    }
+
+    /**
+     * Returns the number of ticks recorded since the stats were created.
+     *
+     * @return the number of ticks
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Returns the timings of whole ticks.
+     *
+     * @return the window of tick timings
+     */
+    public TimingWindow getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Returns the timings of one phase of the ticks.
+     *
+     * @param phase the phase
+     * @return the window of timings of the phase
+     */
+    public TimingWindow getPhase(TickPhase phase) {
+        return phases[phase.ordinal()];
+    }
+
+    /**
+     * Returns the histogram of all tick durations since the stats were
+     * created.
+     *
+     * @return the tick histogram
+     */
+    public DurationHistogram getTickHistogram() {
+        return tickHistogram;
+    }
+
+    /**
+     * Returns the histogram of all durations of one phase since the stats
+     * were created.
+     *
+     * @param phase the phase
+     * @return the histogram of the phase
+     */
+    public DurationHistogram getPhaseHistogram(TickPhase phase) {
+        return phaseHistograms[phase.ordinal()];
+    }
+
+    /**
+     * Returns the number of ticks that ended in the last second.
+     *
+     * @param nowNanos the current time, from System.nanoTime()
+     * @return the number of ticks per second
+     */
+    public int getTicksPerSecond(long nowNanos) {
+        return ticks.countSince(nowNanos - NANOS_PER_SECOND);
+    }
+
+    /**
+     * Returns the bytes allocated by the ticks that ended in the last
+     * second.
+     *
+     * @param nowNanos the current time, from System.nanoTime()
+     * @return the number of bytes allocated per second, 0 if the JVM cannot
+     *         measure it
+     */
+    public long getAllocatedBytesPerSecond(long nowNanos) {
+        return ticks.allocatedSince(nowNanos - NANOS_PER_SECOND);
+    }
+
+    /**
+     * Returns how many bytes the current thread has allocated so far.
+     *
+     * @return the number of bytes, or -1 if the JVM cannot measure it
+     */
+    public static long currentThreadAllocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean sunThreads
+                && sunThreads.isThreadAllocatedMemoryEnabled()) {
+            return sunThreads.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+}
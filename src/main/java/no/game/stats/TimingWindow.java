@@ -0,0 +1,138 @@
+package no.game.stats;
+
+import java.util.Arrays;
+
+/**
+ * The most recent samples of something that is timed over and over, such as
+ * a tick or a paint, kept in a ring of fixed capacity.
+ *
+ * Every sample holds when it ended, how long it took and how many bytes
+ * were allocated while it ran. Recording a sample writes three array slots
+ * and never allocates. Percentiles are computed on demand by sorting a copy
+ * of the durations into a scratch array owned by the window.
+ *
+ * A window is not thread safe; it is recorded and read under the same lock
+ * as the thing it times.
+ */
+public final class TimingWindow {
+
+    private final long[] endTimes;
+    private final long[] durations;
+    private final long[] allocations;
+    private final long[] scratch;
+    private int next;
+    private int size;
+
+    /**
+     * Creates an empty window.
+     *
+     * @param capacity the number of samples kept
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public TimingWindow(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        this.endTimes = new long[capacity];
+        this.durations = new long[capacity];
+        this.allocations = new long[capacity];
+        this.scratch = new long[capacity];
+    }
+
+    /**
+     * Records a sample, dropping the oldest one if the window is full.
+     *
+     * @param endNanos       when the sample ended, from System.nanoTime()
+     * @param durationNanos  how long the sample took
+     * @param allocatedBytes how many bytes were allocated during the sample
+     */
+    public void record(long endNanos, long durationNanos, long allocatedBytes) {
+        endTimes[next] = endNanos;
+        durations[next] = durationNanos;
+        allocations[next] = allocatedBytes;
+        next = next + 1 == durations.length ? 0 : next + 1;
+        if (size < durations.length) {
+            size++;
+        }
+    }
+
+    /**
+     * Returns the number of samples in the window.
+     *
+     * @return the number of samples, at most the capacity
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the capacity of the window.
+     *
+     * @return the number of samples kept
+     */
+    public int capacity() {
+        return durations.length;
+    }
+
+    /**
+     * Removes every sample.
+     */
+    public void clear() {
+        next = 0;
+        size = 0;
+    }
+
+    /**
+     * Returns a percentile of the durations in the window, by the nearest
+     * rank method.
+     *
+     * @param percentile the percentile, from 0 to 100
+     * @return the duration in nanoseconds, or 0 if the window is empty
+     * @throws IllegalArgumentException if percentile is outside 0 to 100
+     */
+    public long percentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        if (size == 0) {
+            return 0;
+        }
+        System.arraycopy(durations, 0, scratch, 0, size);
+        Arrays.sort(scratch, 0, size);
+        int rank = (int) Math.ceil(percentile / 100 * size);
+        return scratch[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * Returns the number of samples that ended at or after a time.
+     *
+     * @param sinceNanos the time, from System.nanoTime()
+     * @return the number of samples
+     */
+    public int countSince(long sinceNanos) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (endTimes[i] - sinceNanos >= 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the bytes allocated by the samples that ended at or after a
+     * time.
+     *
+     * @param sinceNanos the time, from System.nanoTime()
+     * @return the number of bytes
+     */
+    public long allocatedSince(long sinceNanos) {
+        long bytes = 0;
+        for (int i = 0; i < size; i++) {
+            if (endTimes[i] - sinceNanos >= 0) {
+                bytes += allocations[i];
+            }
+        }
+        return bytes;
+    }
+}
@@ -6,44 +6,168 @@ import no.grid.GridDimension;
 import java.awt.geom.Rectangle2D;
 import java.awt.Point;
 
+/**
+ * Converts between the cells of a grid and the pixels of a box the grid is
+ * drawn in.
+ *
+ * Everything is computed once when the converter is made: the size of a
+ * cell, where every row and column starts, and for every pixel of the box
+ * which row or column it lies in. The accessors for single coordinates
+ * therefore only read tables and never allocate, which matters on the paint
+ * path, and the lookup of the cell under a pixel allocates nothing but the
+ * position it returns. Nothing is kept per cell, so a converter for a very
+ * large board is as cheap as its number of rows, columns and pixels. A
+ * converter is meant to be kept for as long as the box keeps its size.
+ */
 public class CellPositionToPixelConverter {
 
-    private final Rectangle2D box;
-    private final GridDimension gd;
-    private final double margin;
+    private final double cellW;
+    private final double cellH;
+    private final double[] cellX;
+    private final double[] cellY;
+    private final int pixelX;
+    private final int pixelY;
+    private final int[] colAtPixel;
+    private final int[] rowAtPixel;
 
     public CellPositionToPixelConverter(Rectangle2D box, GridDimension gd, double margin) {
-        this.box = box;
-        this.gd = gd;
-        this.margin = margin;
+        this.cellW = (box.getWidth() - margin * gd.cols() - margin) / gd.cols();
+        this.cellH = (box.getHeight() - margin * gd.rows() - margin) / gd.rows();
+
+        this.cellX = new double[gd.cols()];
+        for (int col = 0; col < cellX.length; col++) {
+            cellX[col] = box.getX() + margin + (cellW + margin) * col;
+        }
+        this.cellY = new double[gd.rows()];
+        for (int row = 0; row < cellY.length; row++) {
+            cellY[row] = box.getY() + margin + (cellH + margin) * row;
+        }
+
+        this.pixelX = (int) Math.floor(box.getX());
+        this.pixelY = (int) Math.floor(box.getY());
+        this.colAtPixel = indexTable(pixelX, box.getMaxX(), box.getX() + margin, cellW + margin, gd.cols());
+        this.rowAtPixel = indexTable(pixelY, box.getMaxY(), box.getY() + margin, cellH + margin, gd.rows());
+    }
+
+    /**
+     * Builds a table of which row or column every pixel from first up to max
+     * lies in, -1 for pixels in none of them.
+     */
+    private static int[] indexTable(int first, double max, double origin, double stride, int count) {
+        int[] table = new int[Math.max(0, (int) Math.ceil(max) - first)];
+        for (int i = 0; i < table.length; i++) {
+            int index = (int) ((first + i - origin) / stride);
+            table[i] = index >= 0 && index < count ? index : -1;
+        }
+        return table;
     }
 
     public Rectangle2D getBoundsForCell(CellPosition cellPosition) {
-        double cellW = (box.getWidth() - margin * gd.cols() - margin) / gd.cols();
-        double cellH = (box.getHeight() - margin * gd.rows() - margin) / gd.rows();
-        double cellX = box.getX() + margin + (cellW + margin) * cellPosition.col();
-        double cellY = box.getY() + margin + (cellH + margin) * cellPosition.row();
-        return new Rectangle2D.Double(cellX, cellY, cellW, cellH);
+        return new Rectangle2D.Double(cellX[cellPosition.col()], cellY[cellPosition.row()], cellW, cellH);
     }
 
     public CellPosition getCellFromPixel(int x, int y) {
-        double cellW = (box.getWidth() - margin * gd.cols() - margin) / gd.cols();
-        double cellH = (box.getHeight() - margin * gd.rows() - margin) / gd.rows();
-
-        int col = (int) ((x - box.getX() - margin) / (cellW + margin));
-        int row = (int) ((y - box.getY() - margin) / (cellH + margin));
-
-        if (col >= 0 && col < gd.cols() && row >= 0 && row < gd.rows()) {
-            return new CellPosition(row, col);
+        int col = getColAt(x);
+        int row = getRowAt(y);
+        if (col < 0 || row < 0) {
+            return null;
         }
-        return null;
+        return getCell(row, col);
     }
 
     public Point getCellCenter(CellPosition cell) {
-        Rectangle2D bounds = getBoundsForCell(cell);
-        int centerX = (int) (bounds.getX() + bounds.getWidth() / 2);
-        int centerY = (int) (bounds.getY() + bounds.getHeight() / 2);
-        return new Point(centerX, centerY);
+        return new Point(getCenterX(cell.col()), getCenterY(cell.row()));
+    }
+
+    /**
+     * Returns the column under a pixel.
+     *
+     * @param x the x coordinate of the pixel
+     * @return the column, or -1 if the pixel is in no column
+     */
+    public int getColAt(int x) {
+        int i = x - pixelX;
+        return i >= 0 && i < colAtPixel.length ? colAtPixel[i] : -1;
+    }
+
+    /**
+     * Returns the row under a pixel.
+     *
+     * @param y the y coordinate of the pixel
+     * @return the row, or -1 if the pixel is in no row
+     */
+    public int getRowAt(int y) {
+        int i = y - pixelY;
+        return i >= 0 && i < rowAtPixel.length ? rowAtPixel[i] : -1;
+    }
+
+    /**
+     * Returns the position of a cell.
+     *
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @return a new position of the cell
+     */
+    public CellPosition getCell(int row, int col) {
+        return new CellPosition(row, col);
+    }
+
+    /**
+     * Returns the x coordinate of the left edge of a column.
+     *
+     * @param col the column
+     * @return the x coordinate in pixels
+     */
+    public double getCellX(int col) {
+        return cellX[col];
+    }
+
+    /**
+     * Returns the y coordinate of the top edge of a row.
+     *
+     * @param row the row
+     * @return the y coordinate in pixels
+     */
+    public double getCellY(int row) {
+        return cellY[row];
+    }
+
+    /**
+     * Returns the width of every cell.
+     *
+     * @return the width in pixels
+     */
+    public double getCellWidth() {
+        return cellW;
+    }
+
+    /**
+     * Returns the height of every cell.
+     *
+     * @return the height in pixels
+     */
+    public double getCellHeight() {
+        return cellH;
+    }
+
+    /**
+     * Returns the x coordinate of the center of a column, rounded down.
+     *
+     * @param col the column
+     * @return the x coordinate in pixels
+     */
+    public int getCenterX(int col) {
+        return (int) (cellX[col] + cellW / 2);
+    }
+
+    /**
+     * Returns the y coordinate of the center of a row, rounded down.
+     *
+     * @param row the row
+     * @return the y coordinate in pixels
+     */
+    public int getCenterY(int row) {
+        return (int) (cellY[row] + cellH / 2);
     }
 
 }
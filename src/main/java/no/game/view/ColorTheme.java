@@ -4,6 +4,8 @@ import java.awt.Color;
 
 public class ColorTheme {
 
+    private static final Color GROUND = new Color(150, 75, 0);
+
     public Color getCellColor(Character c) {
         Color color = switch (c) {
             case 'r' -> Color.RED;
@@ -11,7 +13,7 @@ public class ColorTheme {
             case 'y' -> Color.YELLOW;
             case 'b' -> Color.BLUE;
             case 'w' -> Color.GRAY;
-            case '-' -> new Color(150, 75, 0);
+            case '-' -> GROUND;
 
             default -> throw new IllegalArgumentException(
                     "No available color for '" + c + "'");
@@ -1,8 +1,10 @@
 package no.game.view;
 
+import javax.swing.AbstractAction;
 import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JPanel;
+import javax.swing.KeyStroke;
 import java.awt.Color;
 import java.awt.Cursor;
 import java.awt.Dimension;
@@ -13,24 +15,22 @@ import java.awt.Image;
 import java.awt.Point;
 import java.awt.geom.Rectangle2D;
 import java.awt.Rectangle;
+import java.awt.Transparency;
 import java.util.List;
+import java.util.function.Consumer;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseMotionAdapter;
 
 import no.game.model.GameModel;
 import no.game.model.GameState;
 import no.game.model.Projectile;
-import no.game.model.enemy.CircleEnemy;
-import no.game.model.enemy.BasicEnemy;
 import no.game.model.enemy.IEnemy;
-import no.game.model.enemy.TriangleEnemy;
-import no.game.model.tower.BasicTower;
-import no.game.model.tower.SlowTower;
-import no.game.model.tower.SniperTower;
 import no.game.model.tower.Tower;
 import no.game.model.tower.TowerType;
+import no.game.stats.TickStats;
 import no.grid.CellPosition;
-import no.grid.GridCell;
 import no.grid.GridDimension;
 
 public class GameView extends JPanel {
@@ -44,21 +44,40 @@ public class GameView extends JPanel {
     private CellPosition hoveredCell = null;
     private TowerType hoveredTowerType = null;
     private boolean isPlacingTower = false;
-    private Rectangle2D shopBounds;
     private CellPosition towerMenuPosition = null;
+    private UiLayout layout;
 
-    private Rectangle2D baseTowerBox;
-    private Rectangle2D sniperBox;
-    private Rectangle2D slowBox;
-    private Rectangle2D aoeBox;
     private JButton startWaveButton;
     private JButton pauseButton;
-    private Class<? extends Tower> placingTowerType;
+    private TowerType placingTowerType;
 
     private final Image basicEnemyImage = loadImage("basic_enemy.png");
     private final Image circleEnemyImage = loadImage("circle_enemy.png");
     private final Image triangleEnemyImage = loadImage("triangle_enemy.png");
 
+    // Sprites at the size of a cell for the board, and at the size of a box
+    // for the shop.
+    private final SpriteCache cellSprites = new SpriteCache(
+            new Image[] { basicEnemyImage, circleEnemyImage, triangleEnemyImage });
+    private final SpriteCache shopSprites = new SpriteCache(
+            new Image[] { basicEnemyImage, circleEnemyImage, triangleEnemyImage });
+
+    // The frame is composed of layers: the board only changes when a map is
+    // chosen and the towers only when one is placed, sold or upgraded, so
+    // both are cached as images. Enemies and projectiles move every tick
+    // and are drawn directly on top.
+    private final RenderLayer boardLayer = new RenderLayer(Transparency.OPAQUE);
+    private final RenderLayer towerLayer = new RenderLayer(Transparency.TRANSLUCENT);
+    private final Consumer<Graphics2D> boardPainter = this::paintBoard;
+    private final Consumer<Graphics2D> towerPainter = this::paintTowers;
+
+    // Reused for every cell drawn, so painting a frame does not allocate a
+    // rectangle per enemy or tower.
+    private final Rectangle2D.Double scratch = new Rectangle2D.Double();
+
+    private final PerformanceOverlay overlay = new PerformanceOverlay();
+    private boolean overlayVisible;
+
     public GameView(ViewableGameModel viewableTetrisModel) {
         this.viewableTetrisModel = viewableTetrisModel;
         this.colorTheme = new ColorTheme();
@@ -71,7 +90,9 @@ public class GameView extends JPanel {
         startWaveButton.setBounds(getWidth() - 150, 50, 130, 30);
         startWaveButton.addActionListener(e -> {
             if (viewableTetrisModel instanceof GameModel model) {
-                model.setGameState();
+                synchronized (model) {
+                    model.setGameState();
+                }
                 pauseButton.setVisible(true);
                 repaint();
             }
@@ -83,12 +104,22 @@ public class GameView extends JPanel {
         pauseButton.setBounds(getWidth() - 150, 100, 130, 30);
         pauseButton.addActionListener(e -> {
             if (viewableTetrisModel instanceof GameModel model) {
-                model.pauseGameState();
+                synchronized (model) {
+                    model.pauseGameState();
+                }
                 repaint();
             }
         });
         add(pauseButton);
 
+        getInputMap(WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(KeyEvent.VK_F3, 0), "toggleOverlay");
+        getActionMap().put("toggleOverlay", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                setOverlayVisible(!overlayVisible);
+            }
+        });
+
         addMouseMotionListener(new MouseMotionAdapter() {
             @Override
             public void mouseMoved(MouseEvent hover) {
@@ -98,27 +129,24 @@ public class GameView extends JPanel {
                     setCursor(Cursor.getDefaultCursor());
                 }
 
+                UiLayout layout = getUiLayout();
+                UiElement element = layout.elementAt(hover.getX(), hover.getY(),
+                        viewableTetrisModel.getGameState() == GameState.CHOOSE, towerMenuPosition);
+                TowerType towerType = element.getTowerType();
+                CellPosition cell = hoveredCell;
                 if (!isPlacingTower) {
-                    hoveredCell = null;
-                    repaint();
-                    return;
+                    cell = null;
+                } else if (element != UiElement.SHOP && towerType == null) {
+                    cell = layout.cellAt(hover.getX(), hover.getY(), hoveredCell);
                 }
 
-                if (shopBounds.contains(hover.getPoint())) {
-                    return;
+                // The tower info follows the mouse, so it is drawn again on
+                // every move while it is shown.
+                if (towerType != hoveredTowerType || towerType != null || cell != hoveredCell) {
+                    hoveredTowerType = towerType;
+                    hoveredCell = cell;
+                    repaint();
                 }
-
-                Rectangle2D box = new Rectangle2D.Double(
-                        OUTERMARGIN,
-                        OUTERMARGIN,
-                        getWidth() - OUTERMARGIN * 2,
-                        getHeight() - OUTERMARGIN * 2);
-                CellPositionToPixelConverter converter = new CellPositionToPixelConverter(
-                        box,
-                        viewableTetrisModel.getDimension(),
-                        CELLMARGIN);
-                hoveredCell = converter.getCellFromPixel(hover.getX(), hover.getY());
-                repaint();
             }
         });
     }
@@ -127,6 +155,53 @@ public class GameView extends JPanel {
     public void paintComponent(Graphics g) {
         super.paintComponent(g);
         Graphics2D g2 = (Graphics2D) g;
+
+        boolean timed = overlayVisible && viewableTetrisModel instanceof GameModel;
+        long start = timed ? System.nanoTime() : 0;
+        long allocated = timed ? TickStats.currentThreadAllocatedBytes() : 0;
+
+        // The model is updated on the simulation thread, so hold its monitor
+        // while painting to get a consistent frame.
+        synchronized (viewableTetrisModel) {
+            paintFrame(g2);
+            if (timed) {
+                overlay.draw(g2, (GameModel) viewableTetrisModel, OUTERMARGIN + 10, OUTERMARGIN + 40);
+            }
+        }
+        if (timed) {
+            overlay.paintEnded(start, allocated);
+        }
+    }
+
+    /**
+     * Shows or hides the performance overlay, which can also be toggled with
+     * F3. Showing it starts timing the ticks of the model if nothing does
+     * yet.
+     *
+     * @param visible true to show the overlay
+     */
+    public void setOverlayVisible(boolean visible) {
+        if (visible && viewableTetrisModel instanceof GameModel model) {
+            synchronized (model) {
+                if (model.getTickStats() == null) {
+                    model.setTickStats(new TickStats());
+                }
+            }
+        }
+        this.overlayVisible = visible;
+        repaint();
+    }
+
+    /**
+     * Returns whether the performance overlay is shown.
+     *
+     * @return true if the overlay is visible
+     */
+    public boolean isOverlayVisible() {
+        return overlayVisible;
+    }
+
+    private void paintFrame(Graphics2D g2) {
         drawGame(g2);
 
         int y = OUTERMARGIN + 40;
@@ -142,41 +217,34 @@ public class GameView extends JPanel {
 
             // --- Sell button ---
             Rectangle2D sellButton = buttons[0];
-            g.setColor(Color.RED);
-            g.fillRect((int) sellButton.getX(), (int) sellButton.getY(),
+            g2.setColor(Color.RED);
+            g2.fillRect((int) sellButton.getX(), (int) sellButton.getY(),
                     (int) sellButton.getWidth(), (int) sellButton.getHeight());
-            g.setColor(Color.WHITE);
-            g.drawString("Sell", (int) sellButton.getX() + 10, (int) sellButton.getY() + 17);
+            g2.setColor(Color.WHITE);
+            g2.drawString("Sell", (int) sellButton.getX() + 10, (int) sellButton.getY() + 17);
 
             // --- Upgrade button ---
             Rectangle2D upgradeButton = buttons[1];
-            g.setColor(Color.BLUE);
-            g.fillRect((int) upgradeButton.getX(), (int) upgradeButton.getY(),
+            g2.setColor(Color.BLUE);
+            g2.fillRect((int) upgradeButton.getX(), (int) upgradeButton.getY(),
                     (int) upgradeButton.getWidth() + 12, (int) upgradeButton.getHeight());
-            g.setColor(Color.WHITE);
-            g.drawString("Upgrade", (int) upgradeButton.getX() + 5, (int) upgradeButton.getY() + 17);
+            g2.setColor(Color.WHITE);
+            g2.drawString("Upgrade", (int) upgradeButton.getX() + 5, (int) upgradeButton.getY() + 17);
         }
     }
 
     private void drawGame(Graphics2D g2) {
-        Rectangle2D box = new Rectangle2D.Double(
-                OUTERMARGIN,
-                OUTERMARGIN,
-                this.getWidth() - OUTERMARGIN * 2,
-                this.getHeight() - OUTERMARGIN * 2);
-        g2.setColor(colorTheme.getFrameColor());
-        g2.fill(box);
-
-        CellPositionToPixelConverter converter = new CellPositionToPixelConverter(box,
-                viewableTetrisModel.getDimension(), CELLMARGIN);
+        CellPositionToPixelConverter converter = getUiLayout().getConverter();
+        cellSprites.validate(getGraphicsConfiguration(), (int) converter.getCellWidth(),
+                (int) converter.getCellHeight());
 
-        drawCells(g2, viewableTetrisModel.getTilesOnBoard(), converter, colorTheme);
+        boardLayer.draw(g2, getGraphicsConfiguration(), getWidth(), getHeight(),
+                viewableTetrisModel.getBoardVersion(), boardPainter);
         drawHUD(g2);
 
-        drawTowers(g2, ((GameModel) viewableTetrisModel).getTowers(), converter);
-
-        if (viewableTetrisModel instanceof GameModel) {
-            GameModel gameModel = (GameModel) viewableTetrisModel;
+        if (viewableTetrisModel instanceof GameModel gameModel) {
+            towerLayer.draw(g2, getGraphicsConfiguration(), getWidth(), getHeight(),
+                    gameModel.getTowerVersion(), towerPainter);
             drawEnemies(g2, gameModel.getEnemies(), converter);
         }
         drawHoverCell(g2, converter);
@@ -245,15 +313,22 @@ public class GameView extends JPanel {
         }
     }
 
-    private static void drawCells(Graphics2D g2, Iterable<GridCell> iterable,
-            CellPositionToPixelConverter converter, ColorTheme colorTheme) {
-        for (GridCell cell : iterable) {
-            CellPosition pos = cell.pos();
-            Character c = cell.symbol();
-            Rectangle2D tile = converter.getBoundsForCell(pos);
+    private void paintBoard(Graphics2D layer) {
+        layer.setColor(colorTheme.getFrameColor());
+        layer.fillRect(OUTERMARGIN, OUTERMARGIN, getWidth() - OUTERMARGIN * 2, getHeight() - OUTERMARGIN * 2);
+        CellPositionToPixelConverter converter = getUiLayout().getConverter();
+        Rectangle2D.Double tile = scratch;
+        viewableTetrisModel.visitTilesOnBoard((row, col, symbol) -> {
+            tile.setRect(converter.getCellX(col), converter.getCellY(row),
+                    converter.getCellWidth(), converter.getCellHeight());
+            layer.setColor(colorTheme.getCellColor(symbol));
+            layer.fill(tile);
+        });
+    }
 
-            g2.setColor(colorTheme.getCellColor(c));
-            g2.fill(tile);
+    private void paintTowers(Graphics2D layer) {
+        if (viewableTetrisModel instanceof GameModel model) {
+            drawTowers(layer, model.getTowers(), getUiLayout().getConverter());
         }
     }
 
@@ -299,26 +374,14 @@ public class GameView extends JPanel {
     }
 
     private void drawEnemies(Graphics2D g2, List<IEnemy> enemies, CellPositionToPixelConverter converter) {
+        double width = converter.getCellWidth();
+        double height = converter.getCellHeight();
         for (IEnemy enemy : enemies) {
-            Rectangle2D rect = converter.getBoundsForCell(enemy.getPosition());
-
-            Image img;
-            if (enemy instanceof TriangleEnemy) {
-                img = triangleEnemyImage;
-            } else if (enemy instanceof CircleEnemy) {
-                img = circleEnemyImage;
-            } else if (enemy instanceof BasicEnemy) {
-                img = basicEnemyImage;
-            } else {
-                img = basicEnemyImage;
-            }
+            CellPosition pos = enemy.getPosition();
+            double x = converter.getCellX(pos.col());
+            double y = converter.getCellY(pos.row());
 
-            g2.drawImage(img,
-                    (int) rect.getX(),
-                    (int) rect.getY(),
-                    (int) rect.getWidth(),
-                    (int) rect.getHeight(),
-                    null);
+            cellSprites.drawEnemy(g2, enemy.getType(), (int) x, (int) y);
 
             // Draw health bar
             double barHeight = 4;
@@ -326,28 +389,23 @@ public class GameView extends JPanel {
             double maxHealth = enemy.getMaxHealth();
             double healthRatio = (double) enemy.getHealth() / maxHealth;
 
-            double barWidth = Math.min(rect.getWidth(), rect.getWidth() * healthRatio);
+            double barWidth = Math.min(width, width * healthRatio);
 
             g2.setColor(Color.GREEN);
-            g2.fill(new Rectangle2D.Double(
-                    rect.getX(),
-                    rect.getY() - barHeight - padding,
+            scratch.setRect(
+                    x,
+                    y - barHeight - padding,
                     barWidth,
-                    barHeight));
+                    barHeight);
+            g2.fill(scratch);
         }
     }
 
     private void drawTowers(Graphics2D g2, List<Tower> towers, CellPositionToPixelConverter converter) {
         for (Tower tower : towers) {
-            Rectangle2D rect = converter.getBoundsForCell(tower.getPosition());
-            Color color = switch (tower.getClass().getSimpleName()) {
-                case "SniperTower" -> Color.GREEN;
-                case "SlowTower" -> Color.CYAN;
-                case "BasicTower" -> Color.BLUE;
-                case "AoeTower" -> Color.ORANGE;
-                default -> Color.BLUE;
-            };
-            drawTowerShape(g2, rect, tower.getClass(), color);
+            CellPosition pos = tower.getPosition();
+            cellSprites.drawTower(g2, TowerType.of(tower),
+                    (int) converter.getCellX(pos.col()), (int) converter.getCellY(pos.row()));
         }
     }
 
@@ -356,19 +414,9 @@ public class GameView extends JPanel {
             return;
         }
 
-        char tileSymbol = model.getBoard().get(hoveredCell);
-        boolean isPath = tileSymbol == 'w';
-        boolean hasTower = model.getTowers().stream().anyMatch(t -> t.getPosition().equals(hoveredCell));
-
-        if (!isPath && !hasTower) {
-            Rectangle2D rect = converter.getBoundsForCell(hoveredCell);
-            Color color = switch (placingTowerType.getSimpleName()) {
-                case "SniperTower" -> Color.GREEN;
-                case "SlowTower" -> Color.CYAN;
-                case "AoeTower" -> Color.ORANGE;
-                default -> Color.BLUE;
-            };
-            drawTowerShape(g2, rect, placingTowerType, color);
+        if (model.getBoard().canPlaceTower(hoveredCell)) {
+            cellSprites.drawTower(g2, placingTowerType,
+                    (int) converter.getCellX(hoveredCell.col()), (int) converter.getCellY(hoveredCell.row()));
         }
     }
 
@@ -376,10 +424,10 @@ public class GameView extends JPanel {
         g2.setColor(Color.WHITE);
 
         for (Projectile projectile : projectiles) {
-            Rectangle2D rect = converter.getBoundsForCell(projectile.getPosition());
+            CellPosition pos = projectile.getPosition();
 
-            int x = (int) rect.getX() + (int) (rect.getWidth() / 2);
-            int y = (int) rect.getY() + (int) (rect.getHeight() / 2);
+            int x = (int) converter.getCellX(pos.col()) + (int) (converter.getCellWidth() / 2);
+            int y = (int) converter.getCellY(pos.row()) + (int) (converter.getCellHeight() / 2);
             int radius = 5;
 
             g2.fillOval(x - radius, y - radius, radius * 2, radius * 2);
@@ -387,12 +435,8 @@ public class GameView extends JPanel {
     }
 
     private void drawShop(Graphics2D g2) {
-        double shopHeight = 80;
-        shopBounds = new Rectangle2D.Double(
-                OUTERMARGIN,
-                getHeight() - shopHeight,
-                getWidth() - OUTERMARGIN * 2,
-                shopHeight);
+        UiLayout layout = getUiLayout();
+        Rectangle2D shopBounds = layout.getShopBounds();
 
         g2.setColor(new Color(30, 30, 30));
         g2.fill(shopBounds);
@@ -400,75 +444,35 @@ public class GameView extends JPanel {
         g2.setColor(Color.WHITE);
         g2.draw(shopBounds);
 
-        int padding = 15;
-        baseTowerBox = new Rectangle2D.Double(
-                shopBounds.getX() + padding,
-                shopBounds.getY() + padding,
-                40,
-                40);
-
-        sniperBox = new Rectangle2D.Double(
-                baseTowerBox.getMaxX() + padding,
-                shopBounds.getY() + padding,
-                40,
-                40);
-
-        slowBox = new Rectangle2D.Double(
-                sniperBox.getMaxX() + padding,
-                shopBounds.getY() + padding,
-                40,
-                40);
-
-        aoeBox = new Rectangle2D.Double(
-                slowBox.getMaxX() + padding,
-                shopBounds.getY() + padding,
-                40,
-                40);
+        Rectangle2D box = layout.getShopBox(UiElement.SHOP_BASIC);
+        shopSprites.validate(getGraphicsConfiguration(), (int) box.getWidth(), (int) box.getHeight());
 
         // Basic Tower
-        drawTowerShape(g2, baseTowerBox, TowerType.BASIC.getTowerClass(), Color.BLUE);
+        Rectangle2D baseTowerBox = layout.getShopBox(UiElement.SHOP_BASIC);
+        shopSprites.drawTower(g2, TowerType.BASIC, (int) baseTowerBox.getX(), (int) baseTowerBox.getY());
         g2.setColor(Color.WHITE);
         g2.draw(baseTowerBox);
 
         // Sniper Tower
-        drawTowerShape(g2, sniperBox, TowerType.SNIPER.getTowerClass(), Color.GREEN);
+        Rectangle2D sniperBox = layout.getShopBox(UiElement.SHOP_SNIPER);
+        shopSprites.drawTower(g2, TowerType.SNIPER, (int) sniperBox.getX(), (int) sniperBox.getY());
         g2.setColor(Color.WHITE);
         g2.draw(sniperBox);
 
         // Slow Tower
-        drawTowerShape(g2, slowBox, TowerType.SLOW.getTowerClass(), Color.CYAN);
+        Rectangle2D slowBox = layout.getShopBox(UiElement.SHOP_SLOW);
+        shopSprites.drawTower(g2, TowerType.SLOW, (int) slowBox.getX(), (int) slowBox.getY());
         g2.setColor(Color.WHITE);
         g2.draw(slowBox);
 
         // AOE Tower
-        drawTowerShape(g2, aoeBox, TowerType.AOE.getTowerClass(), Color.ORANGE);
+        Rectangle2D aoeBox = layout.getShopBox(UiElement.SHOP_AOE);
+        shopSprites.drawTower(g2, TowerType.AOE, (int) aoeBox.getX(), (int) aoeBox.getY());
         g2.setColor(Color.WHITE);
         g2.draw(aoeBox);
 
         g2.setFont(new Font("Monospaced", Font.BOLD, 14));
         g2.drawString("Klikk for å kjøpe tårn", (int) (aoeBox.getMaxX() + 10), (int) (aoeBox.getY() + 25));
-
-        addMouseMotionListener(new MouseMotionAdapter() {
-            @Override
-            public void mouseMoved(MouseEvent e) {
-                Point point = e.getPoint();
-
-                if (baseTowerBox.contains(point)) {
-                    hoveredTowerType = TowerType.BASIC;
-                } else if (sniperBox.contains(point)) {
-                    hoveredTowerType = TowerType.SNIPER;
-                } else if (slowBox.contains(point)) {
-                    hoveredTowerType = TowerType.SLOW;
-                } else if (aoeBox.contains(point)) {
-                    hoveredTowerType = TowerType.AOE;
-                } else {
-                    hoveredTowerType = null;
-                }
-
-                repaint();
-            }
-        });
-
     }
 
     private void drawTowerInfo(Graphics2D g2, TowerType towerType) {
@@ -521,25 +525,6 @@ public class GameView extends JPanel {
 
     }
 
-    private void drawTowerShape(Graphics2D g2, Rectangle2D rect, Class<?> towerClass, Color color) {
-        g2.setColor(color);
-        if (towerClass == SniperTower.class) {
-            int x1 = (int) rect.getCenterX();
-            int y1 = (int) rect.getY();
-            int x2 = (int) rect.getX();
-            int y2 = (int) rect.getMaxY();
-            int x3 = (int) rect.getMaxX();
-            int y3 = (int) rect.getMaxY();
-            g2.fillPolygon(new int[] { x1, x2, x3 }, new int[] { y1, y2, y3 }, 3);
-        } else if (towerClass == SlowTower.class) {
-            g2.fillOval((int) rect.getX(), (int) rect.getY(), (int) rect.getWidth(), (int) rect.getHeight());
-        } else if (towerClass == BasicTower.class) {
-            g2.fill(rect);
-        } else {
-            g2.fill(rect);
-        }
-    }
-
     /**
      * Returns whether the player is currently placing a tower.
      *
@@ -571,7 +556,7 @@ public class GameView extends JPanel {
      * @return a Rectangle2D representing the shop bounds
      */
     public Rectangle2D getShopBounds() {
-        return shopBounds;
+        return getUiLayout().getShopBounds();
     }
 
     /**
@@ -580,7 +565,7 @@ public class GameView extends JPanel {
      * @return a Rectangle2D representing the base tower box
      */
     public Rectangle2D getBaseTowerBox() {
-        return baseTowerBox;
+        return getUiLayout().getShopBox(UiElement.SHOP_BASIC);
     }
 
     /**
@@ -589,7 +574,7 @@ public class GameView extends JPanel {
      * @return a Rectangle2D representing the sniper tower box
      */
     public Rectangle2D getSniperTowerBox() {
-        return sniperBox;
+        return getUiLayout().getShopBox(UiElement.SHOP_SNIPER);
     }
 
     /**
@@ -598,11 +583,11 @@ public class GameView extends JPanel {
      * @return a Rectangle2D representing the slow tower box
      */
     public Rectangle2D getSlowTowerBox() {
-        return slowBox;
+        return getUiLayout().getShopBox(UiElement.SHOP_SLOW);
     }
 
     public Rectangle2D getAOETowerBox() {
-        return aoeBox;
+        return getUiLayout().getShopBox(UiElement.SHOP_AOE);
     }
 
     /**
@@ -611,7 +596,14 @@ public class GameView extends JPanel {
      * @param towerType the Class of the tower being placed
      */
     public void setPlacingTowerType(Class<? extends Tower> towerType) {
-        this.placingTowerType = towerType;
+        // A class of no known type, such as the Tower base class, is shown
+        // as a basic tower.
+        this.placingTowerType = TowerType.BASIC;
+        for (TowerType type : TowerType.values()) {
+            if (type.getTowerClass() == towerType) {
+                this.placingTowerType = type;
+            }
+        }
     }
 
     /**
@@ -623,14 +615,20 @@ public class GameView extends JPanel {
      * @return a Rectangle for the map button
      */
     public Rectangle getMapButton(int index) {
-        int buttonWidth = 150;
-        int buttonHeight = 50;
-        int x = getWidth() / 2 - buttonWidth / 2;
-        int baseY = getHeight() / 2 + 30;
-        int gap = 70;
+        return getUiLayout().getMapButton(index);
+    }
 
-        int y = baseY + (index - 1) * gap;
-        return new Rectangle(x, y, buttonWidth, buttonHeight);
+    /**
+     * Returns the layout of the view at its current size. The layout is
+     * computed again only when the view has been resized.
+     *
+     * @return the layout of the clickable parts of the view
+     */
+    public UiLayout getUiLayout() {
+        if (layout == null || !layout.fits(getWidth(), getHeight())) {
+            layout = new UiLayout(getWidth(), getHeight(), viewableTetrisModel.getDimension());
+        }
+        return layout;
     }
 
     private Image loadImage(String filename) {
@@ -661,27 +659,7 @@ public class GameView extends JPanel {
     }
 
     public Rectangle2D[] getButtonBoxes(CellPosition cell) {
-        Rectangle2D boardBox = new Rectangle2D.Double(
-                OUTERMARGIN, OUTERMARGIN,
-                getWidth() - OUTERMARGIN * 2,
-                getHeight() - OUTERMARGIN * 2);
-
-        CellPositionToPixelConverter converter = new CellPositionToPixelConverter(
-                boardBox, viewableTetrisModel.getDimension(), CELLMARGIN);
-
-        Point towerCenter = converter.getCellCenter(cell);
-
-        int width = 60;
-        int height = 25;
-        int spacing = 5; // space between buttons
-        int y = towerCenter.y - 50;
-
-        Rectangle2D sellButton = new Rectangle2D.Double(
-                towerCenter.x - width - spacing / 2, y, width, height);
-        Rectangle2D upgradeButton = new Rectangle2D.Double(
-                towerCenter.x + spacing / 2, y, width, height);
-
-        return new Rectangle2D[] { sellButton, upgradeButton };
+        return getUiLayout().getMenuButtons(cell);
     }
 
-}
\ No newline at end of file
+}
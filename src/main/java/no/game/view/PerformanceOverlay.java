@@ -0,0 +1,104 @@
+package no.game.view;
+
+import no.game.model.GameModel;
+import no.game.stats.TickPhase;
+import no.game.stats.TickStats;
+import no.game.stats.TimingWindow;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A panel drawn over the game with the timings of the simulation and of
+ * painting, so it is easy to see which of them a slowdown comes from.
+ *
+ * It shows the ticks per second, the median and 99th percentile time of a
+ * tick and of each {@link TickPhase}, the same for painting a frame, the
+ * number of enemies, towers and projectiles, and how fast the simulation
+ * and painting allocate. The text is only computed again a few times per
+ * second, so the overlay itself costs little on the frames in between.
+ */
+final class PerformanceOverlay {
+
+    private static final long REFRESH_NANOS = 250_000_000L;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final Font FONT = new Font("Monospaced", Font.PLAIN, 12);
+    private static final Color BACKGROUND = new Color(0, 0, 0, 180);
+    private static final int LINE_HEIGHT = 15;
+
+    private final TimingWindow paints = new TimingWindow(TickStats.WINDOW);
+    private final List<String> lines = new ArrayList<>();
+    private long refreshedAt;
+
+    /**
+     * Records the time and allocations of painting one frame.
+     *
+     * @param startNanos     when painting started, from System.nanoTime()
+     * @param allocatedStart how many bytes the painting thread had allocated
+     *                       when painting started, or -1 if unknown
+     */
+    void paintEnded(long startNanos, long allocatedStart) {
+        long now = System.nanoTime();
+        long allocated = allocatedStart < 0 ? 0 : TickStats.currentThreadAllocatedBytes() - allocatedStart;
+        paints.record(now, now - startNanos, allocated);
+    }
+
+    /**
+     * Draws the overlay. Must be called while holding the model's monitor.
+     *
+     * @param g2    the graphics to draw on
+     * @param model the game
+     * @param x     the x coordinate of the top left corner
+     * @param y     the y coordinate of the top left corner
+     */
+    void draw(Graphics2D g2, GameModel model, int x, int y) {
+        long now = System.nanoTime();
+        if (lines.isEmpty() || now - refreshedAt >= REFRESH_NANOS) {
+            refresh(model, now);
+            refreshedAt = now;
+        }
+
+        g2.setFont(FONT);
+        int width = 0;
+        for (String line : lines) {
+            width = Math.max(width, g2.getFontMetrics().stringWidth(line));
+        }
+        g2.setColor(BACKGROUND);
+        g2.fillRoundRect(x, y, width + 20, lines.size() * LINE_HEIGHT + 10, 10, 10);
+        g2.setColor(Color.WHITE);
+        for (int i = 0; i < lines.size(); i++) {
+            g2.drawString(lines.get(i), x + 10, y + 5 + (i + 1) * LINE_HEIGHT - 3);
+        }
+    }
+
+    private void refresh(GameModel model, long now) {
+        lines.clear();
+        TickStats stats = model.getTickStats();
+        if (stats == null) {
+            lines.add("ticks not timed");
+        } else {
+            lines.add(String.format(Locale.ROOT, "ticks/s %d  (%d ticks)", stats.getTicksPerSecond(now),
+                    stats.getTickCount()));
+            lines.add(timing("tick", stats.getTicks()));
+            for (TickPhase phase : TickPhase.values()) {
+                lines.add(timing("  " + phase.name().toLowerCase(Locale.ROOT), stats.getPhase(phase)));
+            }
+        }
+        lines.add(timing("paint", paints));
+        lines.add(String.format(Locale.ROOT, "enemies %d  towers %d  projectiles %d",
+                model.getEnemies().size(), model.getTowers().size(), model.getProjectiles().size()));
+        long simAllocated = stats == null ? 0 : stats.getAllocatedBytesPerSecond(now);
+        long paintAllocated = paints.allocatedSince(now - NANOS_PER_SECOND);
+        lines.add(String.format(Locale.ROOT, "alloc sim %.1f MB/s  paint %.1f MB/s",
+                simAllocated / 1e6, paintAllocated / 1e6));
+    }
+
+    private static String timing(String label, TimingWindow window) {
+        return String.format(Locale.ROOT, "%-14s p50 %7.3f ms  p99 %7.3f ms", label,
+                window.percentile(50) / 1e6, window.percentile(99) / 1e6);
+    }
+}
@@ -0,0 +1,114 @@
+package no.game.view;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.function.Consumer;
+
+/**
+ * One cached layer of a frame. The layer is painted into an off-screen
+ * image once and then copied to the screen on every frame, until the size
+ * of the view or the stamp of what it shows changes.
+ *
+ * The image is made compatible with the screen when the view knows its
+ * graphics configuration, so Java2D can keep a copy of it in video memory
+ * and the copy is a single blit. Like the sprites of {@link SpriteCache},
+ * it is painted at the size of the layer in device pixels, so it stays
+ * sharp on a HiDPI screen, and painted again when the view moves to
+ * another screen.
+ */
+final class RenderLayer {
+
+    private final int transparency;
+    private BufferedImage image;
+    private long stamp;
+    private GraphicsConfiguration gc;
+    private int width;
+    private int height;
+    private double scaleX = 1;
+    private double scaleY = 1;
+
+    /**
+     * Creates an empty layer.
+     *
+     * @param transparency one of {@link Transparency#OPAQUE},
+     *                     {@link Transparency#BITMASK} or
+     *                     {@link Transparency#TRANSLUCENT}
+     */
+    RenderLayer(int transparency) {
+        this.transparency = transparency;
+    }
+
+    /**
+     * Draws the layer, first painting it again if the size, the screen or
+     * the stamp has changed since it was last painted. The painter paints in
+     * user space, as on the view itself.
+     *
+     * @param g2      the graphics to draw the layer on
+     * @param gc      the configuration of the screen, or null if unknown
+     * @param width   the width of the layer
+     * @param height  the height of the layer
+     * @param stamp   a value that changes whenever what the layer shows
+     *                changes
+     * @param painter paints the content of the layer on a cleared image
+     */
+    void draw(Graphics2D g2, GraphicsConfiguration gc, int width, int height, long stamp,
+            Consumer<Graphics2D> painter) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        if (image == null || gc != this.gc || width != this.width || height != this.height) {
+            // The default transform of a HiDPI screen scales user space to
+            // device pixels, so the layer is painted at the device size.
+            AffineTransform transform = gc == null ? new AffineTransform() : gc.getDefaultTransform();
+            scaleX = transform.getScaleX();
+            scaleY = transform.getScaleY();
+            this.gc = gc;
+            this.width = width;
+            this.height = height;
+            image = createImage((int) Math.ceil(width * scaleX), (int) Math.ceil(height * scaleY));
+        } else if (this.stamp == stamp) {
+            drawImage(g2);
+            return;
+        }
+
+        Graphics2D layer = image.createGraphics();
+        try {
+            if (transparency != Transparency.OPAQUE) {
+                layer.setComposite(AlphaComposite.Clear);
+                layer.fillRect(0, 0, image.getWidth(), image.getHeight());
+                layer.setComposite(AlphaComposite.SrcOver);
+            }
+            layer.scale(scaleX, scaleY);
+            painter.accept(layer);
+        } finally {
+            layer.dispose();
+        }
+        this.stamp = stamp;
+        drawImage(g2);
+    }
+
+    /**
+     * Draws the image at the size of the layer in user space. On a scaled
+     * screen, scaling it down by the inverse of the screen's scale makes
+     * the copy pixel for pixel again.
+     */
+    private void drawImage(Graphics2D g2) {
+        if (image.getWidth() == width && image.getHeight() == height) {
+            g2.drawImage(image, 0, 0, null);
+        } else {
+            g2.drawImage(image, 0, 0, width, height, null);
+        }
+    }
+
+    private BufferedImage createImage(int width, int height) {
+        if (gc != null) {
+            return gc.createCompatibleImage(width, height, transparency);
+        }
+        int type = transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+        return new BufferedImage(width, height, type);
+    }
+}
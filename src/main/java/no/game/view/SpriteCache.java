@@ -0,0 +1,156 @@
+package no.game.view;
+
+import no.game.model.enemy.EnemyType;
+import no.game.model.tower.TowerType;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * Enemy images and tower shapes rendered once at the size they are drawn
+ * at, in the format of the screen.
+ *
+ * Drawing an image at another size than its own makes Java2D scale it on
+ * every call, which dominates a frame with thousands of enemies. The cache
+ * instead scales each image once, the first time it is drawn at a size,
+ * and after that every draw is a plain copy. When the size or the scale of
+ * the screen changes, all sprites are rendered again.
+ */
+final class SpriteCache {
+
+    private final Image[] enemyImages;
+    private final BufferedImage[] enemySprites = new BufferedImage[EnemyType.values().length];
+    private final BufferedImage[] towerSprites = new BufferedImage[TowerType.values().length];
+
+    private GraphicsConfiguration gc;
+    private int width;
+    private int height;
+    private double scaleX = 1;
+    private double scaleY = 1;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param enemyImages the image of each enemy type, indexed by ordinal;
+     *                    an image may be null if it could not be loaded
+     */
+    SpriteCache(Image[] enemyImages) {
+        this.enemyImages = enemyImages;
+    }
+
+    /**
+     * Sets the size the sprites are drawn at, dropping every sprite if it
+     * or the screen has changed.
+     *
+     * @param gc     the configuration of the screen, or null if unknown
+     * @param width  the width of a sprite in user space
+     * @param height the height of a sprite in user space
+     */
+    void validate(GraphicsConfiguration gc, int width, int height) {
+        if (gc == this.gc && width == this.width && height == this.height) {
+            return;
+        }
+        if (gc != this.gc) {
+            // The default transform of a HiDPI screen scales user space to
+            // device pixels, so sprites are rendered at the device size.
+            AffineTransform transform = gc == null ? new AffineTransform() : gc.getDefaultTransform();
+            scaleX = transform.getScaleX();
+            scaleY = transform.getScaleY();
+        }
+        this.gc = gc;
+        this.width = width;
+        this.height = height;
+        Arrays.fill(enemySprites, null);
+        Arrays.fill(towerSprites, null);
+    }
+
+    /**
+     * Draws the sprite of an enemy type.
+     *
+     * @param g2   the graphics to draw on
+     * @param type the type of enemy
+     * @param x    the x coordinate of the top left corner
+     * @param y    the y coordinate of the top left corner
+     */
+    void drawEnemy(Graphics2D g2, EnemyType type, int x, int y) {
+        BufferedImage sprite = enemySprites[type.ordinal()];
+        if (sprite == null) {
+            Image image = enemyImages[type.ordinal()];
+            if (image == null || width <= 0 || height <= 0) {
+                return;
+            }
+            sprite = createSprite();
+            Graphics2D g = sprite.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(image, 0, 0, sprite.getWidth(), sprite.getHeight(), null);
+            g.dispose();
+            enemySprites[type.ordinal()] = sprite;
+        }
+        draw(g2, sprite, x, y);
+    }
+
+    /**
+     * Draws the shape of a tower type.
+     *
+     * @param g2   the graphics to draw on
+     * @param type the type of tower
+     * @param x    the x coordinate of the top left corner
+     * @param y    the y coordinate of the top left corner
+     */
+    void drawTower(Graphics2D g2, TowerType type, int x, int y) {
+        BufferedImage sprite = towerSprites[type.ordinal()];
+        if (sprite == null) {
+            if (width <= 0 || height <= 0) {
+                return;
+            }
+            sprite = createSprite();
+            Graphics2D g = sprite.createGraphics();
+            paintTowerShape(g, type, sprite.getWidth(), sprite.getHeight());
+            g.dispose();
+            towerSprites[type.ordinal()] = sprite;
+        }
+        draw(g2, sprite, x, y);
+    }
+
+    private void draw(Graphics2D g2, BufferedImage sprite, int x, int y) {
+        if (sprite.getWidth() == width && sprite.getHeight() == height) {
+            g2.drawImage(sprite, x, y, null);
+        } else {
+            g2.drawImage(sprite, x, y, width, height, null);
+        }
+    }
+
+    private BufferedImage createSprite() {
+        int w = (int) Math.ceil(width * scaleX);
+        int h = (int) Math.ceil(height * scaleY);
+        if (gc != null) {
+            return gc.createCompatibleImage(w, h, Transparency.TRANSLUCENT);
+        }
+        return new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    private static Color towerColor(TowerType type) {
+        return switch (type) {
+            case SNIPER -> Color.GREEN;
+            case SLOW -> Color.CYAN;
+            case BASIC -> Color.BLUE;
+            case AOE -> Color.ORANGE;
+        };
+    }
+
+    private static void paintTowerShape(Graphics2D g2, TowerType type, int width, int height) {
+        g2.setColor(towerColor(type));
+        switch (type) {
+            case SNIPER -> g2.fillPolygon(new int[] { width / 2, 0, width }, new int[] { 0, height, height }, 3);
+            case SLOW -> g2.fillOval(0, 0, width, height);
+            default -> g2.fillRect(0, 0, width, height);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package no.game.view;
+
+import no.game.model.MapType;
+import no.game.model.tower.TowerType;
+
+/**
+ * The parts of the game view that the player can point at, as answered by
+ * {@link UiLayout#elementAt(int, int, boolean, no.grid.CellPosition)}.
+ */
+public enum UiElement {
+    /** The box in the shop that buys a basic tower. */
+    SHOP_BASIC(TowerType.BASIC, null),
+    /** The box in the shop that buys a sniper tower. */
+    SHOP_SNIPER(TowerType.SNIPER, null),
+    /** The box in the shop that buys a slow tower. */
+    SHOP_SLOW(TowerType.SLOW, null),
+    /** The box in the shop that buys an aoe tower. */
+    SHOP_AOE(TowerType.AOE, null),
+    /** The shop bar outside of its boxes. */
+    SHOP(null, null),
+    /** The button that chooses the first map. */
+    MAP1_BUTTON(null, MapType.MAP1),
+    /** The button that chooses the second map. */
+    MAP2_BUTTON(null, MapType.MAP2),
+    /** The button that chooses the third map. */
+    MAP3_BUTTON(null, MapType.MAP3),
+    /** The sell button of the tower menu. */
+    SELL_BUTTON(null, null),
+    /** The upgrade button of the tower menu. */
+    UPGRADE_BUTTON(null, null),
+    /** A cell of the board. */
+    BOARD(null, null),
+    /** Nothing the player can interact with. */
+    NONE(null, null);
+
+    private final TowerType towerType;
+    private final MapType mapType;
+
+    UiElement(TowerType towerType, MapType mapType) {
+        this.towerType = towerType;
+        this.mapType = mapType;
+    }
+
+    /**
+     * Returns the tower bought by this element.
+     *
+     * @return the tower type of a shop box, or null for any other element
+     */
+    public TowerType getTowerType() {
+        return towerType;
+    }
+
+    /**
+     * Returns the map chosen by this element.
+     *
+     * @return the map type of a map button, or null for any other element
+     */
+    public MapType getMapType() {
+        return mapType;
+    }
+}
@@ -0,0 +1,279 @@
+package no.game.view;
+
+import no.grid.CellPosition;
+import no.grid.GridDimension;
+
+import java.awt.Rectangle;
+import java.awt.geom.Rectangle2D;
+
+/**
+ * The positions of everything the player can click in a game view of a
+ * given size: the board, the shop bar and its tower boxes, the map buttons
+ * and the buttons of the tower menu.
+ *
+ * A layout is computed once for a size and then answers what is under a
+ * point with a few comparisons. The shop boxes and the map buttons are laid
+ * out at a fixed stride, so the box under a point is found by division
+ * rather than by testing every box in turn.
+ */
+public class UiLayout {
+
+    private static final double SHOP_HEIGHT = 80;
+    private static final int SHOP_PADDING = 15;
+    private static final int SHOP_BOX_SIZE = 40;
+    private static final int SHOP_STRIDE = SHOP_BOX_SIZE + SHOP_PADDING;
+
+    private static final int MAP_BUTTON_WIDTH = 150;
+    private static final int MAP_BUTTON_HEIGHT = 50;
+    private static final int MAP_BUTTON_GAP = 70;
+
+    private static final int MENU_BUTTON_WIDTH = 60;
+    private static final int MENU_BUTTON_HEIGHT = 25;
+    private static final int MENU_BUTTON_SPACING = 5;
+    private static final int MENU_OFFSET = 50;
+
+    private static final UiElement[] SHOP_ELEMENTS = {
+            UiElement.SHOP_BASIC, UiElement.SHOP_SNIPER, UiElement.SHOP_SLOW, UiElement.SHOP_AOE };
+    private static final UiElement[] MAP_ELEMENTS = {
+            UiElement.MAP1_BUTTON, UiElement.MAP2_BUTTON, UiElement.MAP3_BUTTON };
+
+    private final int width;
+    private final int height;
+    private final CellPositionToPixelConverter converter;
+    private final Rectangle2D shopBounds;
+    private final Rectangle2D[] shopBoxes = new Rectangle2D[SHOP_ELEMENTS.length];
+    private final double shopBoxX;
+    private final double shopBoxY;
+    private final int mapButtonX;
+    private final int mapButtonY;
+    private final Rectangle[] mapButtons = new Rectangle[MAP_ELEMENTS.length];
+    private final Rectangle2D[] menuButtons = { new Rectangle2D.Double(), new Rectangle2D.Double() };
+    private CellPosition menuButtonsCell;
+    private final boolean[] rowUnderShop;
+
+    /**
+     * Lays out a view of the given size.
+     *
+     * @param width  the width of the view
+     * @param height the height of the view
+     * @param gd     the dimension of the board shown in the view
+     */
+    public UiLayout(int width, int height, GridDimension gd) {
+        this.width = width;
+        this.height = height;
+
+        Rectangle2D boardBox = new Rectangle2D.Double(
+                GameView.OUTERMARGIN,
+                GameView.OUTERMARGIN,
+                width - GameView.OUTERMARGIN * 2,
+                height - GameView.OUTERMARGIN * 2);
+        this.converter = new CellPositionToPixelConverter(boardBox, gd, GameView.CELLMARGIN);
+
+        this.shopBounds = new Rectangle2D.Double(
+                GameView.OUTERMARGIN,
+                height - SHOP_HEIGHT,
+                width - GameView.OUTERMARGIN * 2,
+                SHOP_HEIGHT);
+        this.shopBoxX = shopBounds.getX() + SHOP_PADDING;
+        this.shopBoxY = shopBounds.getY() + SHOP_PADDING;
+        for (int i = 0; i < shopBoxes.length; i++) {
+            shopBoxes[i] = new Rectangle2D.Double(shopBoxX + i * SHOP_STRIDE, shopBoxY, SHOP_BOX_SIZE, SHOP_BOX_SIZE);
+        }
+
+        this.mapButtonX = width / 2 - MAP_BUTTON_WIDTH / 2;
+        this.mapButtonY = height / 2 + 30;
+        for (int i = 0; i < mapButtons.length; i++) {
+            mapButtons[i] = new Rectangle(mapButtonX, mapButtonY + i * MAP_BUTTON_GAP, MAP_BUTTON_WIDTH,
+                    MAP_BUTTON_HEIGHT);
+        }
+
+        // A tower may not be placed on a cell the shop bar covers, even in
+        // part.
+        this.rowUnderShop = new boolean[gd.rows()];
+        for (int row = 0; row < gd.rows(); row++) {
+            rowUnderShop[row] = shopBounds.intersects(converter.getCellX(0), converter.getCellY(row),
+                    converter.getCellWidth(), converter.getCellHeight());
+        }
+    }
+
+    /**
+     * Returns whether this layout was computed for a view of the given size.
+     *
+     * @param width  the width of the view
+     * @param height the height of the view
+     * @return true if the layout fits the size
+     */
+    public boolean fits(int width, int height) {
+        return this.width == width && this.height == height;
+    }
+
+    /**
+     * Finds the element under a point. The map buttons are only there while
+     * the player chooses a map, and the buttons of the tower menu only while
+     * it is open. The shop boxes lie on top of the tower menu, which lies on
+     * top of the board.
+     *
+     * @param x        the x coordinate of the point
+     * @param y        the y coordinate of the point
+     * @param choosing whether the player is choosing a map
+     * @param menuCell the cell the tower menu is open for, or null if it is
+     *                 closed
+     * @return the element under the point, {@link UiElement#NONE} if there
+     *         is none
+     */
+    public UiElement elementAt(int x, int y, boolean choosing, CellPosition menuCell) {
+        if (choosing) {
+            int dy = y - mapButtonY;
+            int index = Math.floorDiv(dy, MAP_BUTTON_GAP);
+            if (index >= 0 && index < MAP_ELEMENTS.length && dy - index * MAP_BUTTON_GAP < MAP_BUTTON_HEIGHT
+                    && x >= mapButtonX && x < mapButtonX + MAP_BUTTON_WIDTH) {
+                return MAP_ELEMENTS[index];
+            }
+        }
+
+        double dy = y - shopBoxY;
+        if (dy >= 0 && dy < SHOP_BOX_SIZE) {
+            double dx = x - shopBoxX;
+            int index = (int) Math.floor(dx / SHOP_STRIDE);
+            if (index >= 0 && index < SHOP_ELEMENTS.length && dx - index * SHOP_STRIDE < SHOP_BOX_SIZE) {
+                return SHOP_ELEMENTS[index];
+            }
+        }
+        if (shopBounds.contains(x, y)) {
+            return UiElement.SHOP;
+        }
+
+        if (menuCell != null) {
+            int centerX = converter.getCenterX(menuCell.col());
+            int top = converter.getCenterY(menuCell.row()) - MENU_OFFSET;
+            if (y >= top && y < top + MENU_BUTTON_HEIGHT) {
+                int sellX = centerX - MENU_BUTTON_WIDTH - MENU_BUTTON_SPACING / 2;
+                int upgradeX = centerX + MENU_BUTTON_SPACING / 2;
+                if (x >= sellX && x < sellX + MENU_BUTTON_WIDTH) {
+                    return UiElement.SELL_BUTTON;
+                }
+                if (x >= upgradeX && x < upgradeX + MENU_BUTTON_WIDTH) {
+                    return UiElement.UPGRADE_BUTTON;
+                }
+            }
+        }
+
+        return converter.getColAt(x) >= 0 && converter.getRowAt(y) >= 0 ? UiElement.BOARD : UiElement.NONE;
+    }
+
+    /**
+     * Finds the cell of the board under a point, by table lookups in the
+     * converter.
+     *
+     * @param x the x coordinate of the point
+     * @param y the y coordinate of the point
+     * @return the cell, or null if the point is outside the board
+     */
+    public CellPosition cellAt(int x, int y) {
+        return converter.getCellFromPixel(x, y);
+    }
+
+    /**
+     * Finds the cell of the board under a point, reusing the position of the
+     * cell found before if the point is still in it, so following the mouse
+     * only makes a new position when it enters another cell.
+     *
+     * @param x        the x coordinate of the point
+     * @param y        the y coordinate of the point
+     * @param previous the cell found before, or null
+     * @return the cell, previous if it is the same cell, or null if the point
+     *         is outside the board
+     */
+    public CellPosition cellAt(int x, int y, CellPosition previous) {
+        int row = converter.getRowAt(y);
+        int col = converter.getColAt(x);
+        if (row < 0 || col < 0) {
+            return null;
+        }
+        if (previous != null && previous.row() == row && previous.col() == col) {
+            return previous;
+        }
+        return converter.getCell(row, col);
+    }
+
+    /**
+     * Returns whether the shop bar covers a cell, so no tower can be placed
+     * on it.
+     *
+     * @param cell a cell of the board
+     * @return true if the shop bar covers any part of the cell
+     */
+    public boolean isUnderShop(CellPosition cell) {
+        return rowUnderShop[cell.row()];
+    }
+
+    /**
+     * Returns the converter between cells and pixels for the board.
+     *
+     * @return the converter
+     */
+    public CellPositionToPixelConverter getConverter() {
+        return converter;
+    }
+
+    /**
+     * Returns the bounds of the shop bar.
+     *
+     * @return the shop bounds
+     */
+    public Rectangle2D getShopBounds() {
+        return shopBounds;
+    }
+
+    /**
+     * Returns the box in the shop that buys a tower.
+     *
+     * @param element one of the shop box elements
+     * @return the bounds of the box
+     * @throws IllegalArgumentException if the element is not a shop box
+     */
+    public Rectangle2D getShopBox(UiElement element) {
+        for (int i = 0; i < SHOP_ELEMENTS.length; i++) {
+            if (SHOP_ELEMENTS[i] == element) {
+                return shopBoxes[i];
+            }
+        }
+        throw new IllegalArgumentException("Not a shop box: " + element);
+    }
+
+    /**
+     * Returns the bounds of a map button. The rectangle is the layout's own
+     * and must not be changed.
+     *
+     * @param index the index of the map button, 1 for the first map
+     * @return the bounds of the button
+     * @throws IllegalArgumentException if there is no map button with the
+     *                                  index
+     */
+    public Rectangle getMapButton(int index) {
+        if (index < 1 || index > mapButtons.length) {
+            throw new IllegalArgumentException("No map button " + index);
+        }
+        return mapButtons[index - 1];
+    }
+
+    /**
+     * Returns the bounds of the sell and upgrade buttons of the tower menu.
+     * The array and its rectangles are the layout's own and must not be
+     * changed; they are laid out again when the menu opens for another cell.
+     *
+     * @param cell the cell the menu is open for
+     * @return the sell button followed by the upgrade button
+     */
+    public Rectangle2D[] getMenuButtons(CellPosition cell) {
+        if (!cell.equals(menuButtonsCell)) {
+            int centerX = converter.getCenterX(cell.col());
+            int y = converter.getCenterY(cell.row()) - MENU_OFFSET;
+            menuButtons[0].setRect(centerX - MENU_BUTTON_WIDTH - MENU_BUTTON_SPACING / 2, y,
+                    MENU_BUTTON_WIDTH, MENU_BUTTON_HEIGHT);
+            menuButtons[1].setRect(centerX + MENU_BUTTON_SPACING / 2, y, MENU_BUTTON_WIDTH, MENU_BUTTON_HEIGHT);
+            menuButtonsCell = cell;
+        }
+        return menuButtons;
+    }
+}
@@ -1,6 +1,7 @@
 package no.game.view;
 
 import no.game.model.GameState;
+import no.grid.CellVisitor;
 import no.grid.GridCell;
 import no.grid.GridDimension;
 
@@ -21,6 +22,22 @@ public interface ViewableGameModel {
      */
     Iterable<GridCell> getTilesOnBoard();
 
+    /**
+     * Visits all positions and corresponding values, like iterating over
+     * {@link #getTilesOnBoard()} but without creating an object per tile
+     *
+     * @param visitor the visitor to call for each tile
+     */
+    void visitTilesOnBoard(CellVisitor visitor);
+
+    /**
+     * A counter that changes whenever a tile on the board changes, so the
+     * view only has to draw the tiles again when it does.
+     *
+     * @return the current version of the board
+     */
+    int getBoardVersion();
+
     /**
      * 
      * @return current state of the game
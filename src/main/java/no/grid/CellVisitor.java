@@ -0,0 +1,19 @@
+package no.grid;
+
+/**
+ * Visits the cells of a grid one by one, see {@link IGrid#visitCells}.
+ * The cell is given as plain numbers, so walking a grid this way does not
+ * create a CellPosition or GridCell per cell.
+ */
+@FunctionalInterface
+public interface CellVisitor {
+
+	/**
+	 * Visits one cell.
+	 * 
+	 * @param row    the row of the cell
+	 * @param col    the column of the cell
+	 * @param symbol the value of the cell, {@link IGrid#EMPTY} if it holds null
+	 */
+	void visit(int row, int col, char symbol);
+}
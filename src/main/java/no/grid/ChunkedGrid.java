@@ -0,0 +1,169 @@
+package no.grid;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A grid stored as square chunks of {@link #CHUNK_SIZE} by CHUNK_SIZE
+ * cells, meant for very large grids where most cells keep their default
+ * value.
+ *
+ * Every chunk starts out as the same shared chunk holding only the default
+ * value, and gets an array of its own the first time a cell in it is set to
+ * anything else. Memory therefore grows with the part of the grid that is
+ * used, not with its size, while a cell is still found in constant time by
+ * splitting its row and column into a chunk and an offset within it.
+ */
+public class ChunkedGrid implements IGrid {
+
+    /** The number of rows and columns in a chunk. */
+    public static final int CHUNK_SIZE = 64;
+
+    private static final int SHIFT = Integer.numberOfTrailingZeros(CHUNK_SIZE);
+    private static final int MASK = CHUNK_SIZE - 1;
+
+    private final int rows;
+    private final int cols;
+    private final int chunkCols;
+    private final char[] defaultChunk;
+    private final char[][] chunks;
+    private int allocatedChunks;
+
+    public ChunkedGrid(int rows, int cols) {
+        this(rows, cols, null);
+    }
+
+    public ChunkedGrid(int rows, int cols, Character defaultValue) {
+        if (rows < 0 || cols < 0)
+            throw new IllegalArgumentException("Grid size cannot be negative: " + rows + "x" + cols);
+
+        this.rows = rows;
+        this.cols = cols;
+        this.chunkCols = (cols + MASK) >> SHIFT;
+        int chunkRows = (rows + MASK) >> SHIFT;
+
+        defaultChunk = new char[CHUNK_SIZE * CHUNK_SIZE];
+        Arrays.fill(defaultChunk, Grid.toSymbol(defaultValue));
+        chunks = new char[chunkRows * chunkCols][];
+        Arrays.fill(chunks, defaultChunk);
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int cols() {
+        return cols;
+    }
+
+    /**
+     * Returns the number of chunks that have an array of their own, that is
+     * the chunks where a cell has been set to something other than the
+     * default value.
+     *
+     * @return the number of allocated chunks
+     */
+    public int getAllocatedChunks() {
+        return allocatedChunks;
+    }
+
+    @Override
+    public Iterator<GridCell> iterator() {
+        return new Iterator<>() {
+            private int row;
+            private int col;
+
+            @Override
+            public boolean hasNext() {
+                return row < rows && cols > 0;
+            }
+
+            @Override
+            public GridCell next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+
+                GridCell cell = new GridCell(new CellPosition(row, col), Grid.fromSymbol(getSymbol(row, col)));
+                if (++col == cols) {
+                    col = 0;
+                    row++;
+                }
+                return cell;
+            }
+        };
+    }
+
+    @Override
+    public void set(CellPosition pos, Character symbol) {
+        if (!positionIsOnGrid(pos))
+            throw new IndexOutOfBoundsException("Given position is not within grid: (" + pos.row() + ", " + pos.col() + ")");
+
+        setSymbol(pos.row(), pos.col(), Grid.toSymbol(symbol));
+    }
+
+    @Override
+    public Character get(CellPosition pos) {
+        if (!positionIsOnGrid(pos))
+            throw new IndexOutOfBoundsException("Given position is not within grid: (" + pos.row() + ", " + pos.col() + ")");
+
+        return Grid.fromSymbol(getSymbol(pos.row(), pos.col()));
+    }
+
+    @Override
+    public char getSymbol(int row, int col) {
+        checkBounds(row, col);
+        return chunks[chunkIndex(row, col)][offset(row, col)];
+    }
+
+    @Override
+    public void setSymbol(int row, int col, char symbol) {
+        checkBounds(row, col);
+        int chunk = chunkIndex(row, col);
+        char[] cells = chunks[chunk];
+        if (cells == defaultChunk) {
+            if (symbol == defaultChunk[0])
+                return;
+
+            cells = defaultChunk.clone();
+            chunks[chunk] = cells;
+            allocatedChunks++;
+        }
+        cells[offset(row, col)] = symbol;
+    }
+
+    @Override
+    public void visitCells(CellVisitor visitor) {
+        for (int row = 0; row < rows; row++) {
+            int chunkRow = (row >> SHIFT) * chunkCols;
+            int rowOffset = (row & MASK) << SHIFT;
+            for (int col = 0; col < cols; col++) {
+                visitor.visit(row, col, chunks[chunkRow + (col >> SHIFT)][rowOffset + (col & MASK)]);
+            }
+        }
+    }
+
+    @Override
+    public boolean positionIsOnGrid(CellPosition pos) {
+        boolean isWithinRowBound = pos.row() >= 0 && pos.row() < rows;
+        boolean isWithinColBound = pos.col() >= 0 && pos.col() < cols;
+
+        return isWithinRowBound && isWithinColBound;
+    }
+
+    private void checkBounds(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols)
+            throw new IndexOutOfBoundsException("Given position is not within grid: (" + row + ", " + col + ")");
+    }
+
+    private int chunkIndex(int row, int col) {
+        return (row >> SHIFT) * chunkCols + (col >> SHIFT);
+    }
+
+    private static int offset(int row, int col) {
+        return ((row & MASK) << SHIFT) + (col & MASK);
+    }
+
+}
@@ -1,32 +1,30 @@
 package no.grid;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.List;
+import java.util.NoSuchElementException;
 
 public class Grid implements IGrid {
 
     private int rows;
     private int cols;
 
-    private List<List<Character>> cells;
+    // Row by row, one char per cell, with EMPTY standing in for null.
+    private char[] cells;
 
     public Grid(int rows, int cols) {
         this(rows, cols, null);
     }
 
     public Grid(int rows, int cols, Character defaulValue) {
+        if (rows < 0 || cols < 0)
+            throw new IllegalArgumentException("Grid size cannot be negative: " + rows + "x" + cols);
+
         this.rows = rows;
         this.cols = cols;
 
-        cells = new ArrayList<>();
-        for (int i = 0; i < rows; i++) {
-            List<Character> innerList = new ArrayList<>();
-            for (int j = 0; j < cols; j++) {
-                innerList.add(defaulValue);
-            }
-            cells.add(innerList);
-        }
+        cells = new char[rows * cols];
+        Arrays.fill(cells, toSymbol(defaulValue));
     }
 
     @Override
@@ -41,15 +39,25 @@ public class Grid implements IGrid {
 
     @Override
     public Iterator<GridCell> iterator() {
-        List<GridCell> gridCells = new ArrayList<>();
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                CellPosition pos = new CellPosition(i, j);
-                GridCell cell = new GridCell(pos, get(pos));
-                gridCells.add(cell);
+        return new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < cells.length;
             }
-        }
-        return gridCells.iterator();
+
+            @Override
+            public GridCell next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+
+                CellPosition pos = new CellPosition(index / cols, index % cols);
+                GridCell cell = new GridCell(pos, fromSymbol(cells[index]));
+                index++;
+                return cell;
+            }
+        };
     }
 
     @Override
@@ -57,9 +65,7 @@ public class Grid implements IGrid {
         if (!positionIsOnGrid(pos))
             throw new IndexOutOfBoundsException("Given position is not within grid: (" + pos.row() + ", " + pos.col() + ")");
 
-        int row = pos.row();
-        int col = pos.col();
-        cells.get(row).set(col, symbol);
+        setSymbol(pos.row(), pos.col(), toSymbol(symbol));
     }
 
     @Override
@@ -67,9 +73,27 @@ public class Grid implements IGrid {
         if (!positionIsOnGrid(pos))
             throw new IndexOutOfBoundsException("Given position is not within grid: (" + pos.row() + ", " + pos.col() + ")");
 
-        int row = pos.row();
-        int col = pos.col();
-        return cells.get(row).get(col);
+        return fromSymbol(cells[pos.row() * cols + pos.col()]);
+    }
+
+    @Override
+    public char getSymbol(int row, int col) {
+        return cells[index(row, col)];
+    }
+
+    @Override
+    public void setSymbol(int row, int col, char symbol) {
+        cells[index(row, col)] = symbol;
+    }
+
+    @Override
+    public void visitCells(CellVisitor visitor) {
+        int index = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                visitor.visit(row, col, cells[index++]);
+            }
+        }
     }
 
     @Override
@@ -79,5 +103,24 @@ public class Grid implements IGrid {
 
         return isWithinRowBound && isWithinColBound;
     }
-    
+
+    private int index(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols)
+            throw new IndexOutOfBoundsException("Given position is not within grid: (" + row + ", " + col + ")");
+
+        return row * cols + col;
+    }
+
+    static char toSymbol(Character symbol) {
+        if (symbol == null)
+            return EMPTY;
+        if (symbol == EMPTY)
+            throw new IllegalArgumentException("The empty symbol cannot be stored as a value.");
+        return symbol;
+    }
+
+    static Character fromSymbol(char symbol) {
+        return symbol == EMPTY ? null : symbol;
+    }
+
 }
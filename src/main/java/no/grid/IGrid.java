@@ -2,6 +2,13 @@ package no.grid;
 
 public interface IGrid extends GridDimension, Iterable<GridCell> {
 
+	/**
+	 * The symbol the primitive methods use for a cell that holds null. It is
+	 * the Unicode noncharacter U+FFFF, which is never a tile, so it cannot be
+	 * stored as a value of its own.
+	 */
+	char EMPTY = '\uFFFF';
+
 	/**
 	 * Sets the value of a position in the grid. A subsequent call to {@link #get}
 	 * with an equal position as argument will return the value which was set. The
@@ -29,4 +36,33 @@ public interface IGrid extends GridDimension, Iterable<GridCell> {
 	 * @return true if the coordinate is within bounds, false otherwise
 	 */
 	boolean positionIsOnGrid(CellPosition pos);
+
+	/**
+	 * Gets the value at a row and column without boxing it.
+	 * 
+	 * @param row the row of the cell
+	 * @param col the column of the cell
+	 * @return the value stored in the cell, {@link #EMPTY} if it holds null
+	 * @throws IndexOutOfBoundsException if the cell does not exist in the grid
+	 */
+	char getSymbol(int row, int col);
+
+	/**
+	 * Sets the value at a row and column without boxing it.
+	 * 
+	 * @param row    the row of the cell
+	 * @param col    the column of the cell
+	 * @param symbol the new value, {@link #EMPTY} to store null
+	 * @throws IndexOutOfBoundsException if the cell does not exist in the grid
+	 */
+	void setSymbol(int row, int col, char symbol);
+
+	/**
+	 * Visits every cell of the grid, row by row, without allocating anything
+	 * per cell. Unlike iterating over the grid, which creates a GridCell for
+	 * every cell, this is suitable for code that walks the grid often.
+	 * 
+	 * @param visitor the visitor to call for each cell
+	 */
+	void visitCells(CellVisitor visitor);
 }
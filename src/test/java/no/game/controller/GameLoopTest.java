@@ -0,0 +1,60 @@
+package no.game.controller;
+
+import no.game.model.GameModel;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameLoopTest {
+
+    private static final long PERIOD = 1_000_000_000L / 125;
+
+    private GameLoop loop;
+
+    @BeforeEach
+    public void setup() {
+        loop = new GameLoop(new GameModel(), 125, null);
+    }
+
+    @Test
+    public void testOneTickPerPeriod() {
+        assertEquals(1, loop.advance(PERIOD));
+        assertEquals(3, loop.advance(PERIOD * 3));
+    }
+
+    @Test
+    public void testPartialPeriodsAccumulate() {
+        assertEquals(0, loop.advance(PERIOD / 2));
+        assertEquals(1, loop.advance(PERIOD / 2));
+        assertEquals(0, loop.advance(PERIOD / 4));
+    }
+
+    @Test
+    public void testCatchUpIsLimitedAndBacklogDropped() {
+        assertEquals(GameLoop.MAX_CATCH_UP_TICKS, loop.advance(PERIOD * 100));
+        assertEquals(0, loop.advance(0));
+        assertEquals(1, loop.advance(PERIOD));
+    }
+
+    @Test
+    public void testTickRateChangesPeriod() {
+        loop.setTickRate(250);
+        assertEquals(2, loop.advance(PERIOD));
+    }
+
+    @Test
+    public void testInvalidTickRate() {
+        assertThrows(IllegalArgumentException.class, () -> loop.setTickRate(0));
+        assertThrows(IllegalArgumentException.class, () -> new GameLoop(null, 125, null));
+    }
+
+    @Test
+    public void testStartAndStop() {
+        loop.start();
+        assertTrue(loop.isRunning());
+        loop.stop();
+        assertFalse(loop.isRunning());
+    }
+}
@@ -0,0 +1,124 @@
+package no.game.controller;
+
+import no.game.model.GameModel;
+import no.game.model.GameState;
+import no.game.model.MapType;
+import no.game.model.enemy.BasicEnemy;
+import no.game.model.tower.TowerType;
+import no.game.stats.DurationHistogram;
+import no.grid.CellPosition;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+
+public class GameMonitorTest {
+
+    private static final long PERIOD = 1_000_000_000L / 125;
+
+    private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    private GameModel model;
+    private GameLoop loop;
+    private GameMonitor monitor;
+
+    @BeforeEach
+    public void setup() {
+        model = new GameModel();
+        model.setMap(MapType.MAP1);
+        model.setGold(1_000);
+        assertTrue(model.placeTower(new CellPosition(0, 0), TowerType.SNIPER));
+        assertTrue(model.placeTower(new CellPosition(0, 1), TowerType.SNIPER));
+        assertTrue(model.placeTower(new CellPosition(0, 2), TowerType.SLOW));
+        model.setGameState();
+        loop = new GameLoop(model, 125, null);
+        monitor = GameMonitor.register(model, loop);
+    }
+
+    @AfterEach
+    public void teardown() {
+        monitor.unregister();
+    }
+
+    @Test
+    public void testAttributesOverJmx() throws Exception {
+        loop.advance(PERIOD * 10);
+
+        assertNotNull(model.getTickStats());
+        assertTrue(server.isRegistered(monitor.getObjectName()));
+        assertEquals(10L, server.getAttribute(monitor.getObjectName(), "Tick"));
+        assertEquals(10, (int) server.getAttribute(monitor.getObjectName(), "TicksPerSecond"));
+        assertEquals("ACTIVE_GAME", server.getAttribute(monitor.getObjectName(), "GameState"));
+
+        long[] histogram = (long[]) server.getAttribute(monitor.getObjectName(), "TickHistogram");
+        assertEquals(DurationHistogram.BUCKETS, histogram.length);
+        assertEquals(10, Arrays.stream(histogram).sum());
+
+        TabularData towers = (TabularData) server.getAttribute(monitor.getObjectName(), "TowersByType");
+        CompositeData snipers = towers.get(new Object[] { "SNIPER" });
+        assertEquals(2, snipers.get("value"));
+        assertEquals(5, ((TabularData) server.getAttribute(monitor.getObjectName(), "PhaseP99Millis")).size());
+        assertEquals(monitor.getEnemiesAlive() + monitor.getEnemiesKilled() + monitor.getEnemiesLeaked(),
+                monitor.getEnemiesSpawned());
+    }
+
+    @Test
+    public void testPauseAndTickRateOperations() throws Exception {
+        server.invoke(monitor.getObjectName(), "pause", null, null);
+        assertEquals(GameState.PAUSED, model.getGameState());
+        loop.advance(PERIOD);
+        assertEquals(0, model.getTick());
+
+        server.setAttribute(monitor.getObjectName(), new Attribute("TickRate", 250));
+        assertEquals(250, loop.getTickRate());
+
+        monitor.resume();
+        assertEquals(GameState.ACTIVE_GAME, model.getGameState());
+    }
+
+    @Test
+    public void testPauseAndResumeOnlyChangeARunningGame() {
+        model.setPlayerHP(1);
+        model.getEnemies().add(new BasicEnemy(model.getMapDefinition().getPath(), 10, 1_000));
+        loop.advance(PERIOD);
+        assertEquals(GameState.GAME_OVER, model.getGameState());
+
+        monitor.resume();
+        assertEquals(GameState.GAME_OVER, model.getGameState());
+        monitor.pause();
+        assertEquals(GameState.GAME_OVER, model.getGameState());
+
+        GameModel choosing = new GameModel();
+        GameMonitor other = GameMonitor.register(choosing, null);
+        try {
+            other.pause();
+            assertEquals(GameState.CHOOSE, choosing.getGameState());
+            other.resume();
+            assertEquals(GameState.CHOOSE, choosing.getGameState());
+        } finally {
+            other.unregister();
+        }
+    }
+
+    @Test
+    public void testMonitorsHaveDistinctNames() {
+        GameMonitor other = GameMonitor.register(model, null);
+        try {
+            assertNotEquals(monitor.getObjectName(), other.getObjectName());
+            assertEquals(0, other.getTickRate());
+            assertThrows(IllegalStateException.class, () -> other.setTickRate(10));
+        } finally {
+            other.unregister();
+        }
+        assertFalse(server.isRegistered(other.getObjectName()));
+    }
+}
@@ -1,9 +1,11 @@
 package no.game.model;
 
+import no.game.stats.TickStats;
 import no.grid.CellPosition;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 class GameBoardTest {
 
@@ -23,4 +25,105 @@ class GameBoardTest {
         assertEquals(expected, board.prettyString());
     }
 
+    @Test
+    void testVersionChangesWhenTileIsSet() {
+        GameBoard board = new GameBoard(2, 2);
+        int version = board.getVersion();
+        board.set(new CellPosition(1, 1), 'w');
+        assertNotEquals(version, board.getVersion());
+    }
+
+    @Test
+    void testPathTilesAreNotBuildable() {
+        GameBoard board = new GameBoard(9, 9);
+        CellPosition pos = new CellPosition(8, 8);
+        assertTrue(board.isBuildable(pos));
+        assertFalse(board.isPath(pos));
+
+        board.set(pos, 'w');
+        assertTrue(board.isPath(pos));
+        assertFalse(board.isBuildable(pos));
+        assertFalse(board.canPlaceTower(pos));
+
+        board.set(pos, '-');
+        assertFalse(board.isPath(pos));
+        assertTrue(board.canPlaceTower(pos));
+    }
+
+    @Test
+    void testTowerLayerOnlyMarksItsOwnCell() {
+        GameBoard board = new GameBoard(10, 10);
+        CellPosition pos = new CellPosition(6, 4);
+
+        board.setTower(pos, true);
+        for (int row = 0; row < board.rows(); row++) {
+            for (int col = 0; col < board.cols(); col++) {
+                CellPosition cell = new CellPosition(row, col);
+                assertEquals(cell.equals(pos), board.hasTower(cell));
+            }
+        }
+        assertTrue(board.isBuildable(pos));
+        assertFalse(board.canPlaceTower(pos));
+
+        board.setTower(pos, false);
+        assertTrue(board.canPlaceTower(pos));
+    }
+
+    @Test
+    void testLayersThrowOffBoard() {
+        GameBoard board = new GameBoard(2, 2);
+        assertThrows(IndexOutOfBoundsException.class, () -> board.canPlaceTower(new CellPosition(0, 2)));
+        assertThrows(IndexOutOfBoundsException.class, () -> board.hasTower(new CellPosition(-1, 0)));
+    }
+
+    @Test
+    void testLargeBoardKeepsLayers() {
+        GameBoard board = new GameBoard(4096, 4096);
+        CellPosition corner = new CellPosition(4095, 4095);
+        assertEquals('-', board.get(corner));
+        assertTrue(board.canPlaceTower(corner));
+
+        board.set(corner, 'w');
+        assertTrue(board.isPath(corner));
+        assertEquals('w', board.getSymbol(4095, 4095));
+        assertFalse(board.isPath(new CellPosition(4095, 4094)));
+    }
+
+    @Test
+    void testLayersOfLargeBoardOnlyCoverUsedChunks() {
+        assumeTrue(TickStats.currentThreadAllocatedBytes() >= 0);
+        long start = TickStats.currentThreadAllocatedBytes();
+        GameBoard board = new GameBoard(4096, 4096);
+        long allocated = TickStats.currentThreadAllocatedBytes() - start;
+        // Dense layers alone would take 2 MB each.
+        assertTrue(allocated < 256 * 1024, "An empty 4096x4096 board took " + allocated + " bytes");
+
+        // Towers on both sides of chunk borders only mark their own cells.
+        CellPosition[] cells = { new CellPosition(63, 63), new CellPosition(63, 64), new CellPosition(64, 63),
+                new CellPosition(4095, 0), new CellPosition(0, 4095) };
+        for (CellPosition cell : cells) {
+            board.setTower(cell, true);
+        }
+        for (CellPosition cell : cells) {
+            assertTrue(board.hasTower(cell));
+        }
+        assertFalse(board.hasTower(new CellPosition(64, 64)));
+        assertFalse(board.hasTower(new CellPosition(62, 63)));
+        board.setTower(cells[1], false);
+        assertFalse(board.hasTower(cells[1]));
+        assertTrue(board.hasTower(cells[0]));
+    }
+
+    @Test
+    void testLayersOfBoardNotAMultipleOfTheChunkSize() {
+        GameBoard board = new GameBoard(70, 100);
+        for (int col = 0; col < 100; col++) {
+            board.setSymbol(69, col, 'w');
+        }
+        for (int row = 0; row < 70; row++) {
+            for (int col = 0; col < 100; col++) {
+                assertEquals(row == 69, board.isPath(new CellPosition(row, col)), row + ", " + col);
+            }
+        }
+    }
 }
@@ -1,14 +1,19 @@
 package no.game.model;
 
 import no.grid.CellPosition;
+import no.game.model.enemy.BasicEnemy;
+import no.game.model.enemy.EnemyType;
 import no.game.model.enemy.IEnemy;
 import no.game.model.tower.TowerType;
+import no.game.stats.TickStats;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
+import java.util.Arrays;
 import java.util.List;
 
 public class GameModelTest {
@@ -70,6 +75,21 @@ public class GameModelTest {
                 return path.get(0);
             }
 
+            @Override
+            public int getPathIndex() {
+                return 0;
+            }
+
+            @Override
+            public double getMovementProgress() {
+                return 0;
+            }
+
+            @Override
+            public EnemyType getType() {
+                return EnemyType.BASIC;
+            }
+
             @Override
             public double getSpeed() {
                 return 0.0;
@@ -133,6 +153,22 @@ public class GameModelTest {
         assertNull(model.getTowerAt(pos));
     }
 
+    @Test
+    public void testTowerCannotBePlacedTwiceOrOnPath() {
+        model.setMap(MapType.MAP1);
+        CellPosition pos = new CellPosition(0, 0);
+
+        assertTrue(model.placeTower(pos, TowerType.BASIC));
+        assertTrue(model.hasTowerAt(pos));
+        assertFalse(model.placeTower(pos, TowerType.SNIPER));
+        CellPosition onPath = Map.build(MapType.MAP1, new GameBoard(20, 20)).get(0);
+        assertFalse(model.placeTower(onPath, TowerType.BASIC));
+
+        assertTrue(model.sellTower(pos));
+        assertFalse(model.hasTowerAt(pos));
+        assertTrue(model.placeTower(pos, TowerType.SNIPER));
+    }
+
     @Test
     public void testSellTowerFailsIfNoTower() {
         CellPosition pos = new CellPosition(7, 7);
@@ -144,4 +180,51 @@ public class GameModelTest {
         assertEquals(goldBefore, model.getGold());
     }
 
+    @Test
+    public void testMapAcrossLargeBoardStaysSmall() {
+        assumeTrue(TickStats.currentThreadAllocatedBytes() >= 0);
+        int size = 2048;
+        byte[] tiles = new byte[size * size];
+        Arrays.fill(tiles, (byte) '-');
+        // Along the top row, then down the last column to the far corner.
+        int[] path = new int[2 * size - 1];
+        for (int col = 0; col < size; col++) {
+            path[col] = col;
+        }
+        for (int row = 1; row < size; row++) {
+            path[size - 1 + row] = row * size + size - 1;
+        }
+        for (int cell : path) {
+            tiles[cell] = 'w';
+        }
+        MapFile map = new MapFile(size, size, tiles, new int[][] { path }, new int[] { 0 },
+                new int[] { size * size - 1 });
+        GameModel large = new GameModel(new GameBoard(size, size), false, new GameRandom(1));
+
+        long start = TickStats.currentThreadAllocatedBytes();
+        large.setMap(map);
+        long allocated = TickStats.currentThreadAllocatedBytes() - start;
+
+        // A table over the whole board would take 16 MB on its own.
+        assertTrue(allocated < 4 * 1024 * 1024, "Loading the map allocated " + allocated + " bytes");
+        assertTrue(large.getBoard().isPath(new CellPosition(size - 1, size - 1)));
+        assertEquals(path.length, large.getMapDefinition().getPathLength());
+    }
+
+    @Test
+    public void testEndedWaveSpawnsNoMoreEnemies() {
+        model.setMap(MapType.MAP1);
+        IEnemy enemy = new BasicEnemy(model.getPath(), 1e15, 0.0);
+        model.getEnemies().add(enemy);
+        model.endWave();
+        model.setGameState();
+
+        for (int i = 0; i < 1_000; i++) {
+            model.update(0.2);
+        }
+
+        assertEquals(List.of(enemy), model.getEnemies());
+        assertEquals(1, model.getWaveNumber());
+        assertEquals(GameState.ACTIVE_GAME, model.getGameState());
+    }
 }
@@ -0,0 +1,80 @@
+package no.game.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+
+public class GameRandomTest {
+
+    @Test
+    public void testSameSeedGivesSameNumbers() {
+        GameRandom first = new GameRandom(123);
+        GameRandom second = new GameRandom(123);
+        GameRandom other = new GameRandom(124);
+
+        boolean differs = false;
+        for (int i = 0; i < 100; i++) {
+            long value = first.nextLong();
+            assertEquals(value, second.nextLong());
+            differs |= value != other.nextLong();
+        }
+        assertTrue(differs);
+    }
+
+    @Test
+    public void testNumbersStayInRange() {
+        GameRandom random = new GameRandom(1);
+        int[] counts = new int[3];
+        for (int i = 0; i < 30_000; i++) {
+            double d = random.nextDouble();
+            assertTrue(d >= 0.0 && d < 1.0);
+            counts[random.nextInt(3)]++;
+        }
+        for (int count : counts) {
+            assertTrue(count > 9_000 && count < 11_000);
+        }
+        assertThrows(IllegalArgumentException.class, () -> random.nextInt(0));
+    }
+
+    @Test
+    public void testStateCanBeRestored() {
+        GameRandom random = new GameRandom(99);
+        random.nextLong();
+        long state = random.getState();
+        long expected = random.nextLong();
+
+        GameRandom restored = new GameRandom(0);
+        restored.setState(state);
+
+        assertEquals(expected, restored.nextLong());
+    }
+
+    @Test
+    public void testSplitIsIndependentButReproducible() {
+        GameRandom random = new GameRandom(5);
+        GameRandom split = random.split();
+        GameRandom again = new GameRandom(5).split();
+
+        long value = split.nextLong();
+        assertEquals(value, again.nextLong());
+        assertNotEquals(value, random.nextLong());
+    }
+
+    @Test
+    public void testSplitsMatchSplittableRandom() {
+        GameRandom random = new GameRandom(17);
+        SplittableRandom expected = new SplittableRandom(17);
+        GameRandom child = random.split();
+        SplittableRandom expectedChild = expected.split();
+        GameRandom grandchild = child.split();
+        SplittableRandom expectedGrandchild = expectedChild.split();
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(expected.nextLong(), random.nextLong());
+            assertEquals(expectedChild.nextLong(), child.nextLong());
+            assertEquals(expectedGrandchild.nextLong(), grandchild.nextLong());
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package no.game.model;
+
+import no.game.stats.TickStats;
+import no.grid.CellPosition;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class MapDefinitionTest {
+
+    private static void assertSameCoverage(PathCoverage expected, PathCoverage actual) {
+        assertEquals(expected.intervalCount(), actual.intervalCount());
+        for (int i = 0; i < expected.intervalCount(); i++) {
+            assertEquals(expected.start(i), actual.start(i));
+            assertEquals(expected.end(i), actual.end(i));
+        }
+    }
+
+    @Test
+    public void testBuiltInDefinitionsAreShared() {
+        MapDefinition map = MapDefinition.of(MapType.MAP2);
+        assertSame(map, MapDefinition.of(MapType.MAP2));
+
+        GameModel first = new GameModel();
+        GameModel second = new GameModel();
+        first.setMap(MapType.MAP2);
+        second.setMap(MapType.MAP2);
+        assertSame(map, first.getMapDefinition());
+        assertSame(first.getPath(), second.getPath());
+
+        // Choosing another map in one game leaves the other game's path alone.
+        List<CellPosition> path = first.getPath();
+        second.setMap(MapType.MAP3);
+        assertSame(path, first.getPath());
+        assertEquals(MapFile.builtIn(MapType.MAP2).getPath(0), path);
+        assertThrows(UnsupportedOperationException.class, () -> path.set(0, new CellPosition(0, 0)));
+    }
+
+    @Test
+    public void testPathIndexLookup() {
+        for (MapType type : MapType.values()) {
+            MapDefinition map = MapDefinition.of(type);
+            List<CellPosition> path = map.getPath();
+            assertTrue(map.isSimplePath());
+            assertEquals(path.size(), map.getPathLength());
+            for (int i = 0; i < path.size(); i++) {
+                assertEquals(path.get(i).row(), map.getPathRow(i));
+                assertEquals(path.get(i).col(), map.getPathCol(i));
+                assertEquals(i, map.pathIndexOf(path.get(i).row(), path.get(i).col()));
+            }
+            assertEquals(-1, map.pathIndexOf(0, 0));
+            assertEquals(-1, map.pathIndexOf(-1, 5));
+            assertEquals(-1, map.pathIndexOf(500, 500));
+        }
+    }
+
+    @Test
+    public void testCoverageMatchesListCoverage() {
+        for (MapType type : MapType.values()) {
+            MapDefinition map = MapDefinition.of(type);
+            for (int row = -2; row < 22; row += 3) {
+                for (int col = -2; col < 22; col += 3) {
+                    for (int range = 0; range <= 8; range++) {
+                        CellPosition center = new CellPosition(row, col);
+                        assertSameCoverage(PathCoverage.compute(center, range, map.getPath()),
+                                PathCoverage.compute(center, range, map));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPathThatCrossesItself() {
+        // Right along row 1, then up column 2 and back down through (1, 2).
+        byte[] tiles = new byte[16];
+        Arrays.fill(tiles, (byte) '-');
+        int[] path = { 4, 5, 6, 2, 6, 10, 14 };
+        for (int cell : path) {
+            tiles[cell] = 'w';
+        }
+        MapDefinition map = new MapDefinition(new MapFile(4, 4, tiles, new int[][] { path }, new int[] { 4 },
+                new int[] { 14 }));
+
+        assertFalse(map.isSimplePath());
+        assertEquals(2, map.pathIndexOf(1, 2));
+        CellPosition center = new CellPosition(1, 2);
+        assertSameCoverage(PathCoverage.compute(center, 0, map.getPath()), PathCoverage.compute(center, 0, map));
+        assertEquals(2, PathCoverage.compute(center, 0, map).intervalCount());
+    }
+
+    @Test
+    public void testPathAcrossALargeMapOnlyAllocatesTheChunksItPasses() {
+        assumeTrue(TickStats.currentThreadAllocatedBytes() >= 0);
+        int size = 2048;
+        byte[] tiles = new byte[size * size];
+        Arrays.fill(tiles, (byte) '-');
+        // Along the top row, then down the last column.
+        int[] path = new int[2 * size - 1];
+        for (int col = 0; col < size; col++) {
+            path[col] = col;
+        }
+        for (int row = 1; row < size; row++) {
+            path[size - 1 + row] = row * size + size - 1;
+        }
+        MapFile file = new MapFile(size, size, tiles, new int[][] { path }, new int[] { 0 },
+                new int[] { size * size - 1 });
+
+        long start = TickStats.currentThreadAllocatedBytes();
+        MapDefinition map = new MapDefinition(file);
+        long allocated = TickStats.currentThreadAllocatedBytes() - start;
+
+        assertTrue(allocated < 2 * 1024 * 1024, "The definition allocated " + allocated + " bytes");
+        assertTrue(map.isSimplePath());
+        assertEquals(0, map.pathIndexOf(0, 0));
+        assertEquals(size - 1, map.pathIndexOf(0, size - 1));
+        assertEquals(2 * size - 2, map.pathIndexOf(size - 1, size - 1));
+        assertEquals(-1, map.pathIndexOf(1, 0));
+        assertEquals(-1, map.pathIndexOf(size / 2, size / 2));
+        assertEquals(-1, map.pathIndexOf(size - 1, 0));
+    }
+
+    @Test
+    public void testPathFarFromTheOriginOnlyCoversItsBoundingBox() {
+        assumeTrue(TickStats.currentThreadAllocatedBytes() >= 0);
+        int size = 2048;
+        byte[] tiles = new byte[size * size];
+        Arrays.fill(tiles, (byte) '-');
+        // An L along the bottom right corner of the map.
+        int[] path = { (size - 2) * size + size - 3, (size - 2) * size + size - 2, (size - 1) * size + size - 2 };
+        MapFile file = new MapFile(size, size, tiles, new int[][] { path }, new int[] { path[0] },
+                new int[] { path[2] });
+
+        long start = TickStats.currentThreadAllocatedBytes();
+        MapDefinition map = new MapDefinition(file);
+        long allocated = TickStats.currentThreadAllocatedBytes() - start;
+
+        assertTrue(allocated < 64 * 1024, "The definition allocated " + allocated + " bytes");
+        assertEquals(0, map.pathIndexOf(size - 2, size - 3));
+        assertEquals(1, map.pathIndexOf(size - 2, size - 2));
+        assertEquals(2, map.pathIndexOf(size - 1, size - 2));
+        assertEquals(-1, map.pathIndexOf(size - 1, size - 3));
+        assertEquals(-1, map.pathIndexOf(0, 0));
+        assertEquals(-1, map.pathIndexOf(size - 3, size - 2));
+        assertEquals(-1, map.pathIndexOf(size, size));
+    }
+}
@@ -0,0 +1,124 @@
+package no.game.model;
+
+import no.game.save.ChannelOutput;
+import no.grid.CellPosition;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+public class MapFileTest {
+
+    @TempDir
+    Path dir;
+
+    private static MapFile stripes(int rows, int cols) {
+        // A path that winds through every other row of the map.
+        byte[] tiles = new byte[rows * cols];
+        Arrays.fill(tiles, (byte) '-');
+        int[] path = new int[(rows + 1) / 2 * cols + rows / 2];
+        int length = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int i = 0; i < cols; i++) {
+                int col = row % 4 == 0 ? i : cols - 1 - i;
+                if (row % 2 == 0) {
+                    path[length++] = row * cols + col;
+                } else if (i == 0) {
+                    path[length++] = row * cols + (row % 4 == 1 ? cols - 1 : 0);
+                }
+            }
+        }
+        for (int cell : path) {
+            tiles[cell] = 'w';
+        }
+        return new MapFile(rows, cols, tiles, new int[][] { path }, new int[] { path[0] },
+                new int[] { path[path.length - 1] });
+    }
+
+    private static byte[] bytes(MapFile map) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        map.write(Channels.newChannel(out));
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testBuiltInMapsAreLoaded() {
+        for (MapType type : MapType.values()) {
+            MapFile map = MapFile.builtIn(type);
+            assertSame(map, MapFile.builtIn(type));
+            assertEquals(20, map.getRows());
+            assertEquals(1, map.getPathCount());
+            List<CellPosition> path = map.getPath(0);
+            assertEquals(List.of(path.get(0)), map.getSpawns());
+            assertEquals(List.of(path.get(path.size() - 1)), map.getGoals());
+            for (CellPosition pos : path) {
+                assertEquals('w', map.getTile(pos.row(), pos.col()));
+            }
+        }
+    }
+
+    @Test
+    public void testFileRoundTrip() throws IOException {
+        MapFile map = stripes(300, 200);
+        Path file = dir.resolve("stripes.tdmap");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            map.write(channel);
+        }
+
+        MapFile loaded = MapFile.read(file);
+        assertArrayEquals(bytes(map), bytes(loaded));
+        assertEquals(map.getPath(0), loaded.getPath(0));
+    }
+
+    @Test
+    public void testApplyOnLargerBoard() {
+        MapFile map = stripes(5, 4);
+        GameBoard board = new GameBoard(8, 8);
+        List<CellPosition> path = map.apply(board);
+
+        assertEquals(map.getPath(0), path);
+        assertTrue(board.isPath(new CellPosition(4, 3)));
+        assertFalse(board.isPath(new CellPosition(1, 0)));
+        assertEquals('-', board.get(new CellPosition(7, 7)));
+        assertThrows(IllegalArgumentException.class, () -> map.apply(new GameBoard(4, 4)));
+    }
+
+    @Test
+    public void testGameOnMapFile() {
+        GameModel model = new GameModel(new GameBoard(40, 40));
+        model.setMap(stripes(40, 40));
+
+        assertNull(model.getMapType());
+        assertEquals(stripes(40, 40).getPath(0), model.getPath());
+        assertThrows(IllegalStateException.class,
+                () -> model.writeState(new ChannelOutput(Channels.newChannel(new ByteArrayOutputStream()))));
+    }
+
+    @Test
+    public void testInvalidFilesAreRejected() throws IOException {
+        byte[] valid = bytes(stripes(3, 3));
+
+        byte[] truncated = Arrays.copyOf(valid, valid.length - 1);
+        assertThrows(IOException.class, () -> MapFile.read(ByteBuffer.wrap(truncated)));
+
+        byte[] badMagic = valid.clone();
+        badMagic[0] = 0;
+        assertThrows(IOException.class, () -> MapFile.read(ByteBuffer.wrap(badMagic)));
+
+        // The first cell of the path points past the end of the map.
+        byte[] badCell = valid.clone();
+        ByteBuffer.wrap(badCell).putInt(4 * Integer.BYTES + 9 + 2 * Integer.BYTES, 9);
+        assertThrows(IOException.class, () -> MapFile.read(ByteBuffer.wrap(badCell)));
+    }
+}
@@ -113,4 +113,19 @@ public class MapTest {
         long wCount = pretty.chars().filter(c -> c == 'w').count();
         assertEquals(Map.getPath().size(), wCount);
     }
+
+    @Test
+    void testBuildReturnsSeparatePathsAndLeavesLegacyPathAlone() {
+        GameBoard board = new GameBoard(ROWS, COLS);
+        Map.map3(board);
+        List<CellPosition> legacy = Map.getPath();
+
+        List<CellPosition> path1 = Map.build(MapType.MAP1, new GameBoard(ROWS, COLS));
+        List<CellPosition> path2 = Map.build(MapType.MAP2, new GameBoard(ROWS, COLS));
+
+        assertNotEquals(path1, path2);
+        assertEquals(path1, Map.build(MapType.MAP1, new GameBoard(ROWS, COLS)));
+        assertSame(legacy, Map.getPath());
+        assertThrows(UnsupportedOperationException.class, () -> path1.add(new CellPosition(0, 0)));
+    }
 }
@@ -0,0 +1,96 @@
+package no.game.model;
+
+import no.game.model.enemy.BasicEnemy;
+import no.game.model.tower.BasicTower;
+import no.game.model.tower.TowerType;
+import no.grid.CellPosition;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class PathCoverageTest {
+
+    private static List<CellPosition> straightPath(int length) {
+        List<CellPosition> path = new ArrayList<>();
+        for (int col = 0; col < length; col++) {
+            path.add(new CellPosition(0, col));
+        }
+        return path;
+    }
+
+    @Test
+    void testCoverageOfStraightPath() {
+        PathCoverage coverage = PathCoverage.compute(new CellPosition(1, 5), 2, straightPath(10));
+
+        assertEquals(1, coverage.intervalCount());
+        assertEquals(4, coverage.start(0));
+        assertEquals(6, coverage.end(0));
+        assertTrue(coverage.covers(4));
+        assertTrue(coverage.covers(6));
+        assertFalse(coverage.covers(3));
+        assertFalse(coverage.covers(7));
+    }
+
+    @Test
+    void testPathPassingTwiceGivesTwoIntervals() {
+        List<CellPosition> path = List.of(
+                new CellPosition(0, 0), new CellPosition(0, 1), new CellPosition(0, 2),
+                new CellPosition(0, 3), new CellPosition(1, 3), new CellPosition(2, 3),
+                new CellPosition(2, 2), new CellPosition(2, 1), new CellPosition(2, 0));
+
+        PathCoverage coverage = PathCoverage.compute(new CellPosition(1, 1), 1, path);
+
+        assertEquals(2, coverage.intervalCount());
+        assertFalse(coverage.covers(0));
+        assertTrue(coverage.covers(1));
+        assertFalse(coverage.covers(2));
+        assertTrue(coverage.covers(7));
+        assertFalse(coverage.covers(8));
+        assertTrue(PathCoverage.compute(new CellPosition(1, 1), 0, path).isEmpty());
+    }
+
+    @Test
+    void testEmptyCoverage() {
+        PathCoverage coverage = PathCoverage.compute(new CellPosition(9, 9), 1, straightPath(5));
+
+        assertTrue(coverage.isEmpty());
+        assertFalse(coverage.covers(0));
+        assertSame(PathCoverage.EMPTY, coverage);
+    }
+
+    @Test
+    void testCoverageGrowsWhenTowerIsUpgraded() {
+        BasicTower tower = new BasicTower(new CellPosition(4, 5));
+        tower.coverPath(straightPath(20));
+        assertFalse(tower.getCoverage().covers(5 + 4));
+
+        tower.upgrade();
+
+        // Range 5 from four rows away reaches three columns to each side.
+        assertTrue(tower.getCoverage().covers(8));
+        assertFalse(tower.getCoverage().covers(9));
+    }
+
+    @Test
+    void testTowerTargetsEnemyFurthestAlongCoveredPath() {
+        GameModel model = new GameModel();
+        model.setMap(MapType.MAP3);
+        List<CellPosition> path = model.getPath();
+
+        CellPosition site = new CellPosition(3, 18);
+        assertTrue(model.placeTower(site, TowerType.BASIC));
+
+        BasicEnemy behind = new BasicEnemy(path, 50, 1.0);
+        BasicEnemy ahead = new BasicEnemy(path, 50, 1.0);
+        ahead.move();
+        model.getEnemies().add(behind);
+        model.getEnemies().add(ahead);
+
+        assertEquals(ahead, model.findEnemyInRange(model.getTowerAt(site)));
+        assertEquals(List.of(ahead, behind), model.findEnemiesInRange(model.getTowerAt(site)));
+    }
+}
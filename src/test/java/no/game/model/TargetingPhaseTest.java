@@ -0,0 +1,93 @@
+package no.game.model;
+
+import no.game.model.enemy.BasicEnemy;
+import no.game.model.enemy.IEnemy;
+import no.game.model.tower.TowerType;
+import no.grid.CellPosition;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+public class TargetingPhaseTest {
+
+    // Waves spawn their first enemy on the ninth tick, so the game stays
+    // free of randomness for this many ticks.
+    private static final int TICKS = 8;
+
+    private static GameModel towerFilledGame() {
+        GameModel model = new GameModel();
+        model.setMap(MapType.MAP1);
+        model.setGold(Integer.MAX_VALUE);
+        List<CellPosition> path = model.getPath();
+        TowerType[] types = TowerType.values();
+        int placed = 0;
+        for (int row = 0; row < model.getBoard().rows(); row++) {
+            for (int col = 0; col < model.getBoard().cols(); col++) {
+                CellPosition pos = new CellPosition(row, col);
+                if (!path.contains(pos)) {
+                    model.placeTower(pos, types[placed++ % types.length]);
+                }
+            }
+        }
+
+        for (int i = 0; i < 300; i++) {
+            IEnemy enemy = new BasicEnemy(path, 20 + i % 70, 0.05 + (i % 11) * 0.03);
+            for (int step = 0; step < i % (path.size() - 1); step++) {
+                enemy.move();
+            }
+            model.getEnemies().add(enemy);
+        }
+        model.setGameState();
+        return model;
+    }
+
+    @Test
+    public void testParallelTargetingMatchesSerialTargeting() {
+        GameModel serial = towerFilledGame();
+        GameModel parallel = towerFilledGame();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        parallel.setTargetingPool(pool);
+        assertTrue(serial.getTowers().size() > 2 * TargetingPhase.CHUNK_SIZE);
+
+        for (int tick = 0; tick < TICKS; tick++) {
+            serial.update(0.2);
+            parallel.update(0.2);
+
+            assertEquals(serial.getScore(), parallel.getScore());
+            assertEquals(serial.getGold(), parallel.getGold());
+            assertEquals(serial.getEnemies().size(), parallel.getEnemies().size());
+            for (int i = 0; i < serial.getEnemies().size(); i++) {
+                IEnemy expected = serial.getEnemies().get(i);
+                IEnemy actual = parallel.getEnemies().get(i);
+                assertEquals(expected.getHealth(), actual.getHealth());
+                assertEquals(expected.getPathIndex(), actual.getPathIndex());
+                assertEquals(expected.getMovementProgress(), actual.getMovementProgress());
+            }
+
+            List<Projectile> expectedShots = serial.getProjectiles();
+            List<Projectile> actualShots = parallel.getProjectiles();
+            assertEquals(expectedShots.size(), actualShots.size());
+            for (int i = 0; i < expectedShots.size(); i++) {
+                assertEquals(expectedShots.get(i).getPosition(), actualShots.get(i).getPosition());
+                assertEquals(serial.getEnemies().indexOf(expectedShots.get(i).getTarget()),
+                        parallel.getEnemies().indexOf(actualShots.get(i).getTarget()));
+            }
+        }
+        assertTrue(serial.getScore() > 0);
+        pool.shutdown();
+    }
+
+    @Test
+    public void testTowersFireWithoutPool() {
+        GameModel model = towerFilledGame();
+        assertNull(model.getTargetingPool());
+
+        model.update(0.2);
+
+        assertFalse(model.getProjectiles().isEmpty());
+    }
+}
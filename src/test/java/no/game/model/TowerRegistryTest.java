@@ -0,0 +1,79 @@
+package no.game.model;
+
+import no.game.model.tower.BasicTower;
+import no.game.model.tower.SlowTower;
+import no.game.model.tower.SniperTower;
+import no.game.model.tower.Tower;
+import no.game.model.tower.TowerType;
+import no.grid.CellPosition;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+public class TowerRegistryTest {
+
+    @Test
+    public void testTowersAreFoundByCellAndListedByType() {
+        TowerRegistry registry = new TowerRegistry(4, 4);
+        Tower slow = new SlowTower(new CellPosition(0, 0));
+        Tower basic = new BasicTower(new CellPosition(3, 3));
+        Tower sniper = new SniperTower(new CellPosition(1, 2));
+        registry.add(slow);
+        registry.add(basic);
+        registry.add(sniper);
+
+        assertSame(sniper, registry.get(new CellPosition(1, 2)));
+        assertNull(registry.get(new CellPosition(2, 2)));
+        assertNull(registry.get(new CellPosition(4, 0)));
+        assertEquals(1, registry.count(TowerType.SLOW));
+        assertEquals(0, registry.count(TowerType.AOE));
+        assertEquals(List.of(basic, sniper, slow), registry.asList());
+    }
+
+    @Test
+    public void testRemoveMovesLastTowerOfTypeIntoPlace() {
+        TowerRegistry registry = new TowerRegistry(1, 40);
+        for (int col = 0; col < 40; col++) {
+            registry.add(new BasicTower(new CellPosition(0, col)));
+        }
+
+        Tower removed = registry.remove(new CellPosition(0, 5));
+        assertEquals(new CellPosition(0, 5), removed.getPosition());
+        assertNull(registry.remove(new CellPosition(0, 5)));
+        assertEquals(39, registry.size());
+        assertEquals(new CellPosition(0, 39), registry.towers(TowerType.BASIC)[5].getPosition());
+
+        // The moved tower must still be removable from its new place.
+        assertNotNull(registry.remove(new CellPosition(0, 39)));
+        assertEquals(38, registry.count(TowerType.BASIC));
+        for (Tower tower : registry.asList()) {
+            assertSame(tower, registry.get(tower.getPosition()));
+        }
+    }
+
+    @Test
+    public void testCellHoldsOneTower() {
+        TowerRegistry registry = new TowerRegistry(2, 2);
+        registry.add(new BasicTower(new CellPosition(1, 1)));
+
+        assertThrows(IllegalArgumentException.class, () -> registry.add(new SlowTower(new CellPosition(1, 1))));
+        assertThrows(IndexOutOfBoundsException.class, () -> registry.add(new SlowTower(new CellPosition(2, 1))));
+        assertThrows(UnsupportedOperationException.class, () -> registry.asList().clear());
+    }
+
+    @Test
+    public void testLargeBoard() {
+        TowerRegistry registry = new TowerRegistry(4096, 4096);
+        Tower far = new BasicTower(new CellPosition(4095, 4000));
+        registry.add(far);
+
+        assertSame(far, registry.get(new CellPosition(4095, 4000)));
+        assertNull(registry.get(new CellPosition(4095, 4001)));
+        assertNull(registry.get(new CellPosition(0, 0)));
+        assertSame(far, registry.remove(new CellPosition(4095, 4000)));
+        assertEquals(0, registry.size());
+    }
+}
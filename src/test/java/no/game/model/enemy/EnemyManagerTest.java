@@ -2,10 +2,17 @@ package no.game.model.enemy;
 
 import org.junit.jupiter.api.Test;
 
+import no.game.save.ChannelInput;
+import no.game.save.ChannelOutput;
 import no.grid.CellPosition;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.util.List;
 import java.util.ArrayList;
 
@@ -62,4 +69,103 @@ public class EnemyManagerTest {
         assertEquals(new CellPosition(1, 2), enemy.getPosition());
     }
 
+    @Test
+    public void testRemoveIfCompactsEnemiesInOrder() {
+        List<CellPosition> path = List.of(new CellPosition(0, 0), new CellPosition(0, 1),
+                new CellPosition(0, 2), new CellPosition(0, 3));
+        for (boolean useStore : new boolean[] { false, true }) {
+            EnemyManager enemyManager = new EnemyManager(path, useStore);
+            List<IEnemy> spawned = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                spawned.add(enemyManager.spawn(EnemyType.BASIC, 10 + i, 0.1 * i));
+            }
+            enemyManager.update();
+
+            List<IEnemy> visited = new ArrayList<>();
+            boolean removed = enemyManager.getEnemies().removeIf(enemy -> {
+                visited.add(enemy);
+                return enemy.getHealth() % 2 == 0;
+            });
+
+            assertTrue(removed);
+            assertEquals(spawned, visited);
+            assertEquals(List.of(spawned.get(1), spawned.get(3), spawned.get(5)), enemyManager.getEnemies());
+            assertEquals(3, enemyManager.getProgressIndex().size());
+            assertFalse(enemyManager.getEnemies().removeIf(enemy -> false));
+        }
+    }
+
+    @Test
+    public void testRemoveIfDropsStoredAndAddedEnemies() {
+        List<CellPosition> path = List.of(new CellPosition(0, 0), new CellPosition(0, 1),
+                new CellPosition(0, 2), new CellPosition(0, 3));
+        EnemyManager enemyManager = new EnemyManager(path, true);
+        List<IEnemy> all = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            IEnemy enemy = i % 2 == 0 ? enemyManager.spawn(EnemyType.CIRCLE, 10 + i, 1.0)
+                    : new BasicEnemy(path, 10 + i, 1.0);
+            if (i % 2 != 0) {
+                enemyManager.addEnemy(enemy);
+            }
+            all.add(enemy);
+        }
+        enemyManager.update();
+
+        assertTrue(enemyManager.getEnemies().removeIf(enemy -> enemy.getHealth() % 4 < 2));
+        List<IEnemy> kept = List.of(all.get(0), all.get(1), all.get(4), all.get(5));
+        assertEquals(kept, enemyManager.getEnemies());
+        assertEquals(4, enemyManager.getProgressIndex().size());
+
+        // Kept enemies, stored or not, still move; removed ones are left alone.
+        enemyManager.update();
+        for (IEnemy enemy : kept) {
+            assertEquals(2, enemy.getPathIndex());
+        }
+        assertEquals(1, all.get(2).getPathIndex());
+        assertEquals(1, all.get(3).getPathIndex());
+    }
+
+    @Test
+    public void testCorruptEnemyStateIsRejected() throws IOException {
+        List<CellPosition> path = List.of(new CellPosition(0, 0), new CellPosition(0, 1), new CellPosition(0, 2));
+        EnemyManager manager = new EnemyManager(path);
+        manager.addEnemy(new BasicEnemy(path, 50, 0.5));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ChannelOutput out = new ChannelOutput(Channels.newChannel(bytes));
+        manager.writeState(out);
+        out.flush();
+        byte[] state = bytes.toByteArray();
+
+        // count, then type, rank, health, max health, speed, current speed,
+        // slow amount, slow ticks, path index and movement progress.
+        int health = 4 + 1 + 4;
+        int speed = health + 16;
+        int pathIndex = health + 5 * 8 + 4;
+        assertDoesNotThrow(() -> readState(state, false));
+        assertThrows(IOException.class, () -> readState(withInt(state, pathIndex, 4), false));
+        assertThrows(IOException.class, () -> readState(withInt(state, pathIndex, -1), true));
+        assertThrows(IOException.class, () -> readState(withDouble(state, health, Double.NaN), false));
+        assertThrows(IOException.class, () -> readState(withDouble(state, speed, -1), true));
+        assertThrows(IOException.class, () -> readState(withDouble(state, speed, Double.POSITIVE_INFINITY), false));
+        assertEquals(3, readState(withInt(state, pathIndex, 3), true).getEnemies().get(0).getPathIndex());
+    }
+
+    private static EnemyManager readState(byte[] state, boolean useStore) throws IOException {
+        EnemyManager manager = new EnemyManager(List.of(new CellPosition(0, 0), new CellPosition(0, 1),
+                new CellPosition(0, 2)), useStore);
+        manager.readState(new ChannelInput(Channels.newChannel(new ByteArrayInputStream(state))));
+        return manager;
+    }
+
+    private static byte[] withInt(byte[] state, int offset, int value) {
+        byte[] copy = state.clone();
+        ByteBuffer.wrap(copy).putInt(offset, value);
+        return copy;
+    }
+
+    private static byte[] withDouble(byte[] state, int offset, double value) {
+        byte[] copy = state.clone();
+        ByteBuffer.wrap(copy).putDouble(offset, value);
+        return copy;
+    }
 }
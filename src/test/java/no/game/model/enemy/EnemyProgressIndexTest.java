@@ -0,0 +1,174 @@
+package no.game.model.enemy;
+
+import no.game.model.PathCoverage;
+import no.grid.CellPosition;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+public class EnemyProgressIndexTest {
+
+    private static List<CellPosition> straightPath(int length) {
+        List<CellPosition> path = new ArrayList<>();
+        for (int col = 0; col < length; col++) {
+            path.add(new CellPosition(0, col));
+        }
+        return path;
+    }
+
+    private static PathCoverage wholePath(List<CellPosition> path) {
+        return PathCoverage.compute(new CellPosition(0, 0), path.size(), path);
+    }
+
+    @Test
+    public void testFastEnemyOvertakesSlowEnemy() {
+        List<CellPosition> path = straightPath(30);
+        EnemyManager manager = new EnemyManager(path);
+        IEnemy slow = new CircleEnemy(path, 50, 0.1);
+        manager.addEnemy(slow);
+        for (int i = 0; i < 10; i++) {
+            manager.update();
+        }
+        IEnemy fast = new TriangleEnemy(path, 50, 0.5);
+        manager.addEnemy(fast);
+
+        PathCoverage coverage = wholePath(path);
+        assertEquals(slow, manager.getProgressIndex().findLeading(coverage));
+
+        for (int i = 0; i < 10; i++) {
+            manager.update();
+        }
+        assertEquals(fast, manager.getProgressIndex().findLeading(coverage));
+    }
+
+    @Test
+    public void testMovementProgressBreaksTiesWithinACell() {
+        List<CellPosition> path = straightPath(10);
+        EnemyManager manager = new EnemyManager(path);
+        IEnemy behind = new BasicEnemy(path, 50, 0.3);
+        IEnemy ahead = new BasicEnemy(path, 50, 0.6);
+        manager.addEnemy(ahead);
+        manager.addEnemy(behind);
+        manager.update();
+
+        assertEquals(0, ahead.getPathIndex());
+        assertEquals(0, behind.getPathIndex());
+        assertEquals(ahead, manager.getProgressIndex().findLeading(wholePath(path)));
+    }
+
+    @Test
+    public void testQueriesOnlyLookAtCoveredIntervals() {
+        List<CellPosition> path = straightPath(20);
+        EnemyManager manager = new EnemyManager(path);
+        IEnemy first = new BasicEnemy(path, 50, 1.0);
+        IEnemy second = new BasicEnemy(path, 50, 1.0);
+        IEnemy third = new BasicEnemy(path, 50, 1.0);
+        manager.addEnemy(first);
+        for (int i = 0; i < 5; i++) {
+            manager.update();
+        }
+        manager.addEnemy(second);
+        for (int i = 0; i < 5; i++) {
+            manager.update();
+        }
+        manager.addEnemy(third);
+
+        // Covers path indices 2 to 8, which only holds the second enemy.
+        PathCoverage coverage = PathCoverage.compute(new CellPosition(0, 5), 3, path);
+        assertEquals(second, manager.getProgressIndex().findLeading(coverage));
+
+        List<IEnemy> found = new ArrayList<>();
+        manager.getProgressIndex().collect(wholePath(path), found);
+        assertEquals(List.of(first, second, third), found);
+
+        manager.getEnemies().remove(second);
+        assertNull(manager.getProgressIndex().findLeading(coverage));
+    }
+
+    @Test
+    public void testOrderMatchesSortedEnemiesAfterRandomChanges() {
+        List<CellPosition> path = straightPath(200);
+        EnemyManager manager = new EnemyManager(path);
+        Random random = new Random(42);
+        PathCoverage coverage = wholePath(path);
+
+        for (int tick = 0; tick < 300; tick++) {
+            for (int i = random.nextInt(4); i > 0; i--) {
+                manager.addEnemy(new BasicEnemy(path, 50, 0.05 + random.nextDouble() * 0.5));
+            }
+            List<IEnemy> enemies = manager.getEnemies();
+            for (int i = enemies.size() - 1; i >= 0; i--) {
+                if (enemies.get(i).isAtEnd() || random.nextInt(20) == 0) {
+                    enemies.remove(i);
+                }
+            }
+            manager.update();
+
+            List<IEnemy> expected = new ArrayList<>(enemies);
+            expected.sort(Comparator.comparingInt(IEnemy::getPathIndex)
+                    .thenComparingDouble(IEnemy::getMovementProgress).reversed());
+            List<IEnemy> found = new ArrayList<>();
+            manager.getProgressIndex().collect(coverage, found);
+
+            assertEquals(enemies.size(), manager.getProgressIndex().size());
+            assertEquals(expected.size(), found.size());
+            for (int i = 0; i < found.size(); i++) {
+                assertEquals(expected.get(i).getPathIndex(), found.get(i).getPathIndex());
+                assertEquals(expected.get(i).getMovementProgress(), found.get(i).getMovementProgress());
+            }
+        }
+    }
+
+    @Test
+    public void testClearEmptiesTheIndex() {
+        List<CellPosition> path = straightPath(5);
+        EnemyManager manager = new EnemyManager(path);
+        manager.addEnemy(new BasicEnemy(path, 50, 0.1));
+        manager.addEnemy(new BasicEnemy(path, 50, 0.2));
+        manager.update();
+
+        manager.getEnemies().clear();
+
+        assertEquals(0, manager.getProgressIndex().size());
+        assertNull(manager.getProgressIndex().findLeading(wholePath(path)));
+    }
+
+    @Test
+    public void testRemoveAllDropsEnemiesMovedSinceTheLastRepair() {
+        List<CellPosition> path = straightPath(50);
+        EnemyProgressIndex index = new EnemyProgressIndex();
+        List<IEnemy> enemies = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            IEnemy enemy = new BasicEnemy(path, 50, 0.1 * (i % 7 + 1));
+            enemies.add(enemy);
+            index.add(enemy);
+        }
+        index.reorder();
+        IEnemy pending = new BasicEnemy(path, 50, 0.3);
+        index.add(pending);
+        // Moved without a repair, so the index no longer has their keys.
+        for (int tick = 0; tick < 10; tick++) {
+            for (IEnemy enemy : enemies) {
+                enemy.move();
+            }
+        }
+
+        IEnemy[] removed = { enemies.get(0), enemies.get(5), pending, enemies.get(19) };
+        index.removeAll(removed, removed.length);
+
+        assertEquals(17, index.size());
+        index.reorder();
+        List<IEnemy> found = new ArrayList<>();
+        index.collect(PathCoverage.compute(new CellPosition(0, 0), path.size(), path), found);
+        assertEquals(17, found.size());
+        for (IEnemy enemy : removed) {
+            assertFalse(found.contains(enemy));
+        }
+    }
+}
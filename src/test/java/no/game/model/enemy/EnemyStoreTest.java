@@ -0,0 +1,186 @@
+package no.game.model.enemy;
+
+import no.game.stats.TickStats;
+import no.grid.CellPosition;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+public class EnemyStoreTest {
+
+    private static List<CellPosition> straightPath(int length) {
+        List<CellPosition> path = new ArrayList<>();
+        for (int col = 0; col < length; col++) {
+            path.add(new CellPosition(0, col));
+        }
+        return path;
+    }
+
+    @Test
+    public void testStoredEnemyMovesLikeEnemyObject() {
+        List<CellPosition> path = straightPath(40);
+        EnemyStore store = new EnemyStore(path);
+        IEnemy stored = store.add(EnemyType.TRIANGLE, 35, 0.37);
+        IEnemy object = new TriangleEnemy(path, 35, 0.37);
+
+        for (int tick = 0; tick < 200; tick++) {
+            if (tick % 25 == 0) {
+                stored.applySlow(0.5, 10);
+                object.applySlow(0.5, 10);
+            }
+            store.moveAll();
+            object.move();
+
+            assertEquals(object.getPathIndex(), stored.getPathIndex());
+            assertEquals(object.getMovementProgress(), stored.getMovementProgress());
+            assertEquals(object.getPosition(), stored.getPosition());
+            assertEquals(object.isAtEnd(), stored.isAtEnd());
+        }
+        assertTrue(stored.isAtEnd());
+        assertEquals(EnemyType.TRIANGLE, stored.getType());
+    }
+
+    @Test
+    public void testTakeDamageAndDeath() {
+        EnemyStore store = new EnemyStore(straightPath(5));
+        IEnemy enemy = store.add(EnemyType.CIRCLE, 100, 0.1);
+
+        enemy.takeDamage(30);
+        assertEquals(70, enemy.getHealth());
+        assertEquals(100, enemy.getMaxHealth());
+        assertFalse(enemy.isDead());
+
+        enemy.takeDamage(80);
+        assertTrue(enemy.isDead());
+        assertEquals(0, enemy.getHealth());
+    }
+
+    @Test
+    public void testRemovedViewIsDetachedAndOthersKeepTheirState() {
+        EnemyStore store = new EnemyStore(straightPath(10));
+        IEnemy first = store.add(EnemyType.BASIC, 50, 1.0);
+        store.moveAll();
+        IEnemy second = store.add(EnemyType.CIRCLE, 60, 1.0);
+        IEnemy third = store.add(EnemyType.TRIANGLE, 70, 1.0);
+        store.moveAll();
+
+        store.remove(first);
+
+        assertEquals(2, store.size());
+        assertFalse(store.holds(first));
+        assertTrue(store.holds(third));
+        assertEquals(2, first.getPathIndex());
+        assertEquals(1, third.getPathIndex());
+        assertEquals(70, third.getHealth());
+        assertEquals(EnemyType.TRIANGLE, third.getType());
+
+        store.moveAll();
+        first.takeDamage(10);
+        assertEquals(2, first.getPathIndex());
+        assertEquals(40, first.getHealth());
+        assertEquals(2, second.getPathIndex());
+        assertEquals(2, third.getPathIndex());
+    }
+
+    @Test
+    public void testRemovingEnemiesAllocatesOnlyTheDetachedCopies() {
+        assumeTrue(TickStats.currentThreadAllocatedBytes() >= 0);
+        EnemyStore store = new EnemyStore(straightPath(10));
+        int count = 10_000;
+        IEnemy[] enemies = new IEnemy[count];
+
+        // The first round warms up the code paths, the second is measured.
+        long allocated = 0;
+        for (int round = 0; round < 2; round++) {
+            store.clear();
+            for (int i = 0; i < count; i++) {
+                enemies[i] = store.add(EnemyType.BASIC, 10, 0.5);
+            }
+            long start = TickStats.currentThreadAllocatedBytes();
+            for (int i = 0; i < count; i += 2) {
+                store.remove(enemies[i]);
+            }
+            store.clear();
+            allocated = TickStats.currentThreadAllocatedBytes() - start;
+        }
+
+        assertEquals(0, store.size());
+        assertTrue(allocated < count * 128L, "Removing " + count + " enemies allocated " + allocated + " bytes");
+        assertEquals(10, enemies[0].getHealth());
+        assertEquals(EnemyType.BASIC, enemies[count - 1].getType());
+    }
+
+    @Test
+    public void testStoredEnemiesTakeLessHeapThanEnemyObjects() {
+        assumeTrue(TickStats.currentThreadAllocatedBytes() >= 0);
+        assumeTrue(usesCompressedOops());
+        List<CellPosition> path = straightPath(10);
+        int count = 10_000;
+        IEnemy[] enemies = new IEnemy[count];
+
+        // Nothing allocated here becomes garbage apart from the store's
+        // first small arrays, so the bytes allocated are the bytes retained.
+        long start = TickStats.currentThreadAllocatedBytes();
+        EnemyStore store = new EnemyStore(path);
+        store.ensureCapacity(count);
+        for (int i = 0; i < count; i++) {
+            enemies[i] = store.add(EnemyType.BASIC, 10, 0.5);
+        }
+        long storeBytes = TickStats.currentThreadAllocatedBytes() - start;
+
+        start = TickStats.currentThreadAllocatedBytes();
+        for (int i = 0; i < count; i++) {
+            enemies[i] = new BasicEnemy(path, 10, 0.5);
+        }
+        long objectBytes = TickStats.currentThreadAllocatedBytes() - start;
+
+        assertEquals(count, store.size());
+        assertTrue(storeBytes < objectBytes,
+                "Stored enemies took " + storeBytes / count + " bytes each, Enemy objects "
+                        + objectBytes / count);
+    }
+
+    private static boolean usesCompressedOops() {
+        HotSpotDiagnosticMXBean bean = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+        return bean != null && "true".equals(bean.getVMOption("UseCompressedOops").getValue());
+    }
+
+    @Test
+    public void testInvalidEnemiesAreRejected() {
+        EnemyStore store = new EnemyStore(straightPath(3));
+
+        assertThrows(IllegalArgumentException.class, () -> new EnemyStore(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> store.add(EnemyType.BASIC, 0, 0.1));
+        assertThrows(IllegalArgumentException.class, () -> store.add(EnemyType.BASIC, 10, -0.1));
+    }
+
+    @Test
+    public void testEnemyManagerMovesStoredAndAddedEnemies() {
+        List<CellPosition> path = straightPath(10);
+        EnemyManager manager = new EnemyManager(path, true);
+        IEnemy added = new BasicEnemy(path, 50, 1.0);
+        manager.addEnemy(added);
+        IEnemy spawned = manager.spawn(EnemyType.CIRCLE, 100, 1.0);
+
+        manager.update();
+
+        assertEquals(List.of(added, spawned), manager.getEnemies());
+        assertEquals(1, added.getPathIndex());
+        assertEquals(1, spawned.getPathIndex());
+
+        manager.getEnemies().remove(spawned);
+        manager.update();
+
+        assertEquals(List.of(added), manager.getEnemies());
+        assertEquals(2, added.getPathIndex());
+        assertEquals(1, spawned.getPathIndex());
+    }
+}
@@ -0,0 +1,170 @@
+package no.game.replay;
+
+import no.game.model.GameBoard;
+import no.game.model.GameModel;
+import no.game.model.GameRandom;
+import no.game.model.GameState;
+import no.game.model.MapType;
+import no.game.model.tower.TowerType;
+import no.game.save.ChannelOutput;
+import no.grid.CellPosition;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class ReplayTest {
+
+    private static final long SEED = 42;
+    private static final int KEYFRAME_INTERVAL = 250;
+    private static final long TICKS = 3_000;
+
+    @TempDir
+    Path dir;
+
+    private static GameModel newGame() {
+        GameModel model = new GameModel(new GameBoard(20, 20), false, new GameRandom(SEED));
+        model.setMap(MapType.MAP3);
+        model.setPlayerHP(1_000);
+        model.setGold(1_000);
+        model.setGameState();
+        return model;
+    }
+
+    /**
+     * Plays a scripted game until the given tick: the player builds, upgrades
+     * and sells towers at fixed ticks and starts every wave right away.
+     */
+    private static void play(GameModel model, long ticks) {
+        while (model.getTick() < ticks && model.getGameState() != GameState.GAME_OVER) {
+            long tick = model.getTick();
+            if (tick == 0) {
+                model.placeTower(new CellPosition(5, 10), TowerType.SNIPER);
+                model.placeTower(new CellPosition(5, 8), TowerType.SLOW);
+            } else if (tick == 400) {
+                model.placeTower(new CellPosition(14, 10), TowerType.AOE);
+                model.upgradeTower(new CellPosition(5, 10));
+            } else if (tick == 1_100) {
+                model.sellTower(new CellPosition(5, 8));
+                model.placeTower(new CellPosition(4, 8), TowerType.BASIC);
+            } else if (tick == 1_800) {
+                model.pauseGameState();
+                model.upgradeTower(new CellPosition(14, 10));
+            }
+            if (model.getGameState() == GameState.PAUSED) {
+                model.setGameState();
+            }
+            model.update(0.2);
+        }
+    }
+
+    private Path record() throws IOException {
+        Path file = dir.resolve("game.replay");
+        GameModel model = newGame();
+        try (ReplayWriter writer = new ReplayWriter(FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE), model, KEYFRAME_INTERVAL)) {
+            play(model, TICKS);
+        }
+        assertNull(model.getRecorder());
+        return file;
+    }
+
+    private static byte[] stateOf(GameModel model) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ChannelOutput out = new ChannelOutput(Channels.newChannel(bytes));
+        model.writeState(out);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    @Test
+    public void testSeekMatchesStraightSimulation() throws IOException {
+        Path file = record();
+
+        try (ReplayReader reader = new ReplayReader(FileChannel.open(file, StandardOpenOption.READ))) {
+            for (long tick : new long[] { 0, 1, 249, 250, 401, 1_100, 1_801, 2_999, TICKS }) {
+                GameModel expected = newGame();
+                play(expected, tick);
+
+                GameModel seeked = reader.seek(tick);
+                assertEquals(tick, seeked.getTick());
+                assertArrayEquals(stateOf(expected), stateOf(seeked), "state at tick " + tick);
+                assertArrayEquals(stateOf(expected), stateOf(reader.seek(tick, true)), "stored at tick " + tick);
+            }
+        }
+    }
+
+    @Test
+    public void testReplayIndexesKeyframesAndActions() throws IOException {
+        Path file = record();
+
+        try (ReplayReader reader = new ReplayReader(FileChannel.open(file, StandardOpenOption.READ))) {
+            assertEquals(0, reader.getStartTick());
+            assertEquals(TICKS, reader.getEndTick());
+            assertEquals(1 + TICKS / KEYFRAME_INTERVAL, reader.getKeyframeCount());
+            // Seven towers built, upgraded or sold and one pause, besides
+            // the wave starts.
+            assertTrue(reader.getActionCount() > 8);
+
+            GameModel end = reader.play();
+            assertTrue(end.getEnemiesKilled() > 0);
+            assertEquals(3, end.getTowers().size());
+            assertThrows(IllegalArgumentException.class, () -> reader.seek(-1));
+            assertThrows(IllegalArgumentException.class, () -> reader.seek(TICKS + 1));
+        }
+    }
+
+    @Test
+    public void testReadsRecordingCutShort() throws IOException {
+        Path file = dir.resolve("crashed.replay");
+        GameModel model = newGame();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // The writer is never closed, as if the game crashed while
+            // writing its next record.
+            new ReplayWriter(channel, model, KEYFRAME_INTERVAL);
+            play(model, 1_900);
+            channel.write(ByteBuffer.wrap(new byte[] { ReplayWriter.PLACE, 0, 0, 0 }));
+        }
+
+        try (ReplayReader reader = new ReplayReader(FileChannel.open(file, StandardOpenOption.READ))) {
+            long end = reader.getEndTick();
+            assertTrue(end >= 1_800 && end < 1_900, "end tick " + end);
+            assertEquals(1 + 1_750 / KEYFRAME_INTERVAL, reader.getKeyframeCount());
+
+            GameModel expected = newGame();
+            play(expected, end);
+            assertArrayEquals(stateOf(expected), stateOf(reader.seek(end)));
+            assertThrows(IllegalArgumentException.class, () -> reader.seek(end + 1));
+        }
+    }
+
+    @Test
+    public void testRejectsFileThatIsNotAReplay() throws IOException {
+        Path file = dir.resolve("other.bin");
+        Files.write(file, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+
+        assertThrows(IOException.class,
+                () -> new ReplayReader(FileChannel.open(file, StandardOpenOption.READ)));
+    }
+
+    @Test
+    public void testRejectsReplayOfTheFirstVersion() throws IOException {
+        Path file = dir.resolve("old.tdr");
+        ByteBuffer header = ByteBuffer.allocate(12).putInt(ReplayWriter.MAGIC).putInt(1).putInt(1);
+        Files.write(file, header.array());
+
+        IOException e = assertThrows(IOException.class,
+                () -> new ReplayReader(FileChannel.open(file, StandardOpenOption.READ)));
+        assertTrue(e.getMessage().contains("version"));
+    }
+}
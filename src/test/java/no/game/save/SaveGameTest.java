@@ -0,0 +1,146 @@
+package no.game.save;
+
+import no.game.model.GameModel;
+import no.game.model.MapType;
+import no.game.model.enemy.BasicEnemy;
+import no.game.model.enemy.IEnemy;
+import no.game.model.tower.Tower;
+import no.game.model.tower.TowerType;
+import no.game.sim.HeadlessRunner;
+import no.game.sim.TowerPlacement;
+import no.grid.CellPosition;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+import java.util.List;
+
+public class SaveGameTest {
+
+    private static final HeadlessRunner RUNNER = new HeadlessRunner(MapType.MAP3, List.of(
+            new TowerPlacement(TowerType.SNIPER, new CellPosition(5, 10), 0),
+            new TowerPlacement(TowerType.SLOW, new CellPosition(5, 8), 0),
+            new TowerPlacement(TowerType.AOE, new CellPosition(14, 10), 300)));
+
+    @TempDir
+    Path dir;
+
+    private static GameModel gameAtTick(long ticks) {
+        GameModel model = RUNNER.newGame(7);
+        model.setPlayerHP(1_000);
+        RUNNER.play(model, ticks, Integer.MAX_VALUE);
+        model.upgradeTower(new CellPosition(5, 10));
+        return model;
+    }
+
+    private static byte[] save(GameModel model) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        SaveGame.write(model, Channels.newChannel(bytes));
+        return bytes.toByteArray();
+    }
+
+    private static GameModel load(byte[] save, boolean useEnemyStore) throws IOException {
+        return SaveGame.read(Channels.newChannel(new ByteArrayInputStream(save)), useEnemyStore);
+    }
+
+    @Test
+    public void testRoundTripKeepsFullState() throws IOException {
+        GameModel model = gameAtTick(1_200);
+        assertFalse(model.getEnemies().isEmpty());
+        assertFalse(model.getProjectiles().isEmpty());
+
+        GameModel loaded = load(save(model), false);
+
+        assertArrayEquals(save(model), save(loaded));
+        assertEquals(model.getBoard().prettyString(), loaded.getBoard().prettyString());
+        assertEquals(model.getTick(), loaded.getTick());
+        assertEquals(model.getGold(), loaded.getGold());
+        assertEquals(model.getScore(), loaded.getScore());
+        assertEquals(model.getWaveNumber(), loaded.getWaveNumber());
+        assertEquals(model.getRandom().getState(), loaded.getRandom().getState());
+        assertEquals(model.getTowers().size(), loaded.getTowers().size());
+        for (int i = 0; i < model.getTowers().size(); i++) {
+            Tower expected = model.getTowers().get(i);
+            Tower actual = loaded.getTowers().get(i);
+            assertEquals(expected.getPosition(), actual.getPosition());
+            assertEquals(expected.getLevel(), actual.getLevel());
+            assertEquals(expected.getDamage(), actual.getDamage());
+            assertEquals(expected.getCooldownRemaining(), actual.getCooldownRemaining());
+        }
+        for (int i = 0; i < model.getEnemies().size(); i++) {
+            IEnemy expected = model.getEnemies().get(i);
+            IEnemy actual = loaded.getEnemies().get(i);
+            assertEquals(expected.getType(), actual.getType());
+            assertEquals(expected.getHealth(), actual.getHealth());
+            assertEquals(expected.getPathIndex(), actual.getPathIndex());
+            assertEquals(expected.getMovementProgress(), actual.getMovementProgress());
+        }
+        assertEquals(model.getProjectiles().size(), loaded.getProjectiles().size());
+    }
+
+    @Test
+    public void testLoadedGamePlaysOnLikeTheOriginal() throws IOException {
+        GameModel model = gameAtTick(1_200);
+        byte[] save = save(model);
+        GameModel loaded = load(save, false);
+        GameModel stored = load(save, true);
+
+        RUNNER.play(model, 2_000, Integer.MAX_VALUE);
+        RUNNER.play(loaded, 2_000, Integer.MAX_VALUE);
+        RUNNER.play(stored, 2_000, Integer.MAX_VALUE);
+
+        assertTrue(model.getEnemiesKilled() > 0);
+        assertArrayEquals(save(model), save(loaded));
+        assertArrayEquals(save(model), save(stored));
+    }
+
+    @Test
+    public void testSaveAndLoadFile() throws IOException {
+        GameModel model = gameAtTick(1_000);
+        Path file = dir.resolve("game.save");
+
+        SaveGame.save(model, file);
+        SaveGame.save(model, file);
+
+        assertArrayEquals(save(model), save(SaveGame.load(file, false)));
+    }
+
+    @Test
+    public void testLargeStateRoundTrip() throws IOException {
+        GameModel model = new GameModel();
+        model.setMap(MapType.MAP1);
+        List<CellPosition> path = model.getPath();
+        for (int i = 0; i < 100_000; i++) {
+            IEnemy enemy = new BasicEnemy(path, 1 + i % 97, 0.5);
+            for (int step = 0; step < i % 40; step++) {
+                enemy.move();
+            }
+            model.getEnemies().add(enemy);
+        }
+
+        byte[] save = save(model);
+        GameModel loaded = load(save, true);
+
+        assertEquals(100_000, loaded.getEnemies().size());
+        assertEquals(model.getEnemies().get(12_345).getPathIndex(), loaded.getEnemies().get(12_345).getPathIndex());
+        assertEquals(model.getEnemies().get(99_999).getHealth(), loaded.getEnemies().get(99_999).getHealth());
+        assertArrayEquals(save, save(loaded));
+    }
+
+    @Test
+    public void testRejectsOtherVersion() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(8).putInt(SaveGame.MAGIC).putInt(SaveGame.VERSION + 1);
+
+        IOException e = assertThrows(IOException.class, () -> load(header.array(), false));
+        assertTrue(e.getMessage().contains("version"));
+        assertThrows(IOException.class, () -> load(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 }, false));
+    }
+}
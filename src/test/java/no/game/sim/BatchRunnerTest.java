@@ -0,0 +1,71 @@
+package no.game.sim;
+
+import no.game.model.MapType;
+import no.game.model.tower.TowerType;
+import no.grid.CellPosition;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class BatchRunnerTest {
+
+    // On the path of MAP2 and MAP3, but free on MAP1.
+    private static final TowerPlacement TOWER = new TowerPlacement(TowerType.BASIC, new CellPosition(4, 10), 0);
+
+    private static List<GameConfig> mixedMaps(int games) {
+        List<GameConfig> configs = new ArrayList<>();
+        for (int i = 0; i < games; i++) {
+            MapType map = MapType.values()[i % MapType.values().length];
+            configs.add(new GameConfig(map, List.of(TOWER), i, 3_000, Integer.MAX_VALUE));
+        }
+        return configs;
+    }
+
+    @Test
+    public void testGamesOnDifferentMapsDoNotShareState() {
+        List<GameConfig> configs = mixedMaps(12);
+
+        List<BatchResult> results;
+        try (BatchRunner runner = new BatchRunner(4)) {
+            results = runner.runAll(configs);
+        }
+
+        assertEquals(configs.size(), results.size());
+        for (int i = 0; i < configs.size(); i++) {
+            BatchResult result = results.get(i);
+            assertEquals(i, result.index());
+            assertEquals(configs.get(i), result.config());
+            assertEquals(configs.get(i).map(), result.result().map());
+            assertEquals(configs.get(i).map() == MapType.MAP1 ? 1 : 0, result.result().towersPlaced());
+        }
+    }
+
+    @Test
+    public void testResultsAreStreamedOncePerGame() {
+        List<GameConfig> configs = mixedMaps(7);
+        Set<Integer> seen = new HashSet<>();
+        Thread caller = Thread.currentThread();
+
+        try (BatchRunner runner = new BatchRunner(3)) {
+            runner.run(configs, result -> {
+                assertSame(caller, Thread.currentThread());
+                assertTrue(seen.add(result.index()));
+            });
+        }
+
+        assertEquals(configs.size(), seen.size());
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new BatchRunner(0));
+        assertThrows(IllegalArgumentException.class, () -> new GameConfig(null, List.of(), 0, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new GameConfig(MapType.MAP1, List.of(), 0, -1, 1));
+    }
+}
@@ -0,0 +1,142 @@
+package no.game.sim;
+
+import no.game.controller.GameMonitor;
+import no.game.model.GameModel;
+import no.game.model.GameState;
+import no.game.model.MapFile;
+import no.game.model.MapType;
+import no.game.model.tower.TowerType;
+import no.grid.CellPosition;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+public class HeadlessRunnerTest {
+
+    @Test
+    public void testRunStopsAtTickLimit() {
+        HeadlessRunner runner = new HeadlessRunner(MapType.MAP3, List.of());
+
+        SimulationResult result = runner.run(200, Integer.MAX_VALUE);
+
+        assertEquals(200, result.ticks());
+        assertEquals(MapType.MAP3, result.map());
+        assertEquals(GameState.ACTIVE_GAME, result.finalState());
+    }
+
+    @Test
+    public void testRunWithoutTowersIsLost() {
+        HeadlessRunner runner = new HeadlessRunner(MapType.MAP3, List.of());
+
+        SimulationResult result = runner.run(1_000_000, Integer.MAX_VALUE);
+
+        assertEquals(GameState.GAME_OVER, result.finalState());
+        assertEquals(10, result.leaks());
+        assertEquals(0, result.kills());
+        assertEquals(0, result.wavesSurvived());
+    }
+
+    @Test
+    public void testScriptedTowersArePlaced() {
+        List<TowerPlacement> placements = List.of(
+                new TowerPlacement(TowerType.SNIPER, new CellPosition(5, 10), 0),
+                new TowerPlacement(TowerType.BASIC, new CellPosition(5, 8), 0),
+                new TowerPlacement(TowerType.BASIC, new CellPosition(4, 9), 100));
+        HeadlessRunner runner = new HeadlessRunner(MapType.MAP3, placements);
+
+        SimulationResult result = runner.run(2_000, Integer.MAX_VALUE);
+
+        // The last placement is on the path and is rejected.
+        assertEquals(2, result.towersPlaced());
+        assertTrue(result.kills() > 0);
+        assertEquals(result.kills() * 10, result.score());
+    }
+
+    @Test
+    public void testGamePausedThroughMonitorStaysPaused() throws Exception {
+        HeadlessRunner runner = new HeadlessRunner(MapType.MAP3, List.of());
+        GameModel model = runner.newGame(HeadlessRunner.DEFAULT_SEED);
+        runner.setTickRate(500);
+        GameMonitor monitor = GameMonitor.register(model, runner);
+        SimulationResult[] result = new SimulationResult[1];
+        Thread thread = new Thread(() -> result[0] = runner.play(model, 1_000_000, Integer.MAX_VALUE));
+        try {
+            thread.start();
+            while (monitor.getTick() < 10) {
+                Thread.sleep(1);
+            }
+            synchronized (model) {
+                assertEquals(GameState.ACTIVE_GAME, model.getGameState());
+                monitor.pause();
+            }
+            long pausedAt = monitor.getTick();
+            Thread.sleep(100);
+            assertEquals(pausedAt, monitor.getTick());
+            assertEquals("PAUSED", monitor.getGameState());
+
+            monitor.setTickRate(0);
+            assertEquals(0, runner.getTickRate());
+            monitor.resume();
+            thread.join(30_000);
+            assertFalse(thread.isAlive());
+            assertEquals(GameState.GAME_OVER, result[0].finalState());
+            assertTrue(result[0].ticks() > pausedAt);
+        } finally {
+            thread.interrupt();
+            monitor.unregister();
+        }
+        assertThrows(IllegalArgumentException.class, () -> runner.setTickRate(-1));
+    }
+
+    @Test
+    public void testRunOnMapFilePlaysLikeBuiltInMap() {
+        List<TowerPlacement> placements = List.of(new TowerPlacement(TowerType.SNIPER, new CellPosition(5, 10), 0));
+        SimulationResult builtIn = new HeadlessRunner(MapType.MAP3, placements).run(3_000, Integer.MAX_VALUE);
+
+        SimulationResult file = new HeadlessRunner(MapFile.builtIn(MapType.MAP3), placements, false)
+                .run(3_000, Integer.MAX_VALUE);
+
+        assertNull(file.map());
+        assertTrue(file.summary().startsWith("map=file "));
+        assertEquals(builtIn.kills(), file.kills());
+        assertEquals(builtIn.score(), file.score());
+        assertEquals(builtIn.gold(), file.gold());
+        assertThrows(IllegalArgumentException.class, () -> new HeadlessRunner((MapFile) null, placements, false));
+    }
+
+    @Test
+    public void testParsePlacement() {
+        assertEquals(new TowerPlacement(TowerType.SNIPER, new CellPosition(3, 7), 0),
+                TowerPlacement.parse("SNIPER:3,7"));
+        assertEquals(new TowerPlacement(TowerType.AOE, new CellPosition(1, 2), 500),
+                TowerPlacement.parse("aoe:1,2@500"));
+        assertThrows(IllegalArgumentException.class, () -> TowerPlacement.parse("BASIC:1"));
+        assertThrows(IllegalArgumentException.class, () -> TowerPlacement.parse("WALL:1,2"));
+        assertThrows(IllegalArgumentException.class, () -> TowerPlacement.parse("BASIC:1,2@-1"));
+    }
+
+    @Test
+    public void testSameSeedPlaysTheSameGame() {
+        List<TowerPlacement> placements = List.of(
+                new TowerPlacement(TowerType.SNIPER, new CellPosition(5, 10), 0),
+                new TowerPlacement(TowerType.SLOW, new CellPosition(5, 8), 0),
+                new TowerPlacement(TowerType.AOE, new CellPosition(14, 10), 300));
+        HeadlessRunner runner = new HeadlessRunner(MapType.MAP3, placements);
+
+        SimulationResult first = runner.run(20_000, Integer.MAX_VALUE, 7);
+        SimulationResult second = runner.run(20_000, Integer.MAX_VALUE, 7);
+        SimulationResult stored = new HeadlessRunner(MapType.MAP3, placements, true).run(20_000, Integer.MAX_VALUE, 7);
+
+        for (SimulationResult other : List.of(second, stored)) {
+            assertEquals(first.ticks(), other.ticks());
+            assertEquals(first.kills(), other.kills());
+            assertEquals(first.leaks(), other.leaks());
+            assertEquals(first.score(), other.score());
+            assertEquals(first.gold(), other.gold());
+            assertEquals(first.wavesSurvived(), other.wavesSurvived());
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package no.game.stats;
+
+import no.game.model.GameModel;
+import no.game.model.MapType;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TickStatsTest {
+
+    @Test
+    public void testModelTimesEveryTickAndPhase() {
+        GameModel model = new GameModel();
+        model.setMap(MapType.MAP1);
+        model.setGameState();
+        TickStats stats = new TickStats();
+        model.setTickStats(stats);
+
+        for (int i = 0; i < 50; i++) {
+            model.update(0.2);
+        }
+
+        assertSame(stats, model.getTickStats());
+        assertEquals(model.getTick(), stats.getTickCount());
+        assertEquals(50, stats.getTicks().size());
+        for (TickPhase phase : TickPhase.values()) {
+            assertEquals(50, stats.getPhase(phase).size(), phase.name());
+        }
+        assertTrue(stats.getTicks().percentile(99) >= stats.getPhase(TickPhase.TOWERS).percentile(0));
+        int ticksPerSecond = stats.getTicksPerSecond(System.nanoTime());
+        assertTrue(ticksPerSecond > 0 && ticksPerSecond <= 50);
+    }
+
+    @Test
+    public void testTicksAreNotTimedWithoutStats() {
+        GameModel model = new GameModel();
+        model.setMap(MapType.MAP1);
+        model.setGameState();
+        model.update(0.2);
+
+        assertNull(model.getTickStats());
+    }
+}
@@ -0,0 +1,44 @@
+package no.game.stats;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimingWindowTest {
+
+    @Test
+    public void testPercentilesByNearestRank() {
+        TimingWindow window = new TimingWindow(100);
+        assertEquals(0, window.percentile(50));
+
+        for (int i = 100; i >= 1; i--) {
+            window.record(i, i * 1_000L, 0);
+        }
+
+        assertEquals(100, window.size());
+        assertEquals(1_000, window.percentile(0));
+        assertEquals(50_000, window.percentile(50));
+        assertEquals(99_000, window.percentile(99));
+        assertEquals(100_000, window.percentile(100));
+        assertThrows(IllegalArgumentException.class, () -> window.percentile(101));
+    }
+
+    @Test
+    public void testKeepsOnlyNewestSamples() {
+        TimingWindow window = new TimingWindow(4);
+        for (int i = 1; i <= 10; i++) {
+            window.record(i * 10L, i, i * 100L);
+        }
+
+        assertEquals(4, window.size());
+        assertEquals(7, window.percentile(0));
+        assertEquals(10, window.percentile(100));
+        assertEquals(2, window.countSince(90));
+        assertEquals(1_900, window.allocatedSince(90));
+        assertEquals(4, window.countSince(0));
+
+        window.clear();
+        assertEquals(0, window.size());
+        assertThrows(IllegalArgumentException.class, () -> new TimingWindow(0));
+    }
+}
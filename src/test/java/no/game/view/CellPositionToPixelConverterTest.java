@@ -0,0 +1,80 @@
+package no.game.view;
+
+import no.game.model.GameBoard;
+import no.game.stats.TickStats;
+import no.grid.CellPosition;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.awt.geom.Rectangle2D;
+
+public class CellPositionToPixelConverterTest {
+
+    private static final Rectangle2D BOX = new Rectangle2D.Double(3.5, 7, 613.25, 401.5);
+    private static final double MARGIN = 2;
+
+    @Test
+    public void testBoundsMatchCellSize() {
+        GameBoard board = new GameBoard(7, 11);
+        CellPositionToPixelConverter converter = new CellPositionToPixelConverter(BOX, board, MARGIN);
+
+        double cellW = (BOX.getWidth() - MARGIN * 11 - MARGIN) / 11;
+        double cellH = (BOX.getHeight() - MARGIN * 7 - MARGIN) / 7;
+        Rectangle2D bounds = converter.getBoundsForCell(new CellPosition(3, 5));
+
+        assertEquals(BOX.getX() + MARGIN + (cellW + MARGIN) * 5, bounds.getX(), 1e-9);
+        assertEquals(BOX.getY() + MARGIN + (cellH + MARGIN) * 3, bounds.getY(), 1e-9);
+        assertEquals(cellW, converter.getCellWidth(), 1e-9);
+        assertEquals(cellH, converter.getCellHeight(), 1e-9);
+        assertEquals((int) (bounds.getX() + cellW / 2), converter.getCellCenter(new CellPosition(3, 5)).x);
+    }
+
+    @Test
+    public void testCellFromPixelMatchesFormula() {
+        GameBoard board = new GameBoard(7, 11);
+        CellPositionToPixelConverter converter = new CellPositionToPixelConverter(BOX, board, MARGIN);
+        double cellW = (BOX.getWidth() - MARGIN * 11 - MARGIN) / 11;
+        double cellH = (BOX.getHeight() - MARGIN * 7 - MARGIN) / 7;
+
+        for (int y = 0; y < (int) BOX.getMaxY() + 20; y++) {
+            for (int x = 0; x < (int) BOX.getMaxX() + 20; x++) {
+                int col = (int) ((x - BOX.getX() - MARGIN) / (cellW + MARGIN));
+                int row = (int) ((y - BOX.getY() - MARGIN) / (cellH + MARGIN));
+                boolean inBox = x >= 3 && x < Math.ceil(BOX.getMaxX()) && y >= 7 && y < Math.ceil(BOX.getMaxY());
+                CellPosition expected = inBox && col >= 0 && col < 11 && row >= 0 && row < 7
+                        ? new CellPosition(row, col)
+                        : null;
+                assertEquals(expected, converter.getCellFromPixel(x, y), "pixel " + x + ", " + y);
+            }
+        }
+    }
+
+    @Test
+    public void testCellLookup() {
+        CellPositionToPixelConverter converter = new CellPositionToPixelConverter(BOX, new GameBoard(7, 11), MARGIN);
+
+        CellPosition cell = converter.getCellFromPixel(300, 200);
+        assertEquals(cell, converter.getCellFromPixel(301, 201));
+        assertEquals(cell, converter.getCell(cell.row(), cell.col()));
+        assertNull(converter.getCellFromPixel(-1, 200));
+        assertEquals(-1, converter.getColAt(10_000));
+    }
+
+    @Test
+    public void testConverterForLargeBoardKeepsNothingPerCell() {
+        assumeTrue(TickStats.currentThreadAllocatedBytes() >= 0);
+        GameBoard board = new GameBoard(4096, 4096);
+
+        long start = TickStats.currentThreadAllocatedBytes();
+        CellPositionToPixelConverter converter = new CellPositionToPixelConverter(BOX, board, 0);
+        long allocated = TickStats.currentThreadAllocatedBytes() - start;
+
+        assertTrue(allocated < 256 * 1024, "The converter allocated " + allocated + " bytes");
+        CellPosition corner = converter.getCellFromPixel((int) BOX.getMaxX() - 1, (int) BOX.getMaxY() - 1);
+        assertTrue(corner.row() > 4000 && corner.col() > 4000);
+        assertEquals(new CellPosition(4095, 4095), converter.getCell(4095, 4095));
+    }
+}
@@ -0,0 +1,97 @@
+package no.game.view;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsDevice;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+
+public class RenderLayerTest {
+
+    /**
+     * The configuration of a screen that scales user space by a factor, as
+     * a HiDPI screen does.
+     */
+    private static final class ScaledScreen extends GraphicsConfiguration {
+        private final double scale;
+
+        private ScaledScreen(double scale) {
+            this.scale = scale;
+        }
+
+        @Override
+        public GraphicsDevice getDevice() {
+            return null;
+        }
+
+        @Override
+        public ColorModel getColorModel() {
+            return ColorModel.getRGBdefault();
+        }
+
+        @Override
+        public ColorModel getColorModel(int transparency) {
+            return ColorModel.getRGBdefault();
+        }
+
+        @Override
+        public AffineTransform getDefaultTransform() {
+            return AffineTransform.getScaleInstance(scale, scale);
+        }
+
+        @Override
+        public AffineTransform getNormalizingTransform() {
+            return new AffineTransform();
+        }
+
+        @Override
+        public Rectangle getBounds() {
+            return new Rectangle(0, 0, 1000, 1000);
+        }
+    }
+
+    @Test
+    public void testLayerIsPaintedAtDeviceSizeOfItsScreen() {
+        RenderLayer layer = new RenderLayer(Transparency.TRANSLUCENT);
+        double[] paintedScale = new double[1];
+        int[] paints = new int[1];
+        BufferedImage canvas = new BufferedImage(40, 40, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D screen = canvas.createGraphics();
+        screen.scale(2, 2);
+        GraphicsConfiguration hidpi = new ScaledScreen(2);
+
+        for (int frame = 0; frame < 3; frame++) {
+            layer.draw(screen, hidpi, 20, 20, 1, g -> {
+                paints[0]++;
+                paintedScale[0] = g.getTransform().getScaleX();
+                g.setColor(Color.RED);
+                g.fillRect(0, 0, 10, 10);
+            });
+        }
+        screen.dispose();
+
+        assertEquals(1, paints[0]);
+        assertEquals(2, paintedScale[0]);
+        assertEquals(Color.RED.getRGB(), canvas.getRGB(19, 19));
+        assertEquals(0, canvas.getRGB(20, 20));
+
+        // Moving the view to another screen paints the layer again, even at
+        // the same size and stamp.
+        Graphics2D other = canvas.createGraphics();
+        layer.draw(other, new ScaledScreen(1), 20, 20, 1, g -> {
+            paints[0]++;
+            paintedScale[0] = g.getTransform().getScaleX();
+        });
+        other.dispose();
+        assertEquals(2, paints[0]);
+        assertEquals(1, paintedScale[0]);
+    }
+}
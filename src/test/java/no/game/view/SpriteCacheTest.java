@@ -0,0 +1,48 @@
+package no.game.view;
+
+import no.game.model.enemy.EnemyType;
+import no.game.model.tower.TowerType;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+
+public class SpriteCacheTest {
+
+    private static BufferedImage filled(Color color) {
+        BufferedImage image = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(color);
+        g.fillRect(0, 0, 64, 64);
+        g.dispose();
+        return image;
+    }
+
+    @Test
+    public void testDrawsSpritesAtCurrentSize() {
+        SpriteCache sprites = new SpriteCache(new Image[] { filled(Color.RED), null, filled(Color.YELLOW) });
+        BufferedImage canvas = new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = canvas.createGraphics();
+
+        sprites.validate(null, 10, 10);
+        sprites.drawEnemy(g, EnemyType.BASIC, 0, 0);
+        sprites.drawEnemy(g, EnemyType.CIRCLE, 20, 0);
+        sprites.drawTower(g, TowerType.BASIC, 40, 0);
+
+        sprites.validate(null, 20, 20);
+        sprites.drawEnemy(g, EnemyType.TRIANGLE, 0, 50);
+        g.dispose();
+
+        assertEquals(Color.RED.getRGB(), canvas.getRGB(9, 9));
+        assertEquals(0, canvas.getRGB(10, 10));
+        assertEquals(0, canvas.getRGB(25, 5));
+        assertEquals(Color.BLUE.getRGB(), canvas.getRGB(45, 5));
+        assertEquals(Color.YELLOW.getRGB(), canvas.getRGB(19, 69));
+        assertEquals(0, canvas.getRGB(20, 70));
+    }
+}
@@ -0,0 +1,107 @@
+package no.game.view;
+
+import no.game.model.GameBoard;
+import no.game.stats.TickStats;
+import no.grid.CellPosition;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.awt.geom.Rectangle2D;
+
+public class UiLayoutTest {
+
+    private static final UiElement[] SHOP_BOXES = {
+            UiElement.SHOP_BASIC, UiElement.SHOP_SNIPER, UiElement.SHOP_SLOW, UiElement.SHOP_AOE };
+
+    /**
+     * Finds the element under a point by testing every box in turn, the way
+     * the controller used to.
+     */
+    private static UiElement bruteForce(UiLayout layout, int x, int y, boolean choosing, CellPosition menuCell) {
+        if (choosing) {
+            for (int i = 1; i <= 3; i++) {
+                if (layout.getMapButton(i).contains(x, y)) {
+                    return UiElement.values()[UiElement.MAP1_BUTTON.ordinal() + i - 1];
+                }
+            }
+        }
+        for (UiElement box : SHOP_BOXES) {
+            if (layout.getShopBox(box).contains(x, y)) {
+                return box;
+            }
+        }
+        if (layout.getShopBounds().contains(x, y)) {
+            return UiElement.SHOP;
+        }
+        if (menuCell != null) {
+            Rectangle2D[] buttons = layout.getMenuButtons(menuCell);
+            if (buttons[0].contains(x, y)) {
+                return UiElement.SELL_BUTTON;
+            }
+            if (buttons[1].contains(x, y)) {
+                return UiElement.UPGRADE_BUTTON;
+            }
+        }
+        return layout.cellAt(x, y) != null ? UiElement.BOARD : UiElement.NONE;
+    }
+
+    @Test
+    public void testElementAtMatchesBoxes() {
+        UiLayout layout = new UiLayout(800, 760, new GameBoard(20, 20));
+        CellPosition menuCell = new CellPosition(6, 9);
+
+        for (int y = -5; y < 770; y++) {
+            for (int x = -5; x < 810; x++) {
+                assertEquals(bruteForce(layout, x, y, true, null), layout.elementAt(x, y, true, null),
+                        "choosing at " + x + ", " + y);
+                assertEquals(bruteForce(layout, x, y, false, menuCell), layout.elementAt(x, y, false, menuCell),
+                        "menu at " + x + ", " + y);
+            }
+        }
+    }
+
+    @Test
+    public void testShopCoversBottomRows() {
+        UiLayout layout = new UiLayout(800, 800, new GameBoard(20, 20));
+
+        assertTrue(layout.fits(800, 800));
+        assertFalse(layout.fits(800, 801));
+        assertFalse(layout.isUnderShop(new CellPosition(17, 0)));
+        assertTrue(layout.isUnderShop(new CellPosition(18, 3)));
+        assertTrue(layout.isUnderShop(new CellPosition(19, 19)));
+        assertEquals(UiElement.SHOP_SNIPER, layout.elementAt(80, 740, false, null));
+        assertEquals(UiElement.SHOP, layout.elementAt(400, 740, false, null));
+        assertThrows(IllegalArgumentException.class, () -> layout.getShopBox(UiElement.BOARD));
+    }
+
+    @Test
+    public void testFollowingTheMouseReusesPositionsAndButtons() {
+        UiLayout layout = new UiLayout(800, 760, new GameBoard(20, 20));
+        CellPosition cell = layout.cellAt(200, 200);
+        CellPosition menuCell = new CellPosition(6, 9);
+
+        assertSame(cell, layout.cellAt(201, 202, cell));
+        assertEquals(layout.cellAt(400, 200), layout.cellAt(400, 200, cell));
+        assertNull(layout.cellAt(-5, 200, cell));
+        assertSame(layout.getMapButton(2), layout.getMapButton(2));
+        assertThrows(IllegalArgumentException.class, () -> layout.getMapButton(4));
+        Rectangle2D[] buttons = layout.getMenuButtons(menuCell);
+        double sellX = buttons[0].getX();
+        assertSame(buttons, layout.getMenuButtons(new CellPosition(6, 9)));
+        assertNotEquals(sellX, layout.getMenuButtons(new CellPosition(6, 10))[0].getX());
+        assertEquals(sellX, layout.getMenuButtons(menuCell)[0].getX());
+
+        assumeTrue(TickStats.currentThreadAllocatedBytes() >= 0);
+        long start = TickStats.currentThreadAllocatedBytes();
+        for (int i = 0; i < 10_000; i++) {
+            cell = layout.cellAt(200 + i % 3, 200, cell);
+            layout.getMenuButtons(menuCell);
+            layout.getMapButton(1 + i % 3);
+        }
+        long allocated = TickStats.currentThreadAllocatedBytes() - start;
+        assertTrue(allocated < 10_000, "Following the mouse allocated " + allocated + " bytes");
+    }
+}
@@ -0,0 +1,79 @@
+package no.grid;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testing the class ChunkedGrid
+ */
+public class ChunkedGridTest {
+
+	@Test
+	void testLargeGridOnlyAllocatesUsedChunks() {
+		ChunkedGrid grid = new ChunkedGrid(4096, 4096, '-');
+		assertEquals(0, grid.getAllocatedChunks());
+
+		grid.set(new CellPosition(4095, 4095), 'w');
+		grid.set(new CellPosition(4033, 4040), 'w');
+		grid.set(new CellPosition(0, 0), '-');
+
+		assertEquals(1, grid.getAllocatedChunks());
+		assertEquals('w', grid.get(new CellPosition(4095, 4095)));
+		assertEquals('-', grid.get(new CellPosition(4095, 0)));
+		assertEquals('-', grid.get(new CellPosition(2000, 2000)));
+	}
+
+	@Test
+	void testMatchesFlatGrid() {
+		// Sizes that do not fill the last chunk, to cover the edges.
+		IGrid flat = new Grid(70, 130);
+		IGrid chunked = new ChunkedGrid(70, 130);
+		for (int i = 0; i < 500; i++) {
+			int row = (i * 37) % 70;
+			int col = (i * 91) % 130;
+			char symbol = (char) ('a' + i % 26);
+			flat.setSymbol(row, col, symbol);
+			chunked.setSymbol(row, col, symbol);
+		}
+
+		List<GridCell> expected = new ArrayList<>();
+		flat.forEach(expected::add);
+		List<GridCell> actual = new ArrayList<>();
+		chunked.forEach(actual::add);
+		assertEquals(expected, actual);
+
+		StringBuilder expectedVisits = new StringBuilder();
+		flat.visitCells((row, col, symbol) -> expectedVisits.append(row).append(',').append(col).append(symbol));
+		StringBuilder actualVisits = new StringBuilder();
+		chunked.visitCells((row, col, symbol) -> actualVisits.append(row).append(',').append(col).append(symbol));
+		assertEquals(expectedVisits.toString(), actualVisits.toString());
+	}
+
+	@Test
+	void testNullIsDefaultValue() {
+		IGrid grid = new ChunkedGrid(3, 2);
+		assertNull(grid.get(new CellPosition(2, 1)));
+
+		grid.set(new CellPosition(2, 1), 'x');
+		grid.set(new CellPosition(2, 1), null);
+		assertNull(grid.get(new CellPosition(2, 1)));
+	}
+
+	@Test
+	void throwsExceptionWhenOffGrid() {
+		IGrid grid = new ChunkedGrid(100, 10, 'x');
+
+		assertTrue(grid.positionIsOnGrid(new CellPosition(99, 9)));
+		assertThrows(IndexOutOfBoundsException.class, () -> grid.get(new CellPosition(5, 10)));
+		assertThrows(IndexOutOfBoundsException.class, () -> grid.set(new CellPosition(100, 0), 'y'));
+		assertThrows(IndexOutOfBoundsException.class, () -> grid.getSymbol(0, -1));
+	}
+
+}
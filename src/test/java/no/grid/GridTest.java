@@ -2,6 +2,8 @@ package no.grid;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -128,5 +130,47 @@ public class GridTest {
 		assertTrue(items.contains(new GridCell(new CellPosition(2, 1), 'c')));
 		assertTrue(items.contains(new GridCell(new CellPosition(0, 1), 'x')));
 	}
-	
+
+	@Test
+	void testVisitCellsInRowOrder() {
+		IGrid grid = new Grid(3, 2, 'x');
+		grid.set(new CellPosition(1, 1), 'b');
+		grid.set(new CellPosition(2, 0), null);
+
+		StringBuilder visited = new StringBuilder();
+		grid.visitCells((row, col, symbol) -> visited.append(row).append(col)
+				.append(symbol == IGrid.EMPTY ? '_' : symbol).append(' '));
+
+		assertEquals("00x 01x 10x 11b 20_ 21x ", visited.toString());
+	}
+
+	@Test
+	void testSymbolsMatchBoxedValues() {
+		IGrid grid = new Grid(2, 2);
+		grid.setSymbol(0, 1, 'a');
+		grid.set(new CellPosition(1, 0), 'b');
+
+		assertEquals(IGrid.EMPTY, grid.getSymbol(0, 0));
+		assertEquals('a', grid.get(new CellPosition(0, 1)));
+		assertEquals('b', grid.getSymbol(1, 0));
+
+		grid.setSymbol(0, 1, IGrid.EMPTY);
+		assertNull(grid.get(new CellPosition(0, 1)));
+	}
+
+	@Test
+	void throwsExceptionWhenSymbolOffGrid() {
+		IGrid grid = new Grid(3, 2, 'x');
+
+		assertThrows(IndexOutOfBoundsException.class, () -> grid.getSymbol(0, 2));
+		assertThrows(IndexOutOfBoundsException.class, () -> grid.setSymbol(-1, 0, 'y'));
+	}
+
+	@Test
+	void throwsExceptionWhenEmptySymbolIsSetAsValue() {
+		IGrid grid = new Grid(1, 1);
+
+		assertThrows(IllegalArgumentException.class, () -> grid.set(new CellPosition(0, 0), IGrid.EMPTY));
+	}
+
 }